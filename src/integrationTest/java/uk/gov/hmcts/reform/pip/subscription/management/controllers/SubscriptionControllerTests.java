@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.account.PiUser;
 import uk.gov.hmcts.reform.pip.model.account.Roles;
 import uk.gov.hmcts.reform.pip.model.publication.ListType;
@@ -31,6 +32,7 @@ import uk.gov.hmcts.reform.pip.model.system.admin.ActionResult;
 import uk.gov.hmcts.reform.pip.subscription.management.Application;
 import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.ExceptionResponse;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.response.ArtefactRecipientsExplanation;
 import uk.gov.hmcts.reform.pip.subscription.management.models.response.CaseSubscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.response.LocationSubscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.response.UserSubscription;
@@ -45,11 +47,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
@@ -114,6 +120,7 @@ class SubscriptionControllerTests extends IntegrationTestBase {
 
     private static final String LOCATION_ID = "9";
     private static final String CASE_ID = "T485913";
+    private static final String ARTEFACT_CASE_NUMBER = "12345678";
     private static final String CASE_URN = "IBRANE1BVW";
     private static final String CASE_NAME = "Tom Clancy";
     private static final String PARTY_NAMES = "Party A, Party B";
@@ -124,6 +131,7 @@ class SubscriptionControllerTests extends IntegrationTestBase {
     private static final String UPDATE_LIST_TYPE_PATH = "/subscription/configure-list-types/" + VALID_USER_ID;
     private static final String ADD_LIST_TYPE_PATH = "/subscription/add-list-types/" + VALID_USER_ID;
     private static final String ARTEFACT_RECIPIENT_PATH = "/subscription/artefact-recipients";
+    private static final String ARTEFACT_RECIPIENT_EXPLAIN_PATH = ARTEFACT_RECIPIENT_PATH + "/explain";
     private static final String DELETED_ARTEFACT_RECIPIENT_PATH = "/subscription/deleted-artefact";
     private static final String DELETED_BULK_SUBSCRIPTION_V2_PATH = "/subscription/v2/bulk";
     private static final String SUBSCRIPTIONS_BY_LOCATION = "/subscription/location/";
@@ -180,8 +188,11 @@ class SubscriptionControllerTests extends IntegrationTestBase {
         when(dataManagementService.getCourtName(LOCATION_ID)).thenReturn(LOCATION_NAME_1);
         when(accountManagementService.getUserByUserId(systemAdminUserId)).thenReturn(Optional.of(systemAdminUser));
         when(accountManagementService.getUserByUserId(INVALID_ACTIONING_USER_ID)).thenReturn(Optional.of(verifiedUser));
-        when(accountManagementService.isUserAuthorised(VALID_USER_ID, ListType.CIVIL_DAILY_CAUSE_LIST,
-                                                       Sensitivity.CLASSIFIED)).thenReturn(true);
+        when(accountManagementService.findAuthorisedUserIds(anyCollection(), eq(ListType.CIVIL_DAILY_CAUSE_LIST),
+                                                            eq(Sensitivity.CLASSIFIED)))
+            .thenReturn(Mono.just(Set.of(VALID_USER_ID)));
+        when(accountManagementService.findMappedEmails(anyList()))
+            .thenReturn(Mono.just(Map.of(VALID_USER_ID, Optional.of(TEST_EMAIL))));
     }
 
     protected MockHttpServletRequestBuilder setupMockSubscription(String searchValue) throws JsonProcessingException {
@@ -759,6 +770,22 @@ class SubscriptionControllerTests extends IntegrationTestBase {
         );
     }
 
+    @Test
+    void testExplainSubscriberListReturnsCounts() throws Exception {
+        mvc.perform(setupMockSubscription(ARTEFACT_CASE_NUMBER, SearchType.CASE_ID, VALID_USER_ID));
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+            .post(ARTEFACT_RECIPIENT_EXPLAIN_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(rawArtefact);
+        MvcResult result = mvc.perform(request).andExpect(status().isOk()).andReturn();
+
+        ArtefactRecipientsExplanation explanation = OBJECT_MAPPER.readValue(
+            result.getResponse().getContentAsString(), ArtefactRecipientsExplanation.class);
+        assertEquals(1, explanation.getCaseMatches(), "Case matches should be counted");
+        assertEquals(1, explanation.getUsersAfterDedup(), "Users should be counted");
+        assertEquals(1, explanation.getRecipients(), "Recipients should be counted");
+    }
+
     @Test
     @WithMockUser(username = "unauthorized_find_by_id", authorities = {"APPROLE_unknown.find"})
     void testUnauthorizedBuildSubscriberList() throws Exception {
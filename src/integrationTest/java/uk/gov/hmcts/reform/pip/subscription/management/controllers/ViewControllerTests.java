@@ -16,6 +16,7 @@ import uk.gov.hmcts.reform.pip.subscription.management.Application;
 import uk.gov.hmcts.reform.pip.subscription.management.utils.IntegrationTestBase;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(classes = {Application.class},
@@ -29,22 +30,34 @@ class ViewControllerTests extends IntegrationTestBase {
     private transient MockMvc mockMvc;
     private static final String USERNAME = "admin";
     private static final String VALID_ROLE = "APPROLE_api.request.admin";
+    private static final String REFRESH_PATH = "/view/refresh";
 
-    @DisplayName("Should refresh view with 200 response code")
+    @DisplayName("Should start a view refresh with 202 response code")
     @Test
     @WithMockUser(username = USERNAME, authorities = {VALID_ROLE})
     void testRefreshView() throws Exception {
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
-            .post("/view/refresh");
+            .post(REFRESH_PATH);
         MvcResult response = mockMvc.perform(mockHttpServletRequestBuilder)
-            .andExpect(status().isOk()).andReturn();
-        assertEquals(200, response.getResponse().getStatus(), "Should return status code 200");
+            .andExpect(status().isAccepted()).andReturn();
+        assertEquals(202, response.getResponse().getStatus(), "Should return status code 202");
+    }
+
+    @DisplayName("Should return the view refresh status with 200 response code")
+    @Test
+    @WithMockUser(username = USERNAME, authorities = {VALID_ROLE})
+    void testGetRefreshViewStatus() throws Exception {
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
+            .get(REFRESH_PATH);
+        mockMvc.perform(mockHttpServletRequestBuilder)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").exists());
     }
 
     @Test
     void testRefreshViewUnauthorised() throws Exception {
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder = MockMvcRequestBuilders
-            .post("/view/refresh");
+            .post(REFRESH_PATH);
 
         MvcResult response = mockMvc.perform(mockHttpServletRequestBuilder)
             .andExpect(status().isUnauthorized()).andReturn();
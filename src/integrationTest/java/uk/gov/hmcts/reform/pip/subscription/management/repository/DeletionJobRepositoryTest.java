@@ -0,0 +1,97 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobState;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("integration-jpa")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DeletionJobRepositoryTest {
+    private static final String USER_ID = "1";
+
+    @Autowired
+    DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    private DeletionJob createJob(DeletionJobState state, LocalDateTime heartbeatDate) {
+        DeletionJob job = new DeletionJob(DeletionJobType.USER, USER_ID, null);
+        job.setState(state);
+        job.setHeartbeatDate(heartbeatDate);
+        return deletionJobRepository.saveAndFlush(job);
+    }
+
+    @Test
+    void shouldClaimJobsWithoutRecentProgressOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        DeletionJob staleJob = createJob(DeletionJobState.IN_PROGRESS, now.minusHours(1));
+        DeletionJob activeJob = createJob(DeletionJobState.IN_PROGRESS, now);
+        DeletionJob completedJob = createJob(DeletionJobState.COMPLETED, now.minusHours(1));
+
+        assertThat(deletionJobRepository.claimStaleJobs(now, now.minusMinutes(10), UUID.randomUUID()))
+            .as("Only the job without recent progress should be claimed")
+            .contains(staleJob.getId())
+            .doesNotContain(activeJob.getId(), completedJob.getId());
+        assertThat(deletionJobRepository.claimStaleJobs(now, now.minusMinutes(10), UUID.randomUUID()))
+            .as("Claimed job should not be claimed again until it is stale")
+            .doesNotContain(staleJob.getId());
+    }
+
+    @Test
+    void shouldOnlyRecordProgressForOwnerOfJob() {
+        LocalDateTime now = LocalDateTime.now();
+        DeletionJob job = createJob(DeletionJobState.IN_PROGRESS, now.minusHours(1));
+        UUID previousOwner = job.getOwner();
+        UUID newOwner = UUID.randomUUID();
+        deletionJobRepository.claimStaleJobs(now, now.minusMinutes(10), newOwner);
+
+        assertThat(deletionJobRepository.addDeletedCount(job.getId(), previousOwner, 1, new String[] {USER_ID}, now))
+            .as("Progress should not be recorded by the previous owner")
+            .isZero();
+        assertThat(deletionJobRepository.addDeletedCount(job.getId(), newOwner, 2, new String[] {USER_ID, USER_ID},
+                                                         now))
+            .as("Progress should be recorded by the new owner")
+            .isEqualTo(1);
+        assertThat(deletionJobRepository.completeJob(job.getId(), previousOwner, DeletionJobState.FAILED.name(),
+                                                     "Stopped", now))
+            .as("Job should not be completed by the previous owner")
+            .isZero();
+
+        testEntityManager.clear();
+        assertThat(deletionJobRepository.findById(job.getId()))
+            .as("Job should keep the progress of the new owner")
+            .hasValueSatisfying(updatedJob -> {
+                assertThat(updatedJob.getState()).isEqualTo(DeletionJobState.IN_PROGRESS);
+                assertThat(updatedJob.getDeletedCount()).isEqualTo(2);
+                assertThat(updatedJob.getSubscriberUserIds()).isEqualTo(List.of(USER_ID, USER_ID));
+            });
+    }
+
+    @Test
+    void shouldCompleteJobOnce() {
+        DeletionJob job = createJob(DeletionJobState.IN_PROGRESS, LocalDateTime.now());
+
+        assertThat(deletionJobRepository.completeJob(job.getId(), job.getOwner(), DeletionJobState.COMPLETED.name(),
+                                                     null, LocalDateTime.now()))
+            .as("Job should be completed by its owner")
+            .isEqualTo(1);
+        assertThat(deletionJobRepository.completeJob(job.getId(), job.getOwner(), DeletionJobState.FAILED.name(),
+                                                     "Failed", LocalDateTime.now()))
+            .as("Completed job should not be completed again")
+            .isZero();
+    }
+}
@@ -0,0 +1,118 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("integration-jpa")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NotificationOutboxRepositoryTest {
+    private static final int BATCH_SIZE = 10;
+
+    private static final String CLAIMED_MESSAGE = "Claimed notifications do not match";
+
+    @Autowired
+    NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    private NotificationOutbox createNotification() {
+        NotificationOutbox notification = notificationOutboxRepository.saveAndFlush(
+            new NotificationOutbox(UUID.randomUUID(), NotificationType.THIRD_PARTY_LIST, "{}"));
+        testEntityManager.clear();
+        return notification;
+    }
+
+    /**
+     * Claim the due notifications, keeping only the given notification in case the outbox holds others.
+     */
+    private List<NotificationOutbox> claim(NotificationOutbox notification, LocalDateTime now) {
+        List<NotificationOutbox> claimed = notificationOutboxRepository.claimDueNotifications(
+            now, now.plusMinutes(10), BATCH_SIZE);
+        testEntityManager.clear();
+        return claimed.stream()
+            .filter(claimedNotification -> claimedNotification.getId().equals(notification.getId()))
+            .toList();
+    }
+
+    @Test
+    void shouldClaimDueNotificationsUntilLeaseExpires() {
+        NotificationOutbox notification = createNotification();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(claim(notification, now))
+            .as(CLAIMED_MESSAGE)
+            .singleElement()
+            .satisfies(claimed -> {
+                assertThat(claimed.getStatus()).isEqualTo(NotificationStatus.IN_FLIGHT);
+                assertThat(claimed.getAttempts()).isEqualTo(1);
+            });
+        assertThat(claim(notification, now.plusMinutes(5)))
+            .as("Notification should not be claimed again while its lease is held")
+            .isEmpty();
+        assertThat(claim(notification, now.plusMinutes(11)))
+            .as("Notification should be claimed again once its lease expires")
+            .singleElement()
+            .extracting(NotificationOutbox::getAttempts)
+            .isEqualTo(2);
+    }
+
+    @Test
+    void shouldOnlyRecordOutcomeForCurrentClaim() {
+        NotificationOutbox notification = createNotification();
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutbox firstClaim = claim(notification, now).get(0);
+        NotificationOutbox secondClaim = claim(notification, now.plusMinutes(11)).get(0);
+
+        firstClaim.setStatus(NotificationStatus.SENT);
+        assertThat(notificationOutboxRepository.recordOutcome(firstClaim))
+            .as("Outcome of an expired claim should not be recorded")
+            .isZero();
+
+        secondClaim.setStatus(NotificationStatus.SENT);
+        assertThat(notificationOutboxRepository.recordOutcome(secondClaim))
+            .as("Outcome of the current claim should be recorded")
+            .isEqualTo(1);
+        testEntityManager.clear();
+        assertThat(notificationOutboxRepository.findById(secondClaim.getId()))
+            .as("Notification should be marked as sent")
+            .get()
+            .extracting(NotificationOutbox::getStatus)
+            .isEqualTo(NotificationStatus.SENT);
+    }
+
+    @Test
+    void shouldPurgeSentAndFailedNotificationsOlderThanRetention() {
+        NotificationOutbox pendingNotification = createNotification();
+        NotificationOutbox failedNotification = createNotification();
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutbox claimed = claim(failedNotification, now).get(0);
+        claimed.setStatus(NotificationStatus.FAILED);
+        notificationOutboxRepository.recordOutcome(claimed);
+
+        notificationOutboxRepository.deleteByStatusInAndLastAttemptDateBefore(
+            List.of(NotificationStatus.SENT, NotificationStatus.FAILED), now.plusMinutes(1));
+        testEntityManager.clear();
+
+        assertThat(notificationOutboxRepository.findById(failedNotification.getId()))
+            .as("Failed notification should be purged")
+            .isEmpty();
+        assertThat(notificationOutboxRepository.findById(pendingNotification.getId()))
+            .as("Pending notification should not be purged")
+            .isPresent();
+    }
+}
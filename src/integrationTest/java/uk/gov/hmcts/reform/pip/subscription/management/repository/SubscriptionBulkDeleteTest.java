@@ -0,0 +1,145 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.hmcts.reform.pip.model.publication.ListType;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the repository delete paths remove every matching row with a single statement, however many rows
+ * match, rather than loading each entity and deleting it individually.
+ */
+@ActiveProfiles("integration-jpa")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SubscriptionBulkDeleteTest {
+    private static final String USER_ID = "bulk-delete-user";
+    private static final String ORPHANED_USER_ID = "bulk-delete-orphaned-user";
+    private static final String LOCATION_ID = "999";
+    private static final int SUBSCRIPTION_COUNT = 50;
+
+    private static final String STATEMENT_COUNT_MESSAGE = "Delete should be issued as a single statement";
+    private static final String DELETED_MESSAGE = "Rows have not been deleted";
+
+    @Autowired
+    SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    SubscriptionListTypeRepository subscriptionListTypeRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void createListType(String userId) {
+        subscriptionListTypeRepository.saveAndFlush(new SubscriptionListType(
+            userId, List.of(ListType.CIVIL_DAILY_CAUSE_LIST.name()), List.of("ENGLISH")));
+    }
+
+    private List<UUID> createSubscriptions() {
+        List<Subscription> subscriptions = IntStream.range(0, SUBSCRIPTION_COUNT)
+            .mapToObj(i -> {
+                Subscription subscription = new Subscription();
+                subscription.setUserId(USER_ID);
+                subscription.setSearchType(SearchType.LOCATION_ID);
+                subscription.setSearchValue(LOCATION_ID + i);
+                subscription.setChannel(Channel.EMAIL);
+                return subscription;
+            })
+            .toList();
+        List<UUID> ids = subscriptionRepository.saveAllAndFlush(subscriptions).stream()
+            .map(Subscription::getId)
+            .toList();
+        statistics.clear();
+        return ids;
+    }
+
+    @Test
+    void shouldDeleteSubscriptionsByIdWithSingleStatement() {
+        List<UUID> ids = createSubscriptions();
+
+        subscriptionRepository.deleteByIdIn(ids);
+
+        assertThat(statistics.getPrepareStatementCount())
+            .as(STATEMENT_COUNT_MESSAGE)
+            .isEqualTo(1);
+        assertThat(subscriptionRepository.findByIdIn(ids))
+            .as(DELETED_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void shouldDeleteSubscriptionsByUserIdWithSingleStatement() {
+        createSubscriptions();
+
+        assertThat(subscriptionRepository.deleteAllByUserId(USER_ID))
+            .as("Every subscription of the user should be counted")
+            .isEqualTo(SUBSCRIPTION_COUNT);
+
+        assertThat(statistics.getPrepareStatementCount())
+            .as(STATEMENT_COUNT_MESSAGE)
+            .isEqualTo(1);
+        assertThat(subscriptionRepository.findByUserId(USER_ID))
+            .as(DELETED_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void shouldDeleteListTypesByUserIdWithSingleStatement() {
+        createListType(USER_ID);
+        statistics.clear();
+
+        subscriptionListTypeRepository.deleteByUserId(USER_ID);
+
+        assertThat(statistics.getPrepareStatementCount())
+            .as(STATEMENT_COUNT_MESSAGE)
+            .isEqualTo(1);
+        assertThat(subscriptionListTypeRepository.findByUserId(USER_ID))
+            .as(DELETED_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void shouldDeleteOnlyOrphanedListTypesWithSingleStatement() {
+        createSubscriptions();
+        createListType(USER_ID);
+        createListType(ORPHANED_USER_ID);
+        statistics.clear();
+
+        assertThat(subscriptionListTypeRepository.deleteOrphanedByUserIdIn(
+            new String[] {USER_ID, ORPHANED_USER_ID}))
+            .as("Only the user without location subscriptions should be returned")
+            .containsExactly(ORPHANED_USER_ID);
+        assertThat(statistics.getPrepareStatementCount())
+            .as(STATEMENT_COUNT_MESSAGE)
+            .isEqualTo(1);
+        assertThat(subscriptionListTypeRepository.findByUserId(USER_ID))
+            .as("List types of a user with location subscriptions should not be deleted")
+            .isPresent();
+        assertThat(subscriptionListTypeRepository.findByUserId(ORPHANED_USER_ID))
+            .as(DELETED_MESSAGE)
+            .isEmpty();
+    }
+}
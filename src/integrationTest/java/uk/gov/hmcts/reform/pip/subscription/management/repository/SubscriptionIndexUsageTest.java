@@ -0,0 +1,97 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the indexes created by the Flyway migrations are usable by the planner for each repository access path.
+ * Sequential scans are disabled for the test transaction, as the planner would otherwise prefer them for the small
+ * amount of data held in the test database.
+ */
+@ActiveProfiles("integration")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES)
+class SubscriptionIndexUsageTest {
+    private static final String SEARCH_TYPE_SEARCH_VALUE_INDEX = "idx_subscription_search_type_search_value";
+    private static final String USER_ID_SEARCH_TYPE_SEARCH_VALUE_INDEX =
+        "idx_subscription_user_id_search_type_search_value";
+    private static final String LIST_TYPE_USER_ID_INDEX = "idx_subscription_list_type_user_id";
+    private static final String LIST_TYPE_INDEX = "idx_subscription_list_type_list_type";
+    private static final String LIST_LANGUAGE_INDEX = "idx_subscription_list_type_list_language";
+
+    private static final String INDEX_USED_MESSAGE = "Query plan does not use the expected index";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    private String explain(String query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+    }
+
+    @Test
+    void shouldUseIndexForSearchValueLookup() {
+        assertThat(explain("SELECT * FROM subscription WHERE search_type = 'CASE_ID' AND search_value = '123'"))
+            .as(INDEX_USED_MESSAGE)
+            .contains(SEARCH_TYPE_SEARCH_VALUE_INDEX);
+    }
+
+    @Test
+    void shouldUseIndexForUserLookup() {
+        assertThat(explain("SELECT * FROM subscription WHERE user_id = '1'"))
+            .as(INDEX_USED_MESSAGE)
+            .contains(USER_ID_SEARCH_TYPE_SEARCH_VALUE_INDEX);
+    }
+
+    @Test
+    void shouldUseIndexForUserLocationLookup() {
+        assertThat(explain("SELECT * FROM subscription WHERE user_id = '1' AND search_type = 'LOCATION_ID'"))
+            .as(INDEX_USED_MESSAGE)
+            .contains(USER_ID_SEARCH_TYPE_SEARCH_VALUE_INDEX);
+    }
+
+    @Test
+    void shouldDropIndexCoveredByUniqueSearchIndex() {
+        assertThat(jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = 'subscription'",
+                                             String.class))
+            .as("Index on user and search type should be replaced by the unique search index")
+            .contains(USER_ID_SEARCH_TYPE_SEARCH_VALUE_INDEX)
+            .doesNotContain("idx_subscription_user_id_search_type");
+    }
+
+    @Test
+    void shouldUseIndexForListTypeUserLookup() {
+        assertThat(explain("SELECT * FROM subscription_list_type WHERE user_id = '1'"))
+            .as(INDEX_USED_MESSAGE)
+            .contains(LIST_TYPE_USER_ID_INDEX);
+    }
+
+    @Test
+    void shouldUseIndexForListTypeOverlap() {
+        assertThat(explain("SELECT * FROM subscription_list_type "
+                               + "WHERE list_type && string_to_array('CIVIL_DAILY_CAUSE_LIST', ',')"))
+            .as(INDEX_USED_MESSAGE)
+            .contains(LIST_TYPE_INDEX);
+    }
+
+    @Test
+    void shouldUseIndexForListLanguageOverlap() {
+        assertThat(explain("SELECT * FROM subscription_list_type "
+                               + "WHERE list_language && string_to_array('ENGLISH', ',')"))
+            .as(INDEX_USED_MESSAGE)
+            .contains(LIST_LANGUAGE_INDEX);
+    }
+}
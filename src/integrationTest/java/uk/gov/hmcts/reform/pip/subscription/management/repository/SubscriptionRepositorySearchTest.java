@@ -13,6 +13,7 @@ import uk.gov.hmcts.reform.pip.model.subscription.Channel;
 import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 
 import java.util.Arrays;
 import java.util.List;
@@ -33,11 +34,14 @@ class SubscriptionRepositorySearchTest {
     private static final String SUBSCRIPTION_MATCHED_MESSAGE = "Subscription does not match";
     private static final String SUBSCRIPTION_EMPTY_MESSAGE = "Subscription is not empty";
     private static final String LIST_LANGUAGE = "ENGLISH";
+    private static final String UNKNOWN_CASE_VALUE = "Unknown case value";
+    private static final String OTHER_USER_ID = "2";
+    private static final String OTHER_LOCATION_ID = "456";
+    private static final String OTHER_LIST_LANGUAGE = "WELSH";
+    private static final String NEW_LIST_TYPE_USER_ID = "3";
+    private static final String NEW_LIST_TYPE = "NEW_LIST_TYPE";
 
     private UUID subscriptionId1;
-    private UUID subscriptionId2;
-    private UUID subscriptionId3;
-    private UUID subscriptionId4;
 
     @Autowired
     SubscriptionRepository subscriptionRepository;
@@ -64,8 +68,7 @@ class SubscriptionRepositorySearchTest {
         subscription2.setChannel(Channel.EMAIL);
         subscription2.setCaseNumber(CASE_NUMBER);
 
-        savedSubscription = subscriptionRepository.save(subscription2);
-        subscriptionId2 = savedSubscription.getId();
+        subscriptionRepository.save(subscription2);
 
         Subscription subscription3 = new Subscription();
         subscription3.setUserId(USER_ID);
@@ -74,8 +77,7 @@ class SubscriptionRepositorySearchTest {
         subscription3.setChannel(Channel.EMAIL);
         subscription3.setUrn(CASE_URN);
 
-        savedSubscription = subscriptionRepository.save(subscription3);
-        subscriptionId3 = savedSubscription.getId();
+        subscriptionRepository.save(subscription3);
 
         Subscription subscription4 = new Subscription();
         subscription4.setUserId(USER_ID);
@@ -83,8 +85,7 @@ class SubscriptionRepositorySearchTest {
         subscription4.setSearchValue(ListType.CIVIL_DAILY_CAUSE_LIST.name());
         subscription4.setChannel(Channel.EMAIL);
         subscription4.setLocationName(LOCATION_NAME);
-        savedSubscription = subscriptionRepository.save(subscription4);
-        subscriptionId4 = savedSubscription.getId();
+        subscriptionRepository.save(subscription4);
 
         SubscriptionListType subscriptionListType = new SubscriptionListType();
         subscriptionListType.setListType(Arrays.asList(ListType.CIVIL_DAILY_CAUSE_LIST.name()));
@@ -98,57 +99,75 @@ class SubscriptionRepositorySearchTest {
         subscriptionRepository.deleteAll();
     }
 
+    @Test
+    void shouldFindNoMissingRecipientObjects() {
+        assertThat(subscriptionRepository.findMissingRecipientObjects())
+            .as("Objects created by the migrations should exist")
+            .isEmpty();
+    }
+
+    @Test
+    void shouldFindSearchValuesBySearchType() {
+        assertThat(subscriptionRepository.findSearchValuesBySearchType(SearchType.CASE_ID))
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .containsExactly(CASE_NUMBER);
+
+        assertThat(subscriptionRepository.findSearchValuesBySearchType(SearchType.CASE_URN))
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .containsExactly(CASE_URN);
+    }
+
     @Test
     void shouldFindSubscriptionsByCaseIdSearchValue() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.CASE_ID.name(), CASE_NUMBER))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(SearchType.CASE_ID, CASE_NUMBER))
             .as(SUBSCRIPTION_MATCHED_MESSAGE)
-            .hasSize(1).extracting(Subscription::getId)
-            .containsExactly(subscriptionId2);
+            .hasSize(1).extracting(SubscriptionRecipient::searchType)
+            .containsExactly(SearchType.CASE_ID);
     }
 
     @Test
     void shouldFindNotSubscriptionsByCaseIdUsingCaseUrnSearchValue() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.CASE_ID.name(), CASE_URN))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(SearchType.CASE_ID, CASE_URN))
             .as(SUBSCRIPTION_EMPTY_MESSAGE)
             .isEmpty();
     }
 
     @Test
     void shouldFindSubscriptionsByCaseUrnSearchValue() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.CASE_URN.name(), CASE_URN))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(SearchType.CASE_URN, CASE_URN))
             .as(SUBSCRIPTION_MATCHED_MESSAGE)
-            .hasSize(1).extracting(Subscription::getId)
-            .containsExactly(subscriptionId3);
+            .hasSize(1).extracting(SubscriptionRecipient::searchType)
+            .containsExactly(SearchType.CASE_URN);
     }
 
     @Test
     void shouldNotFindSubscriptionsByCaseUrnUsingCaseNumberSearchValue() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.CASE_URN.name(), CASE_NUMBER))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(SearchType.CASE_URN, CASE_NUMBER))
             .as(SUBSCRIPTION_EMPTY_MESSAGE)
             .isEmpty();
     }
 
     @Test
     void shouldFindSubscriptionsByListTypeSearchValue() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.LIST_TYPE.name(),
-                                                                         ListType.CIVIL_DAILY_CAUSE_LIST.name()))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(
+            SearchType.LIST_TYPE, ListType.CIVIL_DAILY_CAUSE_LIST.name()))
             .as(SUBSCRIPTION_MATCHED_MESSAGE)
             .hasSize(1)
-            .extracting(Subscription::getId)
-            .containsExactlyInAnyOrder(subscriptionId4);
+            .extracting(SubscriptionRecipient::searchType)
+            .containsExactly(SearchType.LIST_TYPE);
     }
 
     @Test
     void shouldNotFindSubscriptionsByListTypeSearchValueIfListTypeNotMatched() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.LIST_TYPE.name(),
-                                                                         ListType.FAMILY_DAILY_CAUSE_LIST.name()))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(
+            SearchType.LIST_TYPE, ListType.FAMILY_DAILY_CAUSE_LIST.name()))
             .as(SUBSCRIPTION_EMPTY_MESSAGE)
             .isEmpty();
     }
 
     @Test
     void shouldNotFindSubscriptionsByLocationIdUsingStandardSearch() {
-        assertThat(subscriptionRepository.findSubscriptionsBySearchValue(SearchType.LOCATION_ID.name(), LOCATION_ID))
+        assertThat(subscriptionRepository.findSubscriptionRecipientsBySearchValue(SearchType.LOCATION_ID, LOCATION_ID))
             .as(SUBSCRIPTION_EMPTY_MESSAGE)
             .isEmpty();
     }
@@ -174,4 +193,136 @@ class SubscriptionRepositorySearchTest {
             .as(SUBSCRIPTION_EMPTY_MESSAGE)
             .isEmpty();
     }
+
+    @Test
+    void shouldFindLocationSubscriptionsForAllListTypesWhenNoneConfigured() {
+        Subscription subscription = new Subscription();
+        subscription.setUserId(OTHER_USER_ID);
+        subscription.setSearchType(SearchType.LOCATION_ID);
+        subscription.setSearchValue(OTHER_LOCATION_ID);
+        subscription.setChannel(Channel.EMAIL);
+        subscriptionRepository.saveAndFlush(subscription);
+
+        SubscriptionListType subscriptionListType = new SubscriptionListType(OTHER_USER_ID, List.of(),
+                                                                             List.of(LIST_LANGUAGE));
+        subscriptionListTypeRepository.saveAndFlush(subscriptionListType);
+
+        assertThat(subscriptionRepository.findSubscriptionsByLocationSearchValue(
+            OTHER_LOCATION_ID, ListType.CROWN_DAILY_LIST.name(), LIST_LANGUAGE))
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .extracting(Subscription::getUserId)
+            .containsExactly(OTHER_USER_ID);
+
+        subscriptionListType.setListType(List.of(ListType.CIVIL_DAILY_CAUSE_LIST.name()));
+        subscriptionListTypeRepository.saveAndFlush(subscriptionListType);
+
+        assertThat(subscriptionRepository.findSubscriptionsByLocationSearchValue(
+            OTHER_LOCATION_ID, ListType.CROWN_DAILY_LIST.name(), LIST_LANGUAGE))
+            .as(SUBSCRIPTION_EMPTY_MESSAGE)
+            .isEmpty();
+
+        subscriptionRepository.delete(subscription);
+        subscriptionRepository.flush();
+
+        assertThat(subscriptionRepository.findSubscriptionsByLocationSearchValue(
+            OTHER_LOCATION_ID, ListType.CIVIL_DAILY_CAUSE_LIST.name(), LIST_LANGUAGE))
+            .as(SUBSCRIPTION_EMPTY_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void shouldNotFindSubscriptionsByLocationIdSearchValueIfLanguageUnmatched() {
+        assertThat(subscriptionRepository.findSubscriptionsByLocationSearchValue(
+            LOCATION_ID, ListType.CIVIL_DAILY_CAUSE_LIST.name(), OTHER_LIST_LANGUAGE))
+            .as(SUBSCRIPTION_EMPTY_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void shouldFindLocationSubscriptionsForListTypeConfiguredForFirstTime() {
+        Subscription subscription = new Subscription();
+        subscription.setUserId(NEW_LIST_TYPE_USER_ID);
+        subscription.setSearchType(SearchType.LOCATION_ID);
+        subscription.setSearchValue(OTHER_LOCATION_ID);
+        subscription.setChannel(Channel.EMAIL);
+        subscriptionRepository.saveAndFlush(subscription);
+
+        assertThat(subscriptionRepository.findSubscriptionsByLocationSearchValue(
+            OTHER_LOCATION_ID, NEW_LIST_TYPE, LIST_LANGUAGE))
+            .as(SUBSCRIPTION_EMPTY_MESSAGE)
+            .isEmpty();
+
+        subscriptionListTypeRepository.saveAndFlush(new SubscriptionListType(
+            NEW_LIST_TYPE_USER_ID, List.of(NEW_LIST_TYPE), List.of(LIST_LANGUAGE)));
+
+        assertThat(subscriptionRepository.findSubscriptionsByLocationSearchValue(
+            OTHER_LOCATION_ID, NEW_LIST_TYPE, LIST_LANGUAGE))
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .extracting(Subscription::getUserId)
+            .containsExactly(NEW_LIST_TYPE_USER_ID);
+    }
+
+    @Test
+    void shouldFindAllSubscriptionsForArtefactInSingleQuery() {
+        List<SubscriptionRecipient> subscriptions = subscriptionRepository.findSubscriptionRecipientsForArtefact(
+            LOCATION_ID, ListType.CIVIL_DAILY_CAUSE_LIST.name(), LIST_LANGUAGE,
+            new String[]{CASE_NUMBER, UNKNOWN_CASE_VALUE}, new String[]{CASE_URN}
+        );
+        assertThat(subscriptions)
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .hasSize(4)
+            .containsExactlyInAnyOrder(
+                new SubscriptionRecipient(USER_ID, SearchType.LOCATION_ID, LOCATION_ID, Channel.EMAIL),
+                new SubscriptionRecipient(USER_ID, SearchType.CASE_ID, CASE_NUMBER, Channel.EMAIL),
+                new SubscriptionRecipient(USER_ID, SearchType.CASE_URN, CASE_URN, Channel.EMAIL),
+                new SubscriptionRecipient(USER_ID, SearchType.LIST_TYPE, ListType.CIVIL_DAILY_CAUSE_LIST.name(),
+                                          Channel.EMAIL));
+    }
+
+    @Test
+    void shouldFindSubscriptionsForArtefactWithNoCases() {
+        List<SubscriptionRecipient> subscriptions = subscriptionRepository.findSubscriptionRecipientsForArtefact(
+            LOCATION_ID, ListType.CIVIL_DAILY_CAUSE_LIST.name(), LIST_LANGUAGE, new String[0], new String[0]
+        );
+        assertThat(subscriptions)
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .hasSize(2)
+            .extracting(SubscriptionRecipient::searchType)
+            .containsExactlyInAnyOrder(SearchType.LOCATION_ID, SearchType.LIST_TYPE);
+    }
+
+    @Test
+    void shouldPageAllSubscriptionsForArtefact() {
+        List<SubscriptionRecipient> firstPage = findRecipientPage("", "", "");
+        SubscriptionRecipient last = firstPage.get(firstPage.size() - 1);
+        List<SubscriptionRecipient> secondPage = findRecipientPage(last.userId(), last.searchType().name(),
+                                                                   last.searchValue());
+
+        assertThat(firstPage)
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .extracting(SubscriptionRecipient::searchType)
+            .containsExactly(SearchType.CASE_ID, SearchType.CASE_URN, SearchType.LIST_TYPE);
+        assertThat(secondPage)
+            .as("Second page should start after the first")
+            .extracting(SubscriptionRecipient::searchType)
+            .containsExactly(SearchType.LOCATION_ID);
+    }
+
+    private List<SubscriptionRecipient> findRecipientPage(String afterUserId, String afterSearchType,
+                                                          String afterSearchValue) {
+        return subscriptionRepository.findSubscriptionRecipientsForArtefactPage(
+            LOCATION_ID, ListType.CIVIL_DAILY_CAUSE_LIST.name(), LIST_LANGUAGE, new String[]{CASE_NUMBER},
+            new String[]{CASE_URN}, afterUserId, afterSearchType, afterSearchValue, 3);
+    }
+
+    @Test
+    void shouldNotFindSubscriptionsForArtefactIfNothingMatched() {
+        List<SubscriptionRecipient> subscriptions = subscriptionRepository.findSubscriptionRecipientsForArtefact(
+            LOCATION_ID, ListType.CROWN_DAILY_LIST.name(), LIST_LANGUAGE,
+            new String[]{UNKNOWN_CASE_VALUE}, new String[]{UNKNOWN_CASE_VALUE}
+        );
+        assertThat(subscriptions)
+            .as(SUBSCRIPTION_EMPTY_MESSAGE)
+            .isEmpty();
+    }
 }
@@ -36,6 +36,7 @@ class SubscriptionRepositoryTest {
     private static final String LOCATION_NAME3 = "Test location name 3";
     private static final String CASE_NUMBER = "Test case number";
     private static final LocalDateTime SUBSCRIPTION_CREATED_DATE = LocalDateTime.of(2025, 2, 5, 2, 2, 2);
+    private static final LocalDateTime UPSERTED_CREATED_DATE = LocalDateTime.of(2025, 3, 6, 3, 3, 3);
 
     private static final String SUBSCRIPTION_MATCHED_MESSAGE = "Subscription does not match";
     private static final String SUBSCRIPTION_EMPTY_MESSAGE = "Subscription is not empty";
@@ -144,4 +145,51 @@ class SubscriptionRepositoryTest {
             .as(SUBSCRIPTION_EMPTY_MESSAGE)
             .isEmpty();
     }
+
+    @Test
+    void shouldReplaceExistingSubscriptionOnUpsert() {
+        Subscription subscription = new Subscription();
+        subscription.setUserId(USER_ID1);
+        subscription.setSearchType(SearchType.LOCATION_ID);
+        subscription.setSearchValue(LOCATION_ID2);
+        subscription.setChannel(Channel.API_COURTEL);
+        subscription.setLocationName(LOCATION_NAME2);
+        subscription.setCreatedDate(UPSERTED_CREATED_DATE);
+
+        Subscription upsertedSubscription = subscriptionRepository.upsertSubscription(subscription);
+
+        assertThat(upsertedSubscription.getId())
+            .as("Existing subscription should keep its ID")
+            .isEqualTo(subscriptionId2);
+        assertThat(upsertedSubscription.getChannel())
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .isEqualTo(Channel.API_COURTEL);
+        assertThat(upsertedSubscription.getCreatedDate())
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .isEqualTo(UPSERTED_CREATED_DATE);
+        assertThat(subscriptionRepository.findSubscriptionsByLocationId(LOCATION_ID2))
+            .as("Only one subscription should be held for the search value")
+            .hasSize(1);
+    }
+
+    @Test
+    void shouldCreateNewSubscriptionOnUpsert() {
+        Subscription subscription = new Subscription();
+        subscription.setUserId(USER_ID2);
+        subscription.setSearchType(SearchType.LOCATION_ID);
+        subscription.setSearchValue(LOCATION_ID2);
+        subscription.setChannel(Channel.EMAIL);
+        subscription.setLocationName(LOCATION_NAME2);
+
+        Subscription upsertedSubscription = subscriptionRepository.upsertSubscription(subscription);
+
+        assertThat(upsertedSubscription.getId())
+            .as("New subscription should be given an ID")
+            .isNotNull()
+            .isNotEqualTo(subscriptionId2);
+        assertThat(subscriptionRepository.findSubscriptionsByLocationId(LOCATION_ID2))
+            .as(SUBSCRIPTION_MATCHED_MESSAGE)
+            .extracting(Subscription::getUserId)
+            .containsExactlyInAnyOrder(USER_ID1, USER_ID2);
+    }
 }
@@ -0,0 +1,99 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefresh;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("integration-jpa")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ViewRefreshRepositoryTest {
+    private static final String VIEW_NAME = "test_view";
+
+    private static final String QUEUED_MESSAGE = "Refresh queued does not match";
+    private static final String STATE_MESSAGE = "Refresh state does not match";
+
+    @Autowired
+    ViewRefreshRepository viewRefreshRepository;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    private boolean startOrQueueRefresh(LocalDateTime now) {
+        boolean queued = viewRefreshRepository.startOrQueueRefresh(VIEW_NAME, now, now.minusHours(1));
+        testEntityManager.clear();
+        return queued;
+    }
+
+    private ViewRefresh findViewRefresh() {
+        testEntityManager.clear();
+        return viewRefreshRepository.findById(VIEW_NAME).orElseThrow();
+    }
+
+    @Test
+    void shouldQueueRefreshWhileRefreshIsRunning() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertThat(startOrQueueRefresh(now))
+            .as(QUEUED_MESSAGE)
+            .isFalse();
+        assertThat(startOrQueueRefresh(now.plusMinutes(1)))
+            .as(QUEUED_MESSAGE)
+            .isTrue();
+
+        assertThat(viewRefreshRepository.completeRefresh(VIEW_NAME, now.plusMinutes(2)))
+            .as("Queued refresh should be started when the running refresh completes")
+            .isEqualTo(ViewRefreshState.IN_PROGRESS.name());
+        assertThat(viewRefreshRepository.completeRefresh(VIEW_NAME, now.plusMinutes(3)))
+            .as("Refresh should be completed when no refresh is queued")
+            .isEqualTo(ViewRefreshState.COMPLETED.name());
+
+        ViewRefresh viewRefresh = findViewRefresh();
+        assertThat(viewRefresh.getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(ViewRefreshState.COMPLETED);
+        assertThat(viewRefresh.getStartedDate())
+            .as("Started date should be that of the queued refresh")
+            .isEqualTo(now.plusMinutes(2));
+    }
+
+    @Test
+    void shouldStartRefreshWhenRunningRefreshIsAbandoned() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        startOrQueueRefresh(now);
+
+        assertThat(startOrQueueRefresh(now.plusHours(2)))
+            .as(QUEUED_MESSAGE)
+            .isFalse();
+        assertThat(findViewRefresh().getStartedDate())
+            .as("Started date should be that of the new refresh")
+            .isEqualTo(now.plusHours(2));
+    }
+
+    @Test
+    void shouldDropQueuedRefreshWhenRefreshFails() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        startOrQueueRefresh(now);
+        startOrQueueRefresh(now);
+
+        viewRefreshRepository.recordRefreshOutcome(VIEW_NAME, ViewRefreshState.FAILED, "Refresh failed", now);
+
+        ViewRefresh viewRefresh = findViewRefresh();
+        assertThat(viewRefresh.getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(ViewRefreshState.FAILED);
+        assertThat(viewRefresh.isRefreshQueued())
+            .as(QUEUED_MESSAGE)
+            .isFalse();
+    }
+}
@@ -3,10 +3,14 @@ package uk.gov.hmcts.reform.pip.subscription.management;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import uk.gov.hmcts.reform.pip.subscription.management.config.FanOutExecutorConfigurationProperties;
 import uk.gov.hmcts.reform.pip.subscription.management.config.ThirdPartyApiConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(ThirdPartyApiConfigurationProperties.class)
+@EnableConfigurationProperties({
+    ThirdPartyApiConfigurationProperties.class,
+    FanOutExecutorConfigurationProperties.class
+})
 @SuppressWarnings("HideUtilityClassConstructor") // Spring needs a constructor, its not a utility class
 public class Application {
 
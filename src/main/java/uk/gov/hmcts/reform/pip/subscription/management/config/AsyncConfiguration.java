@@ -0,0 +1,87 @@
+package uk.gov.hmcts.reform.pip.subscription.management.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the executors used for background work.
+ */
+@Configuration
+public class AsyncConfiguration {
+    public static final String FAN_OUT_EXECUTOR = "fanOutExecutor";
+
+    private static final String FAN_OUT_METRIC_PREFIX = "subscription.fanout.";
+
+    /**
+     * Spring Boot only creates its default executor when no other executor is defined, so it is declared here
+     * alongside the fan-out executor. It is used by any async work which does not name an executor.
+     *
+     * @param builder The builder configured from the spring.task.execution properties.
+     * @return The default application executor.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Executor used for the blocking database work when fanning out notifications to subscribers for a published or
+     * deleted artefact. The queue is bounded, and once both the pool and queue are full new work is rejected with a
+     * TaskRejectedException, which is returned to the caller as a 503 so that they can retry. The fan-out pipelines
+     * submit their first stage on the request thread so that the rejection reaches the caller.
+     *
+     * @param properties The sizing of the executor.
+     * @param meterRegistry The registry to publish the executor metrics to.
+     * @return The fan-out executor.
+     */
+    @Bean(FAN_OUT_EXECUTOR)
+    public ThreadPoolTaskExecutor fanOutExecutor(FanOutExecutorConfigurationProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("fan-out-");
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(properties.getAwaitTerminationSeconds());
+
+        Timer waitTimer = Timer.builder(FAN_OUT_METRIC_PREFIX + "wait")
+            .description("Time fan-out tasks spend queued before they start")
+            .register(meterRegistry);
+        executor.setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                task.run();
+            };
+        });
+
+        Counter rejectedCounter = Counter.builder(FAN_OUT_METRIC_PREFIX + "rejected")
+            .description("Number of fan-out tasks rejected because the executor is full")
+            .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, threadPoolExecutor) -> {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Fan-out executor is full");
+        });
+
+        Gauge.builder(FAN_OUT_METRIC_PREFIX + "queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+            .description("Number of fan-out tasks waiting to run")
+            .register(meterRegistry);
+        Gauge.builder(FAN_OUT_METRIC_PREFIX + "active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Number of fan-out tasks currently running")
+            .register(meterRegistry);
+
+        return executor;
+    }
+}
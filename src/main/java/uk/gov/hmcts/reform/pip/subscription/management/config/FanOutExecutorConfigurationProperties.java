@@ -0,0 +1,16 @@
+package uk.gov.hmcts.reform.pip.subscription.management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the executor used to fan out notifications to subscribers.
+ */
+@ConfigurationProperties(prefix = "fan-out-executor")
+@Data
+public class FanOutExecutorConfigurationProperties {
+    private int corePoolSize;
+    private int maxPoolSize;
+    private int queueCapacity;
+    private int awaitTerminationSeconds;
+}
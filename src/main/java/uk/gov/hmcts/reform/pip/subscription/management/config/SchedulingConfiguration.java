@@ -0,0 +1,14 @@
+package uk.gov.hmcts.reform.pip.subscription.management.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled jobs used to keep in-memory state in line with the database, dispatch the notification
+ * outbox and purge old data. The size of the scheduler pool is set by {@code spring.task.scheduling.pool.size}, which
+ * must be at least the number of scheduled jobs so that no job waits for another to finish.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,33 @@
+package uk.gov.hmcts.reform.pip.subscription.management.config.flyway;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.MissingMigrationObjectException;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.util.List;
+
+/**
+ * Checks on startup that the tables, functions and triggers used to find the recipients of an artefact exist. These
+ * are only created by the Flyway migrations, so without them the recipient queries would fail or silently find no
+ * location subscribers. Startup fails rather than the service running without them.
+ */
+@Component
+public class MigrationObjectValidator implements InitializingBean {
+
+    private final SubscriptionRepository repository;
+
+    @Autowired
+    public MigrationObjectValidator(SubscriptionRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> missingObjects = repository.findMissingRecipientObjects();
+        if (!missingObjects.isEmpty()) {
+            throw new MissingMigrationObjectException(missingObjects);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package uk.gov.hmcts.reform.pip.subscription.management.controllers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -25,9 +24,13 @@ import uk.gov.hmcts.reform.pip.model.authentication.roles.IsAdmin;
 import uk.gov.hmcts.reform.pip.model.publication.Artefact;
 import uk.gov.hmcts.reform.pip.model.report.AllSubscriptionMiData;
 import uk.gov.hmcts.reform.pip.model.report.LocationSubscriptionMiData;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.response.ArtefactRecipientsExplanation;
 import uk.gov.hmcts.reform.pip.subscription.management.models.response.UserSubscription;
+import uk.gov.hmcts.reform.pip.subscription.management.service.ArtefactRecipientRequestService;
+import uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionLocationService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionNotificationService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionService;
@@ -49,24 +52,31 @@ public class SubscriptionController {
 
     private static final String OK_CODE = "200";
     private static final String NOT_FOUND_ERROR_CODE = "404";
+    private static final String SERVICE_UNAVAILABLE_CODE = "503";
     private static final String X_USER_ID_HEADER = "x-user-id";
 
     private final SubscriptionService subscriptionService;
     private final UserSubscriptionService userSubscriptionService;
     private final SubscriptionNotificationService subscriptionNotificationService;
     private final SubscriptionLocationService subscriptionLocationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final ArtefactRecipientRequestService artefactRecipientRequestService;
 
     @Autowired
     public SubscriptionController(
         SubscriptionService subscriptionService,
         UserSubscriptionService userSubscriptionService,
         SubscriptionNotificationService subscriptionNotificationService,
-        SubscriptionLocationService subscriptionLocationService
+        SubscriptionLocationService subscriptionLocationService,
+        NotificationOutboxService notificationOutboxService,
+        ArtefactRecipientRequestService artefactRecipientRequestService
     ) {
         this.subscriptionService = subscriptionService;
         this.userSubscriptionService = userSubscriptionService;
         this.subscriptionNotificationService = subscriptionNotificationService;
         this.subscriptionLocationService = subscriptionLocationService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.artefactRecipientRequestService = artefactRecipientRequestService;
     }
 
     @PostMapping(consumes = "application/json")
@@ -139,18 +149,39 @@ public class SubscriptionController {
     }
 
     @ApiResponse(responseCode = "202", description = "Subscriber request has been accepted")
-    @Operation(summary = "Takes in artefact to build subscriber list.")
+    @ApiResponse(responseCode = SERVICE_UNAVAILABLE_CODE, description = "Service is busy, please try again later")
+    @Operation(summary = "Takes in artefact to build subscriber list. Repeated requests for the same artefact "
+        + "content are merged into the first request.")
     @PostMapping("/artefact-recipients")
     public ResponseEntity<String> buildSubscriberList(@RequestBody Artefact artefact) {
-        subscriptionNotificationService.collectSubscribers(artefact);
+        if (artefactRecipientRequestService.claim(artefact)) {
+            subscriptionNotificationService.collectSubscribers(artefact).subscribe();
+        }
         return ResponseEntity.status(HttpStatus.ACCEPTED).body("Subscriber request has been accepted");
     }
 
+    @ApiResponse(responseCode = OK_CODE, description = "Explanation of the artefact recipients returned")
+    @Operation(summary = "Resolves the recipients of an artefact in the same way as artefact-recipients, without "
+        + "sending anything, and returns the counts and timings of each stage.")
+    @PostMapping("/artefact-recipients/explain")
+    public ResponseEntity<ArtefactRecipientsExplanation> explainSubscriberList(@RequestBody Artefact artefact) {
+        return ResponseEntity.ok(subscriptionNotificationService.explainRecipients(artefact));
+    }
+
+    @ApiResponse(responseCode = OK_CODE, description = "Notifications for artefact {artefactId} returned")
+    @Operation(summary = "Returns the notifications queued for an artefact, along with their delivery status.")
+    @GetMapping("/artefact-recipients/{artefactId}/notifications")
+    public ResponseEntity<List<NotificationOutbox>> findNotificationsByArtefactId(
+        @Parameter @PathVariable UUID artefactId) {
+        return ResponseEntity.ok(notificationOutboxService.findNotificationsByArtefactId(artefactId));
+    }
+
     @ApiResponse(responseCode = "202", description = "Third Parties list deletion accepted")
+    @ApiResponse(responseCode = SERVICE_UNAVAILABLE_CODE, description = "Service is busy, please try again later")
     @Operation(summary = "Takes in a deleted artefact to notify subscribed third parties")
     @PostMapping("/deleted-artefact")
     public ResponseEntity<String> buildDeletedArtefactSubscribers(@RequestBody Artefact artefact) {
-        subscriptionNotificationService.collectThirdPartyForDeletion(artefact);
+        subscriptionNotificationService.collectThirdPartyForDeletion(artefact).subscribe();
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(
             "Deleted artefact third party subscriber notification request has been accepted");
     }
@@ -223,12 +254,11 @@ public class SubscriptionController {
 
     @ApiResponse(responseCode = OK_CODE, description = "Subscription for location {locationId} has been deleted")
     @ApiResponse(responseCode = NOT_FOUND_ERROR_CODE, description = "No subscription found for location {locationId}")
-    @Transactional
     @DeleteMapping("/location/{locationId}")
     @IsAdmin
     public ResponseEntity<String> deleteSubscriptionByLocation(
         @RequestHeader(X_USER_ID_HEADER) String userId,
-        @PathVariable Integer locationId) throws JsonProcessingException {
+        @PathVariable Integer locationId) {
         return ResponseEntity.ok(subscriptionLocationService.deleteSubscriptionByLocation(
             locationId.toString(),
             userId
@@ -0,0 +1,72 @@
+package uk.gov.hmcts.reform.pip.subscription.management.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.hmcts.reform.pip.model.authentication.roles.IsAdmin;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionDeletionJobService;
+
+import java.util.UUID;
+
+/**
+ * Controller for the bulk deletions of subscriptions which run as background jobs.
+ */
+@RestController
+@Tag(name = "Subscription Management - API for background deletion jobs")
+@RequestMapping("/subscription/jobs")
+@ApiResponse(responseCode = "401", description = "Invalid access credential")
+@ApiResponse(responseCode = "403", description = "User has not been authorized")
+@IsAdmin
+@SecurityRequirement(name = "bearerAuth")
+public class SubscriptionJobController {
+    private static final String ACCEPTED_CODE = "202";
+    private static final String X_USER_ID_HEADER = "x-user-id";
+
+    private final SubscriptionDeletionJobService subscriptionDeletionJobService;
+
+    @Autowired
+    public SubscriptionJobController(SubscriptionDeletionJobService subscriptionDeletionJobService) {
+        this.subscriptionDeletionJobService = subscriptionDeletionJobService;
+    }
+
+    @ApiResponse(responseCode = ACCEPTED_CODE, description = "Deletion of subscriptions for location {locationId} "
+        + "has been accepted")
+    @Operation(summary = "Start a background job to delete all subscriptions for a location")
+    @PostMapping("/location/{locationId}")
+    public ResponseEntity<DeletionJob> deleteSubscriptionsByLocation(
+        @RequestHeader(X_USER_ID_HEADER) String userId,
+        @PathVariable Integer locationId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(subscriptionDeletionJobService.submitLocationDeletion(locationId.toString(), userId));
+    }
+
+    @ApiResponse(responseCode = ACCEPTED_CODE, description = "Deletion of subscriptions for user {userId} has been "
+        + "accepted")
+    @Operation(summary = "Start a background job to delete all subscriptions for a user")
+    @PostMapping("/user/{userId}")
+    public ResponseEntity<DeletionJob> deleteSubscriptionsByUser(
+        @RequestHeader(value = X_USER_ID_HEADER, required = false) String actioningUserId,
+        @PathVariable String userId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(subscriptionDeletionJobService.submitUserDeletion(userId, actioningUserId));
+    }
+
+    @ApiResponse(responseCode = "200", description = "Deletion job {jobId} returned")
+    @ApiResponse(responseCode = "404", description = "No deletion job found with the id {jobId}")
+    @Operation(summary = "Get the progress of a background deletion job")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DeletionJob> getDeletionJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(subscriptionDeletionJobService.findJob(jobId));
+    }
+}
@@ -6,13 +6,17 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.hmcts.reform.pip.model.authentication.roles.IsAdmin;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionDeletionJobService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionLocationService;
 
 @RestController
@@ -29,9 +33,13 @@ public class TestingSupportController {
 
     private final SubscriptionLocationService subscriptionLocationService;
 
+    private final SubscriptionDeletionJobService subscriptionDeletionJobService;
+
     @Autowired
-    public TestingSupportController(SubscriptionLocationService subscriptionLocationService) {
+    public TestingSupportController(SubscriptionLocationService subscriptionLocationService,
+                                    SubscriptionDeletionJobService subscriptionDeletionJobService) {
         this.subscriptionLocationService = subscriptionLocationService;
+        this.subscriptionDeletionJobService = subscriptionDeletionJobService;
     }
 
     @ApiResponse(responseCode = OK_CODE,
@@ -44,4 +52,15 @@ public class TestingSupportController {
             subscriptionLocationService.deleteAllSubscriptionsWithLocationNamePrefix(locationNamePrefix)
         );
     }
+
+    @ApiResponse(responseCode = "202",
+        description = "Deletion of subscriptions for location name starting with {locationNamePrefix} accepted")
+    @Operation(summary = "Start a background job to delete all subscriptions with location name prefix. The "
+        + "progress of the job is returned by /subscription/jobs/{jobId}")
+    @PostMapping("/subscription/{locationNamePrefix}/jobs")
+    public ResponseEntity<DeletionJob> submitSubscriptionsWithLocationNamePrefixDeletion(
+        @PathVariable String locationNamePrefix) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(subscriptionDeletionJobService.submitLocationNamePrefixDeletion(locationNamePrefix));
+    }
 }
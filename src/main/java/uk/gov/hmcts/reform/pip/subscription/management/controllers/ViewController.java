@@ -1,14 +1,18 @@
 package uk.gov.hmcts.reform.pip.subscription.management.controllers;
 
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.hmcts.reform.pip.model.authentication.roles.IsAdmin;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshStatus;
 import uk.gov.hmcts.reform.pip.subscription.management.service.ViewService;
 
 /**
@@ -29,10 +33,17 @@ public class ViewController {
         this.viewService = viewService;
     }
 
-    @ApiResponse(responseCode = "200", description = "View Refreshed")
+    @ApiResponse(responseCode = "202", description = "View refresh started")
+    @Operation(summary = "Start a background refresh of the subscription view")
     @PostMapping("/refresh")
-    public ResponseEntity<Void> refreshView() {
-        viewService.refreshView();
-        return ResponseEntity.ok().build();
+    public ResponseEntity<ViewRefreshStatus> refreshView() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(viewService.refreshView());
+    }
+
+    @ApiResponse(responseCode = "200", description = "Status of the most recent view refresh")
+    @Operation(summary = "Get the status of the most recent refresh of the subscription view")
+    @GetMapping("/refresh")
+    public ResponseEntity<ViewRefreshStatus> getRefreshStatus() {
+        return ResponseEntity.ok(viewService.getRefreshStatus());
     }
 }
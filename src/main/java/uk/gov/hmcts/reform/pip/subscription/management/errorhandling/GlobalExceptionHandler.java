@@ -2,12 +2,14 @@ package uk.gov.hmcts.reform.pip.subscription.management.errorhandling;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.DeletionJobNotFoundException;
 import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.SubscriptionNotFoundException;
 
 import java.time.LocalDateTime;
@@ -44,6 +46,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponse);
     }
 
+    /**
+     * Handles a deletion job not being found, and returns a 404 in the standard format.
+     *
+     * @param ex - a DeletionJobNotFoundException, thrown when there is no deletion job with the requested ID
+     * @return - a ResponseEntity containing the exception response
+     */
+    @ExceptionHandler(DeletionJobNotFoundException.class)
+    public ResponseEntity<ExceptionResponse> handle(DeletionJobNotFoundException ex) {
+        log.error(writeLog("404, Deletion job has not been found. Cause: " + ex.getMessage()));
+
+        ExceptionResponse exceptionResponse = new ExceptionResponse();
+        exceptionResponse.setMessage(ex.getMessage());
+        exceptionResponse.setTimestamp(LocalDateTime.now());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponse);
+    }
+
     /**
      * This exception creates the following style of message:
      * "Bad Request: userId must not be null, searchValue must not be blank" etc.
@@ -99,4 +118,22 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionResponse);
     }
+
+    /**
+     * Handles work being rejected because the executor it was submitted to is full, and returns a 503 so that the
+     * caller can retry later.
+     *
+     * @param ex - a TaskRejectedException, thrown when an executor's pool and queue are both full
+     * @return - a ResponseEntity containing the exception response
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ExceptionResponse> handle(TaskRejectedException ex) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse();
+        exceptionResponse.setMessage("Service is busy, please try again later");
+        exceptionResponse.setTimestamp(LocalDateTime.now());
+
+        log.error(writeLog("503, Request rejected as the executor is full. Cause: " + ex.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(exceptionResponse);
+    }
 }
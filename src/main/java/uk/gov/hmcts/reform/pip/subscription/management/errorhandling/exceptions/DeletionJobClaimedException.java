@@ -0,0 +1,19 @@
+package uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions;
+
+/**
+ * Exception that captures the message when a deletion job has been claimed by another run, so the current run must
+ * stop without recording any more progress.
+ */
+public class DeletionJobClaimedException extends RuntimeException {
+
+    private static final long serialVersionUID = -6140930384153917682L;
+
+    /**
+     * Constructor for the Exception.
+     * @param message The message to log
+     */
+    public DeletionJobClaimedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions;
+
+/**
+ * Exception that captures the message when a deletion job is not found.
+ */
+public class DeletionJobNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 3815270419582341270L;
+
+    /**
+     * Constructor for the Exception.
+     * @param message The message to return to the end user
+     */
+    public DeletionJobNotFoundException(String message) {
+        super(message);
+    }
+
+}
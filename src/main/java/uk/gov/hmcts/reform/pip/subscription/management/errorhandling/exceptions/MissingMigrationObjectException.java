@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions;
+
+import java.util.List;
+
+/**
+ * Exception for when database objects created by the Flyway migrations are missing, for example when the schema was
+ * created by Hibernate without the migrations being run.
+ */
+public class MissingMigrationObjectException extends RuntimeException {
+
+    private static final long serialVersionUID = 6215827356471593044L;
+
+    public MissingMigrationObjectException(List<String> objects) {
+        super("Database objects created by the migrations are missing, check Flyway has been run: "
+                  + String.join(", ", objects));
+    }
+}
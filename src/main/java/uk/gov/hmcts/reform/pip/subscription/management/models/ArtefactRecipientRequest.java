@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A request to notify the recipients of an artefact. Requests are keyed by the artefact id and a hash of the
+ * artefact content, so a repeated request for the same artefact can be recognised across instances.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table
+@IdClass(ArtefactRecipientRequest.RequestKey.class)
+public class ArtefactRecipientRequest {
+
+    @Id
+    @Column(columnDefinition = "uuid", nullable = false)
+    private UUID artefactId;
+
+    @Id
+    @Column(nullable = false)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequestKey implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private UUID artefactId;
+
+        private String contentHash;
+    }
+}
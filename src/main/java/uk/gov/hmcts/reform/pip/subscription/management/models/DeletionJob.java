@@ -0,0 +1,104 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.hypersistence.utils.hibernate.type.array.ListArrayType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A bulk deletion of subscriptions which runs in the background. The job is held in the database, and its progress is
+ * updated as each chunk of subscriptions is deleted, so it can be reported by any instance of the service.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table
+public class DeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(columnDefinition = "uuid", insertable = false, updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DeletionJobType jobType;
+
+    /**
+     * The location ID, user ID or location name prefix to delete the subscriptions for, depending on the job type.
+     */
+    @Column(nullable = false)
+    private String target;
+
+    private String actioningUserId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DeletionJobState state;
+
+    /**
+     * The number of subscriptions matching the job when it started.
+     */
+    private int totalCount;
+
+    private int deletedCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+
+    private LocalDateTime startedDate;
+
+    private LocalDateTime completedDate;
+
+    /**
+     * The last time the job recorded progress. A job which has not recorded progress for a while is resumed, as the
+     * instance running it has likely stopped.
+     */
+    private LocalDateTime heartbeatDate;
+
+    /**
+     * Identifies the run of the job which currently owns it. A new owner is assigned whenever the job is resumed, so
+     * an earlier run which is still going can no longer record progress or complete the job.
+     */
+    @JsonIgnore
+    @Column(columnDefinition = "uuid")
+    private UUID owner;
+
+    /**
+     * The IDs of the users whose subscriptions have been deleted by a location job, one per subscription, so they can
+     * be notified once the job completes even if it was resumed on another instance.
+     */
+    @JsonIgnore
+    @Type(ListArrayType.class)
+    @Column(columnDefinition = "text[]")
+    private List<String> subscriberUserIds = new ArrayList<>();
+
+    /**
+     * The reason the job failed, if it did not complete.
+     */
+    @Column(columnDefinition = "text")
+    private String reason;
+
+    public DeletionJob(DeletionJobType jobType, String target, String actioningUserId) {
+        this.jobType = jobType;
+        this.target = target;
+        this.actioningUserId = actioningUserId;
+        this.state = DeletionJobState.PENDING;
+        this.createdDate = LocalDateTime.now();
+        this.owner = UUID.randomUUID();
+    }
+}
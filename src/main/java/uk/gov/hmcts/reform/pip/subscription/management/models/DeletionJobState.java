@@ -0,0 +1,11 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+/**
+ * The states a background deletion job can be in.
+ */
+public enum DeletionJobState {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,21 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+/**
+ * The subscriptions a background deletion job deletes.
+ */
+public enum DeletionJobType {
+    /**
+     * All subscriptions for a location.
+     */
+    LOCATION,
+
+    /**
+     * All subscriptions, and the list type configuration, of a user.
+     */
+    USER,
+
+    /**
+     * All subscriptions for locations with a name starting with a prefix.
+     */
+    LOCATION_NAME_PREFIX
+}
@@ -0,0 +1,18 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import java.util.List;
+
+/**
+ * The list type configuration of a user as held in the in-memory subscription index.
+ *
+ * @param userId The P&I user id.
+ * @param listType The configured list types.
+ * @param listLanguage The configured languages.
+ */
+public record ListTypeIndexEntry(String userId, List<String> listType, List<String> listLanguage) {
+
+    public static ListTypeIndexEntry of(SubscriptionListType subscriptionListType) {
+        return new ListTypeIndexEntry(subscriptionListType.getUserId(), subscriptionListType.getListType(),
+                                      subscriptionListType.getListLanguage());
+    }
+}
@@ -0,0 +1,23 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import java.util.List;
+
+/**
+ * Published once the subscriptions of a location have been deleted, so the affected users and the system admins can
+ * be notified after the deletion has been committed.
+ *
+ * @param locationId The ID of the location the subscriptions were deleted for.
+ * @param actioningUserId The ID of the user who deleted the subscriptions.
+ * @param subscriberUserIds The IDs of the users whose subscriptions were deleted.
+ */
+public record LocationSubscriptionsDeletedEvent(String locationId, String actioningUserId,
+                                                List<String> subscriberUserIds) {
+
+    public LocationSubscriptionsDeletedEvent {
+        subscriberUserIds = List.copyOf(subscriberUserIds);
+    }
+
+    public int subscriptionCount() {
+        return subscriberUserIds.size();
+    }
+}
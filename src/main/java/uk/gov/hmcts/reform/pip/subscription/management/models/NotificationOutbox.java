@@ -0,0 +1,82 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uk.gov.hmcts.reform.pip.model.publication.ListType;
+import uk.gov.hmcts.reform.pip.model.publication.Sensitivity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A notification for an artefact which is waiting to be, or has been, sent to publication services. The payload holds
+ * the resolved recipients, so the notification can be sent without resolving the subscriptions again.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(columnDefinition = "uuid", insertable = false, updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID artefactId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationType notificationType;
+
+    @JsonIgnore
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    private int attempts;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+
+    private LocalDateTime lastAttemptDate;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptDate;
+
+    @Enumerated(EnumType.STRING)
+    private ListType listType;
+
+    @Enumerated(EnumType.STRING)
+    private Sensitivity sensitivity;
+
+    /**
+     * When the request which produced this notification was accepted, used to measure the end-to-end delivery time.
+     */
+    private LocalDateTime acceptedDate;
+
+    public NotificationOutbox(UUID artefactId, NotificationType notificationType, String payload) {
+        this.artefactId = artefactId;
+        this.notificationType = notificationType;
+        this.payload = payload;
+        this.status = NotificationStatus.PENDING;
+        this.createdDate = LocalDateTime.now();
+        this.nextAttemptDate = this.createdDate;
+    }
+}
@@ -0,0 +1,15 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+/**
+ * The delivery status of a notification held in the notification outbox.
+ */
+public enum NotificationStatus {
+    PENDING,
+    /**
+     * Claimed by a dispatcher which is sending it. The claim expires at the next attempt date, after which the
+     * notification can be claimed again.
+     */
+    IN_FLIGHT,
+    SENT,
+    FAILED
+}
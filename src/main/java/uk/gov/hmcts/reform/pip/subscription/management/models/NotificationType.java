@@ -0,0 +1,10 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+/**
+ * The type of notification held in the notification outbox.
+ */
+public enum NotificationType {
+    SUBSCRIPTION_SUMMARY,
+    THIRD_PARTY_LIST,
+    THIRD_PARTY_DELETION
+}
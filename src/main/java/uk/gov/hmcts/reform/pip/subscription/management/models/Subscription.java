@@ -3,12 +3,15 @@ package uk.gov.hmcts.reform.pip.subscription.management.models;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
+import jakarta.persistence.ConstructorResult;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -26,9 +29,22 @@ import java.util.UUID;
 @NoArgsConstructor
 @Entity
 @Table
+@SqlResultSetMapping(name = Subscription.RECIPIENT_MAPPING, classes = @ConstructorResult(
+    targetClass = SubscriptionRecipient.class,
+    columns = {
+        @ColumnResult(name = "user_id", type = String.class),
+        @ColumnResult(name = "search_type", type = String.class),
+        @ColumnResult(name = "search_value", type = String.class),
+        @ColumnResult(name = "channel", type = String.class)
+    }))
 @JsonPropertyOrder({"id", "channel", "searchType", "searchValue", "userID"})
 public class Subscription {
 
+    /**
+     * Result set mapping for native queries which select the recipient columns of a subscription.
+     */
+    public static final String RECIPIENT_MAPPING = "SubscriptionRecipient";
+
     /**
      * Unique subscription ID.
      */
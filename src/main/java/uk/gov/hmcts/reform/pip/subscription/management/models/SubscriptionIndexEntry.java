@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+
+import java.util.UUID;
+
+/**
+ * A subscription as held in the in-memory subscription index. The index is built from these instead of full
+ * {@link Subscription} entities, so a rebuild holds no managed entities.
+ *
+ * @param id The ID of the subscription.
+ * @param recipient The recipient of the subscription.
+ */
+public record SubscriptionIndexEntry(UUID id, SubscriptionRecipient recipient) {
+
+    /**
+     * Constructor used by the query result mapping.
+     */
+    public SubscriptionIndexEntry(UUID id, String userId, SearchType searchType, String searchValue,
+                                  Channel channel) {
+        this(id, new SubscriptionRecipient(userId, searchType, searchValue, channel));
+    }
+
+    public static SubscriptionIndexEntry of(Subscription subscription) {
+        return new SubscriptionIndexEntry(subscription.getId(), SubscriptionRecipient.of(subscription));
+    }
+}
@@ -0,0 +1,32 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+
+/**
+ * The parts of a subscription needed to notify its user about an artefact. The fan-out path loads these instead of
+ * full {@link Subscription} entities, so large fan-outs hold no managed entities and skip dirty checking.
+ *
+ * <p>Unknown properties are ignored, so notifications queued with full subscriptions can still be read.
+ *
+ * @param userId The P&I user id.
+ * @param searchType The search type of the subscription.
+ * @param searchValue The search value of the subscription.
+ * @param channel The channel the user is notified through.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SubscriptionRecipient(String userId, SearchType searchType, String searchValue, Channel channel) {
+
+    /**
+     * Constructor used by the native query result mapping, which reads the enum columns as strings.
+     */
+    public SubscriptionRecipient(String userId, String searchType, String searchValue, String channel) {
+        this(userId, SearchType.valueOf(searchType), searchValue, Channel.valueOf(channel));
+    }
+
+    public static SubscriptionRecipient of(Subscription subscription) {
+        return new SubscriptionRecipient(subscription.getUserId(), subscription.getSearchType(),
+                                         subscription.getSearchValue(), subscription.getChannel());
+    }
+}
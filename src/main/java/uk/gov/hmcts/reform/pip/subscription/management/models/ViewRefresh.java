@@ -0,0 +1,50 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The most recent background refresh of a materialised view. This is held in the database, so the refresh can be
+ * reported by any instance of the service, and a refresh requested on one instance is queued behind a refresh
+ * running on another.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table
+public class ViewRefresh {
+
+    @Id
+    private String viewName;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ViewRefreshState state;
+
+    private LocalDateTime startedDate;
+
+    private LocalDateTime completedDate;
+
+    /**
+     * The reason the refresh failed or was skipped, if it did not complete.
+     */
+    @Column(columnDefinition = "text")
+    private String reason;
+
+    /**
+     * Whether another refresh was requested while this one was running, and should run once it completes.
+     */
+    private boolean refreshQueued;
+
+    public ViewRefreshStatus toStatus() {
+        return new ViewRefreshStatus(state, startedDate, completedDate, reason);
+    }
+}
@@ -0,0 +1,12 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+/**
+ * The states a background refresh of the subscription view can be in.
+ */
+public enum ViewRefreshState {
+    NOT_STARTED,
+    IN_PROGRESS,
+    COMPLETED,
+    SKIPPED,
+    FAILED
+}
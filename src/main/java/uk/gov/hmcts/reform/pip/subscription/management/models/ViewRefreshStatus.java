@@ -0,0 +1,36 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of the most recent background refresh of the subscription view.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ViewRefreshStatus {
+
+    /**
+     * The current state of the refresh.
+     */
+    private ViewRefreshState state;
+
+    /**
+     * The time the refresh started, if it has been started.
+     */
+    private LocalDateTime startedDate;
+
+    /**
+     * The time the refresh completed or failed, if it has finished.
+     */
+    private LocalDateTime completedDate;
+
+    /**
+     * The reason the refresh failed or was skipped, if it did not complete.
+     */
+    private String reason;
+}
@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.pip.subscription.management.models.response;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Model which explains how the recipients of an artefact would be resolved, without anything being sent.
+ */
+@Data
+public class ArtefactRecipientsExplanation {
+
+    /**
+     * The number of location subscriptions matching the artefact.
+     */
+    private int locationMatches;
+
+    /**
+     * The number of list type subscriptions matching the artefact.
+     */
+    private int listTypeMatches;
+
+    /**
+     * The number of case number and case URN subscriptions matching the artefact.
+     */
+    private int caseMatches;
+
+    /**
+     * The number of distinct users with a matching subscription.
+     */
+    private int usersAfterDedup;
+
+    /**
+     * The number of users dropped because they are not authorised to see the classified artefact.
+     */
+    private int classifiedUsersDropped;
+
+    /**
+     * The number of distinct users who would be notified.
+     */
+    private int recipients;
+
+    /**
+     * The time taken by each stage of the resolution in milliseconds, in the order the stages ran.
+     */
+    private Map<String, Long> stageDurationsMs = new LinkedHashMap<>();
+}
@@ -0,0 +1,46 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ArtefactRecipientRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface ArtefactRecipientRequestRepository
+    extends JpaRepository<ArtefactRecipientRequest, ArtefactRecipientRequest.RequestKey> {
+
+    /**
+     * Claim a request for an artefact. The request is claimed if there is no request for the same artefact and content,
+     * or if the existing request was made before the given expiry. This is a single statement, so only one of several
+     * concurrent requests can claim it.
+     *
+     * @return 1 if the request was claimed, or 0 if it is a duplicate of an existing request
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO artefact_recipient_request (artefact_id, content_hash, created_date) "
+        + "VALUES (:artefact_id, :content_hash, :now) "
+        + "ON CONFLICT (artefact_id, content_hash) DO UPDATE SET created_date = :now "
+        + "WHERE artefact_recipient_request.created_date < :expiry",
+        nativeQuery = true)
+    int claimRequest(@Param("artefact_id") UUID artefactId,
+                     @Param("content_hash") String contentHash,
+                     @Param("now") LocalDateTime now,
+                     @Param("expiry") LocalDateTime expiry);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ArtefactRecipientRequest r WHERE r.artefactId = :artefactId AND r.contentHash = :contentHash")
+    void releaseRequest(@Param("artefactId") UUID artefactId, @Param("contentHash") String contentHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ArtefactRecipientRequest r WHERE r.createdDate < :before")
+    int deleteByCreatedDateBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,94 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, UUID> {
+
+    /**
+     * Mark a job as in progress and record the number of subscriptions it has to delete, if it is still owned by the
+     * given run.
+     *
+     * @param id The ID of the job.
+     * @param owner The run which started the job.
+     * @param totalCount The number of subscriptions matching the job when it started.
+     * @param now The current time, which is kept as the start date of a job which has not started before.
+     * @return The number of jobs updated, which is zero if the job has been claimed by another run.
+     */
+    @Modifying
+    @Transactional
+    @NativeQuery("UPDATE deletion_job SET state = 'IN_PROGRESS', total_count = :total_count, "
+        + "started_date = COALESCE(started_date, :now), heartbeat_date = :now "
+        + "WHERE id = :id AND owner = :owner AND state IN ('PENDING', 'IN_PROGRESS')")
+    int startJob(@Param("id") UUID id, @Param("owner") UUID owner, @Param("total_count") int totalCount,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Add to the number of subscriptions deleted by a job, and to the subscribers to notify once it completes, if it
+     * is still owned by the given run. This joins the transaction which deleted the subscriptions, so the progress of
+     * the job is only updated if the deletion commits.
+     *
+     * @param id The ID of the job.
+     * @param owner The run which deleted the subscriptions.
+     * @param deleted The number of subscriptions deleted.
+     * @param subscriberUserIds The IDs of the users to notify about the deleted subscriptions.
+     * @param now The current time.
+     * @return The number of jobs updated, which is zero if the job has been claimed by another run.
+     */
+    @SuppressWarnings("PMD.UseVarargs")
+    @Modifying
+    @Transactional
+    @NativeQuery("UPDATE deletion_job SET deleted_count = deleted_count + :deleted, heartbeat_date = :now, "
+        + "subscriber_user_ids = subscriber_user_ids || CAST(:subscriber_user_ids AS text[]) "
+        + "WHERE id = :id AND owner = :owner AND state IN ('PENDING', 'IN_PROGRESS')")
+    int addDeletedCount(@Param("id") UUID id, @Param("owner") UUID owner, @Param("deleted") int deleted,
+                        @Param("subscriber_user_ids") String[] subscriberUserIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Record the outcome of a job, if it is still owned by the given run. Only the outcome is updated, so progress
+     * recorded by another run which has claimed the job is not overwritten.
+     *
+     * @param id The ID of the job.
+     * @param owner The run which finished the job.
+     * @param state The state the job finished in.
+     * @param reason The reason the job failed, if it did not complete.
+     * @param now The current time.
+     * @return The number of jobs updated, which is zero if the job has been claimed by another run.
+     */
+    @Modifying
+    @Transactional
+    @NativeQuery("UPDATE deletion_job SET state = :state, reason = :reason, completed_date = :now "
+        + "WHERE id = :id AND owner = :owner AND state IN ('PENDING', 'IN_PROGRESS')")
+    int completeJob(@Param("id") UUID id, @Param("owner") UUID owner, @Param("state") String state,
+                    @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+    /**
+     * Claim the jobs which are pending or in progress but have not recorded progress since the given time, so they
+     * can be resumed. Each claimed job is given the new owner, so the run which stopped recording progress can no
+     * longer update it, and its heartbeat is updated so no other instance claims it as well.
+     *
+     * @param now The current time.
+     * @param staleBefore The time before which a job without progress is treated as stopped.
+     * @param owner The run which will resume the claimed jobs.
+     * @return The IDs of the claimed jobs.
+     */
+    @Transactional
+    @NativeQuery("UPDATE deletion_job SET heartbeat_date = :now, owner = :owner "
+        + "WHERE id IN (SELECT id FROM deletion_job "
+        + "WHERE state IN ('PENDING', 'IN_PROGRESS') "
+        + "AND COALESCE(heartbeat_date, created_date) < :stale_before "
+        + "FOR UPDATE SKIP LOCKED) "
+        + "RETURNING id")
+    List<UUID> claimStaleJobs(@Param("now") LocalDateTime now, @Param("stale_before") LocalDateTime staleBefore,
+                              @Param("owner") UUID owner);
+}
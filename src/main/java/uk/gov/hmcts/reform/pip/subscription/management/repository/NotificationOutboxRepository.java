@@ -0,0 +1,78 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+
+    /**
+     * Claim the notifications which are due to be sent, in a single short transaction. Pending notifications which are
+     * due, and in flight notifications whose lease has expired because the dispatcher sending them stopped, are marked
+     * as in flight until the lease expiry and have their attempts counted. Rows locked by another dispatcher are
+     * skipped, so several instances can drain the outbox at the same time without claiming a notification twice. The
+     * claimed notifications are sent outside of any transaction.
+     *
+     * @param now The current time.
+     * @param leaseExpiry When the claim expires, and the notifications can be claimed again.
+     * @param batchSize The maximum number of notifications to claim.
+     * @return The claimed notifications.
+     */
+    @Transactional
+    @NativeQuery("UPDATE notification_outbox "
+        + "SET status = 'IN_FLIGHT', attempts = attempts + 1, last_attempt_date = :now, "
+        + "next_attempt_date = :lease_expiry "
+        + "WHERE id IN (SELECT id FROM notification_outbox "
+        + "WHERE status IN ('PENDING', 'IN_FLIGHT') "
+        + "AND next_attempt_date <= :now "
+        + "ORDER BY created_date "
+        + "LIMIT :batch_size "
+        + "FOR UPDATE SKIP LOCKED) "
+        + "RETURNING *")
+    List<NotificationOutbox> claimDueNotifications(@Param("now") LocalDateTime now,
+                                                   @Param("lease_expiry") LocalDateTime leaseExpiry,
+                                                   @Param("batch_size") int batchSize);
+
+    /**
+     * Record the outcome of sending a claimed notification, in its own short transaction. The outcome is only
+     * recorded if the notification is still held by the same claim, so a dispatcher whose lease expired part way
+     * through sending does not overwrite the outcome of the dispatcher which claimed the notification after it.
+     *
+     * @param notification The claimed notification, updated with the outcome of sending it.
+     * @return The number of notifications updated, which is 0 if the claim has been lost.
+     */
+    default int recordOutcome(NotificationOutbox notification) {
+        return recordOutcome(notification.getId(), notification.getAttempts(), notification.getStatus(),
+                             notification.getPayload(), notification.getLastError(),
+                             notification.getNextAttemptDate());
+    }
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.payload = :payload, n.lastError = :lastError, "
+        + "n.nextAttemptDate = :nextAttemptDate "
+        + "WHERE n.id = :id AND n.attempts = :attempts "
+        + "AND n.status = uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus.IN_FLIGHT")
+    int recordOutcome(@Param("id") UUID id, @Param("attempts") int attempts,
+                      @Param("status") NotificationStatus status, @Param("payload") String payload,
+                      @Param("lastError") String lastError, @Param("nextAttemptDate") LocalDateTime nextAttemptDate);
+
+    List<NotificationOutbox> findByArtefactIdOrderByCreatedDate(UUID artefactId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status IN :statuses AND n.lastAttemptDate < :before")
+    int deleteByStatusInAndLastAttemptDateBefore(@Param("statuses") List<NotificationStatus> statuses,
+                                                 @Param("before") LocalDateTime before);
+}
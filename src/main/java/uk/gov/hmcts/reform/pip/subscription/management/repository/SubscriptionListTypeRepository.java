@@ -1,10 +1,15 @@
 package uk.gov.hmcts.reform.pip.subscription.management.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ListTypeIndexEntry;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +17,34 @@ public interface SubscriptionListTypeRepository extends JpaRepository<Subscripti
 
     Optional<SubscriptionListType> findByUserId(String userId);
 
+    /**
+     * Find the list type configuration of every user, holding only what the in-memory subscription index needs.
+     *
+     * @return The index entries of all list type configurations.
+     */
+    @Query("SELECT new uk.gov.hmcts.reform.pip.subscription.management.models.ListTypeIndexEntry("
+        + "s.userId, s.listType, s.listLanguage) FROM SubscriptionListType s")
+    List<ListTypeIndexEntry> findAllIndexEntries();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM SubscriptionListType s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") String userId);
+
+    /**
+     * Delete the list type configuration of each of the given users who no longer has any location subscriptions,
+     * in a single statement.
+     *
+     * @param userIds The users to check.
+     * @return The IDs of the users whose list type configuration was deleted.
+     */
+    @SuppressWarnings("PMD.UseVarargs")
     @Transactional
-    void deleteByUserId(String userId);
+    @Query(value = "DELETE FROM subscription_list_type sl "
+        + "WHERE sl.user_id = ANY(:user_ids) "
+        + "AND NOT EXISTS (SELECT 1 FROM subscription s "
+        + "WHERE s.user_id = sl.user_id AND s.search_type = 'LOCATION_ID') "
+        + "RETURNING sl.user_id",
+        nativeQuery = true)
+    List<String> deleteOrphanedByUserIdIn(@Param("user_ids") String[] userIds);
 }
@@ -1,15 +1,21 @@
 package uk.gov.hmcts.reform.pip.subscription.management.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import uk.gov.hmcts.reform.pip.model.report.AllSubscriptionMiData;
 import uk.gov.hmcts.reform.pip.model.report.LocationSubscriptionMiData;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionIndexEntry;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,23 +28,91 @@ import java.util.UUID;
 @SuppressWarnings({"PMD.TooManyMethods"})
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
 
+    /**
+     * Filters location subscribers on the list type mask of their user, which is NULL when the user is subscribed to
+     * every list type. A list type which has never been configured has no code, so only matches those users.
+     */
+    String LIST_TYPE_MASK_FILTER = "AND (list_type_mask IS NULL OR mask_has_code(list_type_mask, "
+        + "(SELECT code FROM list_type_code WHERE list_type = :list_type))) ";
+
+    /**
+     * Filters location subscribers on the language mask of their user.
+     */
+    String LIST_LANGUAGE_MASK_FILTER = "AND mask_has_code(list_language_mask, "
+        + "(SELECT code FROM list_language_code WHERE list_language = :list_language)) ";
+
     Optional<Subscription> findById(UUID id);
 
     List<Subscription> findByIdIn(List<UUID> id);
 
     List<Subscription> findByUserId(String userId);
 
+    /**
+     * Create a subscription in a single statement. A user has one subscription for each search type and value, which
+     * is enforced by a unique index, so if the user already has a subscription with the same search type and value it
+     * is updated with the details of the new subscription and keeps its ID.
+     *
+     * @param subscription The subscription to create.
+     * @return The created or updated subscription.
+     */
+    default Subscription upsertSubscription(Subscription subscription) {
+        return upsertSubscription(
+            UUID.randomUUID(), subscription.getUserId(), subscription.getSearchType().name(),
+            subscription.getSearchValue(), subscription.getChannel().name(), subscription.getCreatedDate(),
+            subscription.getCaseNumber(), subscription.getCaseName(), subscription.getPartyNames(),
+            subscription.getUrn(), subscription.getLocationName(), subscription.getLastUpdatedDate());
+    }
+
+    @Transactional
+    @NativeQuery("INSERT INTO Subscription (id, user_id, search_type, search_value, channel, created_date, "
+        + "case_number, case_name, party_names, urn, location_name, last_updated_date) "
+        + "VALUES (:id, :user_id, :search_type, :search_value, :channel, :created_date, "
+        + ":case_number, :case_name, :party_names, :urn, :location_name, :last_updated_date) "
+        + "ON CONFLICT (user_id, search_type, search_value) DO UPDATE SET "
+        + "channel = EXCLUDED.channel, "
+        + "created_date = EXCLUDED.created_date, "
+        + "case_number = EXCLUDED.case_number, "
+        + "case_name = EXCLUDED.case_name, "
+        + "party_names = EXCLUDED.party_names, "
+        + "urn = EXCLUDED.urn, "
+        + "location_name = EXCLUDED.location_name, "
+        + "last_updated_date = EXCLUDED.last_updated_date "
+        + "RETURNING *")
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    Subscription upsertSubscription(
+        @Param("id") UUID id, @Param("user_id") String userId, @Param("search_type") String searchType,
+        @Param("search_value") String searchValue, @Param("channel") String channel,
+        @Param("created_date") LocalDateTime createdDate, @Param("case_number") String caseNumber,
+        @Param("case_name") String caseName, @Param("party_names") String partyNames, @Param("urn") String urn,
+        @Param("location_name") String locationName, @Param("last_updated_date") LocalDateTime lastUpdatedDate);
+
     void deleteById(UUID id);
 
-    void deleteByIdIn(List<UUID> id);
+    /**
+     * Delete the subscriptions with the given IDs in a single statement, rather than loading and deleting each one.
+     *
+     * @param id The IDs of the subscriptions to delete.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Subscription s WHERE s.id IN :ids")
+    void deleteByIdIn(@Param("ids") List<UUID> id);
 
-    @Query(value = "SELECT * FROM Subscription "
-        + "WHERE search_type = :search_type "
-        + "AND search_value = :search_value "
-        + "AND :search_type <> 'LOCATION_ID'",
-        nativeQuery = true)
-    List<Subscription> findSubscriptionsBySearchValue(@Param("search_type") String searchType,
-                                                      @Param("search_value") String searchValue);
+    /**
+     * Find the recipients of the subscriptions held against a single search type and value. Location subscriptions
+     * are not matched, as they also depend on the list type configuration of the user.
+     *
+     * @param searchType The search type of the subscription.
+     * @param searchValue The search value of the subscription.
+     * @return The list of matching subscription recipients.
+     */
+    @Query("SELECT new uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient("
+        + "s.userId, s.searchType, s.searchValue, s.channel) FROM Subscription s "
+        + "WHERE s.searchType = :searchType "
+        + "AND s.searchValue = :searchValue "
+        + "AND s.searchType <> uk.gov.hmcts.reform.pip.model.subscription.SearchType.LOCATION_ID")
+    List<SubscriptionRecipient> findSubscriptionRecipientsBySearchValue(@Param("searchType") SearchType searchType,
+                                                                        @Param("searchValue") String searchValue);
 
     @Query("SELECT new uk.gov.hmcts.reform.pip.model.report.AllSubscriptionMiData("
         + "id, channel, searchType, userId, locationName, createdDate) "
@@ -50,19 +124,157 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
         + "FROM Subscription s WHERE s.searchType ='LOCATION_ID'")
     List<LocationSubscriptionMiData> getLocationSubsDataForMiV2();
 
+    /**
+     * Find the location subscriptions for a location whose users have configured the given list type and language.
+     * This is a single lookup on the location subscriber table, which holds each location subscription alongside the
+     * list type and language masks of its user, and is kept up to date by database triggers.
+     *
+     * @param searchValue The location ID.
+     * @param listType The list type of the artefact.
+     * @param listLanguage The language of the artefact.
+     * @return The list of matching location subscriptions.
+     */
     @Query(value = "SELECT s.* FROM Subscription s "
-        + "INNER JOIN Subscription_List_Type sl "
-        + "ON s.user_id = sl.user_id "
-        + "WHERE s.search_type = 'LOCATION_ID' "
-        + "AND s.search_value = :search_value "
-        + "AND (ARRAY_LENGTH(sl.list_type, 1) IS NULL OR  sl.list_type && string_to_array(:list_type, ',')) "
-        + "AND sl.list_language && string_to_array(:list_language, ',')",
+        + "INNER JOIN Location_Subscriber ls "
+        + "ON s.id = ls.subscription_id "
+        + "WHERE ls.location_id = :search_value "
+        + LIST_TYPE_MASK_FILTER
+        + LIST_LANGUAGE_MASK_FILTER,
         nativeQuery = true)
     List<Subscription> findSubscriptionsByLocationSearchValue(@Param("search_value") String searchValue,
                                                               @Param("list_type") String listType,
                                                               @Param("list_language") String listLanguage);
 
-    void deleteAllByUserId(String userId);
+    /**
+     * Find the recipients of every subscription which should be notified about an artefact in a single round trip.
+     * This combines the location, list type, case number and case URN lookups which would otherwise be issued
+     * separately for each case in the artefact. Location subscriptions are read from the location subscriber table,
+     * and filtered on the list type and language masks of their users. Only the columns needed to notify the users
+     * are selected, and no entities are loaded into the persistence context.
+     *
+     * @param locationId The location ID of the artefact.
+     * @param listType The list type of the artefact.
+     * @param listLanguage The language of the artefact.
+     * @param caseNumbers All case numbers found in the artefact search block.
+     * @param caseUrns All case URNs found in the artefact search block.
+     * @return The recipients of the matching subscriptions.
+     */
+    @SuppressWarnings("PMD.UseVarargs")
+    @NativeQuery(value = "SELECT user_id, 'LOCATION_ID' AS search_type, location_id AS search_value, channel "
+        + "FROM Location_Subscriber "
+        + "WHERE location_id = :location_id "
+        + LIST_TYPE_MASK_FILTER
+        + LIST_LANGUAGE_MASK_FILTER
+        + "UNION ALL "
+        + "SELECT user_id, search_type, search_value, channel FROM Subscription "
+        + "WHERE search_type = 'LIST_TYPE' "
+        + "AND search_value = :list_type "
+        + "UNION ALL "
+        + "SELECT user_id, search_type, search_value, channel FROM Subscription "
+        + "WHERE search_type = 'CASE_ID' "
+        + "AND search_value = ANY(:case_numbers) "
+        + "UNION ALL "
+        + "SELECT user_id, search_type, search_value, channel FROM Subscription "
+        + "WHERE search_type = 'CASE_URN' "
+        + "AND search_value = ANY(:case_urns)",
+        sqlResultSetMapping = Subscription.RECIPIENT_MAPPING)
+    List<SubscriptionRecipient> findSubscriptionRecipientsForArtefact(
+        @Param("location_id") String locationId, @Param("list_type") String listType,
+        @Param("list_language") String listLanguage, @Param("case_numbers") String[] caseNumbers,
+        @Param("case_urns") String[] caseUrns);
+
+    /**
+     * Find a page of the recipients of every subscription which should be notified about an artefact, using the same
+     * lookups as {@link #findSubscriptionRecipientsForArtefact(String, String, String, String[], String[])}. The
+     * recipients are ordered by user, search type and search value, which is unique for a subscription, and the page
+     * starts after the given recipient, so each page is read by its own short query rather than by a cursor held open
+     * while the previous page is handled. Empty strings start from the first recipient.
+     *
+     * @param locationId The location ID of the artefact.
+     * @param listType The list type of the artefact.
+     * @param listLanguage The language of the artefact.
+     * @param caseNumbers All case numbers found in the artefact search block.
+     * @param caseUrns All case URNs found in the artefact search block.
+     * @param afterUserId The user ID of the last recipient of the previous page.
+     * @param afterSearchType The search type of the last recipient of the previous page.
+     * @param afterSearchValue The search value of the last recipient of the previous page.
+     * @param limit The maximum number of recipients in the page.
+     * @return The page of recipients, ordered by user.
+     */
+    @SuppressWarnings({"PMD.UseVarargs", "PMD.ExcessiveParameterList"})
+    @NativeQuery(value = "SELECT user_id, search_type, search_value, channel FROM ("
+        + "SELECT user_id, 'LOCATION_ID' AS search_type, location_id AS search_value, channel "
+        + "FROM Location_Subscriber "
+        + "WHERE location_id = :location_id "
+        + LIST_TYPE_MASK_FILTER
+        + LIST_LANGUAGE_MASK_FILTER
+        + "UNION ALL "
+        + "SELECT user_id, search_type, search_value, channel FROM Subscription "
+        + "WHERE search_type = 'LIST_TYPE' "
+        + "AND search_value = :list_type "
+        + "UNION ALL "
+        + "SELECT user_id, search_type, search_value, channel FROM Subscription "
+        + "WHERE search_type = 'CASE_ID' "
+        + "AND search_value = ANY(:case_numbers) "
+        + "UNION ALL "
+        + "SELECT user_id, search_type, search_value, channel FROM Subscription "
+        + "WHERE search_type = 'CASE_URN' "
+        + "AND search_value = ANY(:case_urns)"
+        + ") recipient "
+        + "WHERE (user_id, search_type, search_value) > (:after_user_id, :after_search_type, :after_search_value) "
+        + "ORDER BY user_id, search_type, search_value "
+        + "LIMIT :limit",
+        sqlResultSetMapping = Subscription.RECIPIENT_MAPPING)
+    List<SubscriptionRecipient> findSubscriptionRecipientsForArtefactPage(
+        @Param("location_id") String locationId, @Param("list_type") String listType,
+        @Param("list_language") String listLanguage, @Param("case_numbers") String[] caseNumbers,
+        @Param("case_urns") String[] caseUrns, @Param("after_user_id") String afterUserId,
+        @Param("after_search_type") String afterSearchType, @Param("after_search_value") String afterSearchValue,
+        @Param("limit") int limit);
+
+    /**
+     * Find which of the tables, functions and triggers used to find the recipients of an artefact are missing. These
+     * are created by the Flyway migrations rather than by Hibernate.
+     *
+     * @return The names of the missing database objects.
+     */
+    @NativeQuery("SELECT required.name FROM (VALUES "
+        + "('location_subscriber', to_regclass('location_subscriber') IS NOT NULL), "
+        + "('list_type_code', to_regclass('list_type_code') IS NOT NULL), "
+        + "('list_language_code', to_regclass('list_language_code') IS NOT NULL), "
+        + "('mask_has_code', to_regproc('mask_has_code') IS NOT NULL), "
+        + "('subscription_list_type_masks', EXISTS (SELECT 1 FROM pg_trigger "
+        + "WHERE tgname = 'subscription_list_type_masks')), "
+        + "('location_subscriber_subscription', EXISTS (SELECT 1 FROM pg_trigger "
+        + "WHERE tgname = 'location_subscriber_subscription')), "
+        + "('location_subscriber_list_type', EXISTS (SELECT 1 FROM pg_trigger "
+        + "WHERE tgname = 'location_subscriber_list_type'))"
+        + ") AS required(name, present) "
+        + "WHERE NOT required.present")
+    List<String> findMissingRecipientObjects();
+
+    /**
+     * Find every subscription, holding only what the in-memory subscription index needs.
+     *
+     * @return The index entries of all subscriptions.
+     */
+    @Query("SELECT new uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionIndexEntry("
+        + "s.id, s.userId, s.searchType, s.searchValue, s.channel) FROM Subscription s")
+    List<SubscriptionIndexEntry> findAllIndexEntries();
+
+    @Query("SELECT s.searchValue FROM Subscription s WHERE s.searchType = :searchType")
+    List<String> findSearchValuesBySearchType(@Param("searchType") SearchType searchType);
+
+    /**
+     * Delete all the subscriptions of a user in a single statement.
+     *
+     * @param userId The user ID to delete the subscriptions of.
+     * @return The number of subscriptions deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Subscription s WHERE s.userId = :userId")
+    int deleteAllByUserId(@Param("userId") String userId);
 
     @Query(value = "SELECT * FROM Subscription "
         + "WHERE search_value = :search_value "
@@ -78,8 +290,32 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
 
     List<Subscription> findAllByLocationNameStartingWithIgnoreCase(@Param("prefix") String prefix);
 
+    // Used by the background deletion jobs, which count the subscriptions to delete and then delete them a chunk at a
+    // time, so no single transaction holds locks on every subscription.
+    List<Subscription> findBySearchTypeAndSearchValue(SearchType searchType, String searchValue, Limit limit);
+
+    long countBySearchTypeAndSearchValue(SearchType searchType, String searchValue);
+
+    List<Subscription> findByUserId(String userId, Limit limit);
+
+    long countByUserId(String userId);
+
+    List<Subscription> findByLocationNameStartingWithIgnoreCase(String prefix, Limit limit);
+
+    long countByLocationNameStartingWithIgnoreCase(String prefix);
+
     @Modifying
     @Transactional
-    @Query(value = "REFRESH MATERIALIZED VIEW sdp_mat_view_subscription", nativeQuery = true)
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY sdp_mat_view_subscription", nativeQuery = true)
     void refreshSubscriptionView();
+
+    /**
+     * Try to take a transaction scoped Postgres advisory lock. The lock is released when the surrounding transaction
+     * ends, so this must be called within a transaction.
+     *
+     * @param lockKey The key of the advisory lock.
+     * @return true if the lock was taken, false if it is held by another session.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lock_key)", nativeQuery = true)
+    boolean tryAdvisoryTransactionLock(@Param("lock_key") long lockKey);
 }
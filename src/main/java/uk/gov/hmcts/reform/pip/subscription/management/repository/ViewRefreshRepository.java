@@ -0,0 +1,72 @@
+package uk.gov.hmcts.reform.pip.subscription.management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefresh;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ViewRefreshRepository extends JpaRepository<ViewRefresh, String> {
+
+    /**
+     * Start a refresh of a view, or queue another refresh if one is already running. A running refresh which started
+     * before the given time is treated as abandoned, for example by an instance which was stopped, and a new refresh
+     * is started in its place.
+     *
+     * @param viewName The name of the view.
+     * @param now The current time.
+     * @param staleBefore The time before which a running refresh is treated as abandoned.
+     * @return true if the refresh was queued behind a running refresh, or false if it was started.
+     */
+    @Transactional
+    @NativeQuery("INSERT INTO view_refresh (view_name, state, started_date, refresh_queued) "
+        + "VALUES (:view_name, 'IN_PROGRESS', :now, false) "
+        + "ON CONFLICT (view_name) DO UPDATE SET "
+        + "refresh_queued = (view_refresh.state = 'IN_PROGRESS' AND view_refresh.started_date >= :stale_before), "
+        + "started_date = CASE WHEN view_refresh.state = 'IN_PROGRESS' "
+        + "AND view_refresh.started_date >= :stale_before THEN view_refresh.started_date ELSE :now END, "
+        + "state = 'IN_PROGRESS', completed_date = NULL, reason = NULL "
+        + "RETURNING refresh_queued")
+    boolean startOrQueueRefresh(@Param("view_name") String viewName, @Param("now") LocalDateTime now,
+                                @Param("stale_before") LocalDateTime staleBefore);
+
+    /**
+     * Record that a refresh of a view completed. If another refresh was queued while it ran, the queued refresh is
+     * started instead, as it must pick up the writes made during the completed refresh.
+     *
+     * @param viewName The name of the view.
+     * @param now The current time.
+     * @return IN_PROGRESS if the queued refresh was started, or COMPLETED otherwise.
+     */
+    @Transactional
+    @NativeQuery("UPDATE view_refresh SET "
+        + "state = CASE WHEN refresh_queued THEN 'IN_PROGRESS' ELSE 'COMPLETED' END, "
+        + "started_date = CASE WHEN refresh_queued THEN :now ELSE started_date END, "
+        + "completed_date = CASE WHEN refresh_queued THEN NULL ELSE :now END, "
+        + "reason = NULL, refresh_queued = false "
+        + "WHERE view_name = :view_name "
+        + "RETURNING state")
+    String completeRefresh(@Param("view_name") String viewName, @Param("now") LocalDateTime now);
+
+    /**
+     * Record that a refresh of a view failed or was skipped. Any queued refresh is dropped along with it.
+     *
+     * @param viewName The name of the view.
+     * @param state The outcome of the refresh.
+     * @param reason The reason the refresh did not complete.
+     * @param now The current time.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ViewRefresh v SET v.state = :state, v.completedDate = :now, v.reason = :reason, "
+        + "v.refreshQueued = false WHERE v.viewName = :viewName")
+    void recordRefreshOutcome(@Param("viewName") String viewName, @Param("state") ViewRefreshState state,
+                              @Param("reason") String reason, @Param("now") LocalDateTime now);
+}
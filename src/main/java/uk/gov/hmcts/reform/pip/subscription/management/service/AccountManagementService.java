@@ -5,6 +5,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,14 +20,22 @@ import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.account.PiUser;
 import uk.gov.hmcts.reform.pip.model.publication.ListType;
 import uk.gov.hmcts.reform.pip.model.publication.Sensitivity;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction.clientRegistrationId;
 import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
@@ -38,12 +51,55 @@ public class AccountManagementService {
     private static final String IS_AUTHORISED = "account/isAuthorised";
     private static final String GET_USERS_EMAIL = "account/emails";
     private static final String ACCOUNT_MANAGEMENT_API = "accountManagementApi";
+    private static final String AUTHORISATION_CACHE = "account.authorisation";
+    private static final String EMAIL_CACHE = "account.emails";
 
     private final WebClient webClient;
 
+    private final int authorisationConcurrency;
+
+    /**
+     * Authorisation decisions made by account management, so that users subscribed to several classified lists are
+     * not checked again for each publication. Failed checks are not cached.
+     */
+    private final Cache<AuthorisationKey, Boolean> authorisationCache;
+
+    /**
+     * E-mails of users returned by account management. Users without an e-mail are cached for a shorter time, so a
+     * newly added e-mail is picked up quickly.
+     */
+    private final Cache<String, Optional<String>> emailCache;
+
     @Autowired
-    public AccountManagementService(WebClient webClient) {
+    public AccountManagementService(WebClient webClient,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${accountManagement.authorisationConcurrency}")
+                                    int authorisationConcurrency,
+                                    @Value("${accountManagement.authorisationCache.ttlMs}")
+                                    long authorisationCacheTtlMs,
+                                    @Value("${accountManagement.authorisationCache.maxSize}")
+                                    long authorisationCacheMaxSize,
+                                    @Value("${accountManagement.emailCache.ttlMs}")
+                                    long emailCacheTtlMs,
+                                    @Value("${accountManagement.emailCache.negativeTtlMs}")
+                                    long emailCacheNegativeTtlMs,
+                                    @Value("${accountManagement.emailCache.maxSize}")
+                                    long emailCacheMaxSize) {
         this.webClient = webClient;
+        this.authorisationConcurrency = authorisationConcurrency;
+        this.authorisationCache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(authorisationCacheTtlMs))
+            .maximumSize(authorisationCacheMaxSize)
+            .recordStats()
+            .build();
+        this.emailCache = Caffeine.newBuilder()
+            .expireAfter(new EmailExpiry(Duration.ofMillis(emailCacheTtlMs),
+                                         Duration.ofMillis(emailCacheNegativeTtlMs)))
+            .maximumSize(emailCacheMaxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, authorisationCache, AUTHORISATION_CACHE);
+        CaffeineCacheMetrics.monitor(meterRegistry, emailCache, EMAIL_CACHE);
     }
 
     /**
@@ -55,39 +111,119 @@ public class AccountManagementService {
      * @return bool of true if user can see, false if they are forbidden or if request errored
      */
     public Boolean isUserAuthorised(String userId, ListType listType, Sensitivity sensitivity) {
-        try {
-            return webClient.get().uri(
-                String.format("%s/%s/%s/%s/%s", url, IS_AUTHORISED, userId, listType, sensitivity))
-                .attributes(clientRegistrationId(ACCOUNT_MANAGEMENT_API))
-                .retrieve().bodyToMono(Boolean.class)
-                .block();
-        } catch (WebClientResponseException ex) {
-            if (ex.getStatusCode().equals(HttpStatus.FORBIDDEN)) {
-                log.info(writeLog("User failed list type auth check with response: "
-                                      + ex.getResponseBodyAsString()));
-            } else {
-                log.error(writeLog("Request to Account Management isAuthenticated failed due to: "
-                              + ex.getResponseBodyAsString()));
-            }
+        return checkUserAuthorised(userId, listType, sensitivity)
+            .defaultIfEmpty(false)
+            .block();
+    }
+
+    /**
+     * Check which of the given users are authorised to see a classified publication. Each user is only checked once,
+     * however many times they appear, and the checks are made concurrently up to the configured limit. The checks do
+     * not block, so the returned Mono completes on the WebClient threads.
+     *
+     * @param userIds the user ids to check are authorised
+     * @param listType the list type of the publication
+     * @param sensitivity the sensitivity of the publication
+     * @return the ids of the users who can see the publication
+     */
+    public Mono<Set<String>> findAuthorisedUserIds(Collection<String> userIds, ListType listType,
+                                                   Sensitivity sensitivity) {
+        return Flux.fromIterable(new LinkedHashSet<>(userIds))
+            .flatMap(userId -> checkUserAuthorised(userId, listType, sensitivity)
+                .filter(Boolean.TRUE::equals)
+                .map(authorised -> userId), authorisationConcurrency)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Remove the cached authorisation decisions for a user, so they are checked again on the next publication.
+     *
+     * @param userId the user id to remove the decisions for
+     */
+    public void evictUserAuthorisation(String userId) {
+        authorisationCache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    private Mono<Boolean> checkUserAuthorised(String userId, ListType listType, Sensitivity sensitivity) {
+        AuthorisationKey key = new AuthorisationKey(userId, listType, sensitivity);
+        Boolean cachedDecision = authorisationCache.getIfPresent(key);
+        if (cachedDecision != null) {
+            return Mono.just(cachedDecision);
         }
-        return false;
+
+        return webClient.get().uri(
+            String.format("%s/%s/%s/%s/%s", url, IS_AUTHORISED, userId, listType, sensitivity))
+            .attributes(clientRegistrationId(ACCOUNT_MANAGEMENT_API))
+            .retrieve().bodyToMono(Boolean.class)
+            .onErrorResume(WebClientResponseException.class, ex -> {
+                if (ex.getStatusCode().equals(HttpStatus.FORBIDDEN)) {
+                    log.info(writeLog("User failed list type auth check with response: "
+                                          + ex.getResponseBodyAsString()));
+                    return Mono.just(false);
+                }
+                log.error(writeLog("Request to Account Management isAuthenticated failed due to: "
+                                       + ex.getResponseBodyAsString()));
+                return Mono.empty();
+            })
+            .doOnNext(authorised -> authorisationCache.put(key, authorised));
     }
 
+    /**
+     * Map user ids to their e-mails. E-mails are served from the cache where possible, and any users not in the cache
+     * are requested from account management in a single request.
+     *
+     * @param listOfUsers the user ids to find the e-mails for
+     * @return a map of user id to e-mail, which is empty for users without an e-mail
+     */
     public Map<String, Optional<String>> getMappedEmails(List<String> listOfUsers) {
-        try {
-            return webClient.post().uri(url + "/" + GET_USERS_EMAIL)
-                .attributes(clientRegistrationId(ACCOUNT_MANAGEMENT_API))
-                .body(BodyInserters.fromValue(listOfUsers))
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Optional<String>>>() {})
-                .block();
-        } catch (WebClientException ex) {
-            log.error(writeLog(
-                String.format("Request to Account Management to get account e-mails failed with error message: %s",
-                              ex.getMessage())
-            ));
-            return Collections.emptyMap();
+        return findMappedEmails(listOfUsers).block();
+    }
+
+    /**
+     * Non-blocking version of {@link #getMappedEmails(List)}, for use within a reactive pipeline. Every requested
+     * user is in the returned map, so users left out of the response, or whose request failed, are mapped to an empty
+     * e-mail. These users are not cached, so they are requested again next time.
+     *
+     * @param listOfUsers the user ids to find the e-mails for
+     * @return a map of user id to e-mail, which is empty for users without an e-mail
+     */
+    public Mono<Map<String, Optional<String>>> findMappedEmails(List<String> listOfUsers) {
+        Map<String, Optional<String>> mappedEmails = new ConcurrentHashMap<>(emailCache.getAllPresent(listOfUsers));
+
+        List<String> missingUsers = listOfUsers.stream()
+            .filter(userId -> !mappedEmails.containsKey(userId))
+            .distinct()
+            .toList();
+        if (missingUsers.isEmpty()) {
+            return Mono.just(mappedEmails);
         }
+
+        return requestMappedEmails(missingUsers)
+            .map(requestedEmails -> {
+                requestedEmails.forEach((userId, email) -> {
+                    Optional<String> userEmail = email == null ? Optional.empty() : email;
+                    emailCache.put(userId, userEmail);
+                    mappedEmails.put(userId, userEmail);
+                });
+                missingUsers.forEach(userId -> mappedEmails.putIfAbsent(userId, Optional.empty()));
+                return mappedEmails;
+            });
+    }
+
+    private Mono<Map<String, Optional<String>>> requestMappedEmails(List<String> listOfUsers) {
+        return webClient.post().uri(url + "/" + GET_USERS_EMAIL)
+            .attributes(clientRegistrationId(ACCOUNT_MANAGEMENT_API))
+            .body(BodyInserters.fromValue(listOfUsers))
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Optional<String>>>() {})
+            .defaultIfEmpty(Collections.emptyMap())
+            .onErrorResume(WebClientException.class, ex -> {
+                log.error(writeLog(
+                    String.format("Request to Account Management to get account e-mails failed with error message: %s",
+                                  ex.getMessage())
+                ));
+                return Mono.just(Collections.emptyMap());
+            });
     }
 
     public Optional<PiUser> getUserByUserId(String userId) {
@@ -131,4 +267,29 @@ public class AccountManagementService {
         JsonNode content = node.get("content");
         return MAPPER.readValue(content.toString(), new TypeReference<>(){});
     }
+
+    private record AuthorisationKey(String userId, ListType listType, Sensitivity sensitivity) {
+    }
+
+    /**
+     * Expires cached e-mails after the configured time, using the shorter time for users without an e-mail.
+     */
+    private record EmailExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<String>> {
+        @Override
+        public long expireAfterCreate(String userId, Optional<String> email, long currentTime) {
+            return email.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, Optional<String> email, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(userId, email, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, Optional<String> email, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.pip.model.publication.Artefact;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.ArtefactRecipientRequestRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+
+/**
+ * Recognises repeated requests to notify the recipients of an artefact. A request is keyed by the artefact id and a
+ * hash of the artefact content, and any request with the same key made within the idempotency window is folded into
+ * the first request, so the recipients are only notified once. The requests are held in the database, so duplicates
+ * are recognised whichever instance they are sent to.
+ */
+@Slf4j
+@Service
+public class ArtefactRecipientRequestService {
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build();
+
+    private final ArtefactRecipientRequestRepository repository;
+
+    private final Duration idempotencyWindow;
+
+    @Autowired
+    public ArtefactRecipientRequestService(ArtefactRecipientRequestRepository repository,
+                                           @Value("${artefactRecipients.idempotencyWindowMs}")
+                                           long idempotencyWindowMs) {
+        this.repository = repository;
+        this.idempotencyWindow = Duration.ofMillis(idempotencyWindowMs);
+    }
+
+    /**
+     * Claim the request to notify the recipients of an artefact.
+     *
+     * @param artefact The artefact to notify the recipients of
+     * @return true if the request should be processed, or false if the same request is already being processed or
+     *     has recently been processed
+     */
+    public boolean claim(Artefact artefact) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed = repository.claimRequest(artefact.getArtefactId(), contentHash(artefact), now,
+                                                  now.minus(idempotencyWindow)) > 0;
+        if (!claimed) {
+            log.info(writeLog(String.format("Duplicate subscriber request for artefact %s has been merged with the "
+                                                + "existing request", artefact.getArtefactId())));
+        }
+        return claimed;
+    }
+
+    /**
+     * Release the claim on a request which could not be processed, so it can be made again.
+     *
+     * @param artefact The artefact whose request could not be processed
+     */
+    public void release(Artefact artefact) {
+        repository.releaseRequest(artefact.getArtefactId(), contentHash(artefact));
+    }
+
+    /**
+     * Remove requests which are older than the idempotency window, as they will no longer be matched.
+     */
+    @Scheduled(initialDelayString = "${artefactRecipients.purgeIntervalMs}",
+        fixedDelayString = "${artefactRecipients.purgeIntervalMs}")
+    public void purgeExpiredRequests() {
+        repository.deleteByCreatedDateBefore(LocalDateTime.now().minus(idempotencyWindow));
+    }
+
+    String contentHash(Artefact artefact) {
+        try {
+            return Hashing.sha256()
+                .hashString(MAPPER.writeValueAsString(artefact), StandardCharsets.UTF_8)
+                .toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                String.format("Failed to hash the content of artefact %s", artefact.getArtefactId()), e);
+        }
+    }
+}
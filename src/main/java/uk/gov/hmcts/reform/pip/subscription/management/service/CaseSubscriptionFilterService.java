@@ -0,0 +1,148 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_ID;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_URN;
+
+/**
+ * Bloom filter over every subscribed case number and case URN. This is used to drop cases from an artefact which
+ * definitely have no subscribers before the database is queried.
+ *
+ * <p>The filter is rebuilt from the database on startup and periodically, and case subscriptions created by this
+ * instance are added straight away. Subscriptions created by other instances are only picked up on the next rebuild,
+ * and until then the filter reports them as definitely not subscribed, so their subscribers are skipped. The filter
+ * is therefore disabled by default and should only be enabled where a single instance writes subscriptions. Until
+ * the first build completes every case is treated as possibly subscribed.
+ */
+@Slf4j
+@Service
+public class CaseSubscriptionFilterService {
+    private static final int MINIMUM_EXPECTED_INSERTIONS = 1000;
+
+    private final SubscriptionRepository repository;
+
+    private final boolean enabled;
+
+    private final double falsePositiveRate;
+
+    private final Timer rebuildTimer;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile BloomFilter<String> filter;
+
+    @Autowired
+    public CaseSubscriptionFilterService(SubscriptionRepository repository, MeterRegistry meterRegistry,
+                                         @Value("${caseSubscriptionFilter.enabled}") boolean enabled,
+                                         @Value("${caseSubscriptionFilter.falsePositiveRate}")
+                                         double falsePositiveRate) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildTimer = Timer.builder("subscription.case.filter.rebuild")
+            .description("Time taken to rebuild the case subscription bloom filter")
+            .register(meterRegistry);
+        Gauge.builder("subscription.case.filter.false.positive.rate", this,
+                      CaseSubscriptionFilterService::getFalsePositiveRate)
+            .description("Estimated false positive rate of the case subscription bloom filter")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Build the filter on startup, and rebuild it periodically to pick up subscriptions created by other instances
+     * and to drop values from deleted subscriptions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${caseSubscriptionFilter.rebuildIntervalMs}",
+        fixedDelayString = "${caseSubscriptionFilter.rebuildIntervalMs}")
+    public void rebuildFilter() {
+        if (!enabled) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            rebuildTimer.record(() -> {
+                List<String> caseNumbers = repository.findSearchValuesBySearchType(CASE_ID);
+                List<String> caseUrns = repository.findSearchValuesBySearchType(CASE_URN);
+
+                int expectedInsertions = Math.max(MINIMUM_EXPECTED_INSERTIONS,
+                                                  (caseNumbers.size() + caseUrns.size()) * 2);
+                BloomFilter<String> newFilter = BloomFilter.create(
+                    Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate
+                );
+                caseNumbers.forEach(caseNumber -> newFilter.put(filterKey(CASE_ID, caseNumber)));
+                caseUrns.forEach(caseUrn -> newFilter.put(filterKey(CASE_URN, caseUrn)));
+                filter = newFilter;
+
+                log.info(writeLog(String.format("Case subscription filter built with %s case value(s)",
+                                                caseNumbers.size() + caseUrns.size())));
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Add a newly created subscription to the filter if it is a case subscription.
+     * @param subscription The subscription which has been created.
+     */
+    public void subscriptionSaved(Subscription subscription) {
+        if (CASE_ID.equals(subscription.getSearchType()) || CASE_URN.equals(subscription.getSearchType())) {
+            writeLock.lock();
+            try {
+                if (filter != null) {
+                    filter.put(filterKey(subscription.getSearchType(), subscription.getSearchValue()));
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove the values which definitely have no subscription for the given search type.
+     * @param searchType The search type of the values, either CASE_ID or CASE_URN.
+     * @param values The case numbers or case URNs to filter.
+     * @return The values which may have a subscription.
+     */
+    public List<String> filterPossiblySubscribed(SearchType searchType, Collection<String> values) {
+        BloomFilter<String> current = filter;
+        if (current == null) {
+            return List.copyOf(values);
+        }
+        return values.stream()
+            .filter(value -> current.mightContain(filterKey(searchType, value)))
+            .toList();
+    }
+
+    private double getFalsePositiveRate() {
+        BloomFilter<String> current = filter;
+        return current == null ? 0 : current.expectedFpp();
+    }
+
+    private static String filterKey(SearchType searchType, String value) {
+        return searchType.name() + ':' + value;
+    }
+}
@@ -0,0 +1,108 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uk.gov.hmcts.reform.pip.model.account.PiUser;
+import uk.gov.hmcts.reform.pip.model.system.admin.ActionResult;
+import uk.gov.hmcts.reform.pip.subscription.management.models.LocationSubscriptionsDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+import static uk.gov.hmcts.reform.pip.model.account.Roles.SYSTEM_ADMIN;
+import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.PI_AAD;
+import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.SSO;
+
+/**
+ * Notifies the subscribers of a location, and the system admins, once the subscriptions for the location have been
+ * deleted. The notifications are sent asynchronously after the deletion has committed, so no database connection is
+ * held while the downstream services are called.
+ */
+@Slf4j
+@Service
+public class LocationDeletionNotificationService {
+
+    private final DataManagementService dataManagementService;
+
+    private final AccountManagementService accountManagementService;
+
+    private final PublicationServicesService publicationServicesService;
+
+    @Autowired
+    public LocationDeletionNotificationService(DataManagementService dataManagementService,
+                                               AccountManagementService accountManagementService,
+                                               PublicationServicesService publicationServicesService) {
+        this.dataManagementService = dataManagementService;
+        this.accountManagementService = accountManagementService;
+        this.publicationServicesService = publicationServicesService;
+    }
+
+    /**
+     * Send the location deletion notifications. Runs after the deleting transaction has committed, or straight away
+     * if the subscriptions were deleted outside of a transaction.
+     *
+     * @param event The details of the deleted subscriptions.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleLocationSubscriptionsDeleted(LocationSubscriptionsDeletedEvent event) {
+        String locationName = dataManagementService.getCourtName(event.locationId());
+        notifySubscriberAboutSubscriptionDeletion(event.subscriberUserIds(), locationName);
+
+        try {
+            notifySystemAdminAboutSubscriptionDeletion(event.actioningUserId(), String.format(
+                "Total %s subscription(s) for location %s", event.subscriptionCount(), locationName));
+        } catch (JsonProcessingException e) {
+            log.error(writeLog(String.format("Failed to notify system admins about the deletion of subscriptions "
+                                                 + "for location %s: %s", event.locationId(), e.getMessage())));
+        }
+    }
+
+    private void notifySubscriberAboutSubscriptionDeletion(List<String> userIds, String locationName) {
+        List<String> userEmails = getUserEmails(userIds);
+        publicationServicesService.sendLocationDeletionSubscriptionEmail(userEmails, locationName);
+    }
+
+    private void notifySystemAdminAboutSubscriptionDeletion(String userId, String additionalDetails)
+        throws JsonProcessingException {
+        Optional<PiUser> piUserOptional = accountManagementService.getUserByUserId(userId);
+        if (piUserOptional.isPresent()) {
+            PiUser piUser = piUserOptional.get();
+            List<PiUser> systemAdminsAad = accountManagementService.getAllAccounts(PI_AAD.toString(),
+                                                                                   SYSTEM_ADMIN.toString());
+            List<PiUser> systemAdminsSso = accountManagementService
+                .getAllAccounts(SSO.toString(), SYSTEM_ADMIN.toString());
+
+            List<PiUser> systemAdmins = Stream.concat(systemAdminsAad.stream(), systemAdminsSso.stream()).toList();
+            List<String> systemAdminEmails = systemAdmins.stream().map(PiUser::getEmail).toList();
+            publicationServicesService.sendSystemAdminEmail(systemAdminEmails, piUser.getEmail(),
+                                                            ActionResult.SUCCEEDED, additionalDetails);
+        } else {
+            log.error(writeLog(String.format("User %s not found in the system when notifying system admins", userId)));
+        }
+    }
+
+    private List<String> getUserEmails(List<String> userIds) {
+        Map<String, Optional<String>> usersInfo =
+            accountManagementService.getMappedEmails(userIds);
+
+        List<String> userEmails = new ArrayList<>();
+
+        usersInfo.forEach((userId, email) ->
+            userEmails.add(
+                email.isPresent() ? email.get() : ""
+            )
+        );
+        userEmails.removeAll(Arrays.asList(""));
+        return userEmails;
+    }
+}
@@ -0,0 +1,156 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import uk.gov.hmcts.reform.pip.model.publication.ListType;
+import uk.gov.hmcts.reform.pip.model.publication.Sensitivity;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Records the time taken by each stage of the notification pipeline, and the number of subscriptions passing through
+ * each stage, tagged by the list type and sensitivity of the artefact. The time from a request being accepted to its
+ * notification being sent to publication services is recorded as a histogram.
+ */
+@Service
+public class NotificationMetricsService {
+    public static final String PUBLICATION_PIPELINE = "publication";
+    public static final String DELETION_PIPELINE = "deletion";
+
+    static final String STAGE_METRIC = "subscription.notification.stage";
+    static final String STAGE_ITEMS_METRIC = "subscription.notification.stage.items";
+    static final String DELIVERY_METRIC = "subscription.notification.delivery";
+
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public NotificationMetricsService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Time a blocking stage of the pipeline.
+     *
+     * @param pipeline The pipeline the stage belongs to
+     * @param stage The name of the stage
+     * @param listType The list type of the artefact
+     * @param sensitivity The sensitivity of the artefact
+     * @param work The work done by the stage
+     * @return The result of the stage
+     */
+    public <T> T timeStage(String pipeline, String stage, ListType listType, Sensitivity sensitivity,
+                           Supplier<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = FAILURE;
+        try {
+            T result = work.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            sample.stop(stageTimer(pipeline, stage, listType, sensitivity, outcome));
+        }
+    }
+
+    /**
+     * Time a non-blocking stage of the pipeline, from when it is subscribed to until it completes.
+     *
+     * @param pipeline The pipeline the stage belongs to
+     * @param stage The name of the stage
+     * @param listType The list type of the artefact
+     * @param sensitivity The sensitivity of the artefact
+     * @param work The work done by the stage
+     * @return The work, timed
+     */
+    public <T> Mono<T> timeStage(String pipeline, String stage, ListType listType, Sensitivity sensitivity,
+                                 Mono<T> work) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return work.doFinally(signal -> sample.stop(stageTimer(
+                pipeline, stage, listType, sensitivity, signal == SignalType.ON_ERROR ? FAILURE : SUCCESS)));
+        });
+    }
+
+    /**
+     * Record the time taken by a stage of the pipeline which has already finished.
+     *
+     * @param pipeline The pipeline the stage belongs to
+     * @param stage The name of the stage
+     * @param listType The list type of the artefact
+     * @param sensitivity The sensitivity of the artefact
+     * @param duration The time taken by the stage
+     * @param success Whether the stage succeeded
+     */
+    public void recordStage(String pipeline, String stage, ListType listType, Sensitivity sensitivity,
+                            Duration duration, boolean success) {
+        stageTimer(pipeline, stage, listType, sensitivity, success ? SUCCESS : FAILURE).record(duration);
+    }
+
+    /**
+     * Count the subscriptions which have come out of a stage of the pipeline.
+     *
+     * @param pipeline The pipeline the stage belongs to
+     * @param stage The name of the stage
+     * @param listType The list type of the artefact
+     * @param sensitivity The sensitivity of the artefact
+     * @param count The number of subscriptions
+     */
+    public void recordStageItems(String pipeline, String stage, ListType listType, Sensitivity sensitivity,
+                                 int count) {
+        Counter.builder(STAGE_ITEMS_METRIC)
+            .description("Number of subscriptions coming out of each stage of the notification pipeline")
+            .tags(stageTags(pipeline, stage, listType, sensitivity))
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    /**
+     * Record the time from the request for a notification being accepted, to the notification being sent.
+     *
+     * @param notification The notification which has been sent
+     */
+    public void recordDelivery(NotificationOutbox notification) {
+        if (notification.getAcceptedDate() == null) {
+            return;
+        }
+
+        Timer.builder(DELIVERY_METRIC)
+            .description("Time from a notification request being accepted to publication services accepting it")
+            .tags(artefactTags(notification.getListType(), notification.getSensitivity()))
+            .tag("notification.type", notification.getNotificationType().name())
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(Duration.between(notification.getAcceptedDate(), LocalDateTime.now()));
+    }
+
+    private Timer stageTimer(String pipeline, String stage, ListType listType, Sensitivity sensitivity,
+                             String outcome) {
+        return Timer.builder(STAGE_METRIC)
+            .description("Time taken by each stage of the notification pipeline")
+            .tags(stageTags(pipeline, stage, listType, sensitivity))
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry);
+    }
+
+    private static Tags stageTags(String pipeline, String stage, ListType listType, Sensitivity sensitivity) {
+        return artefactTags(listType, sensitivity).and("pipeline", pipeline, "stage", stage);
+    }
+
+    private static Tags artefactTags(ListType listType, Sensitivity sensitivity) {
+        return Tags.of("list.type", listType == null ? UNKNOWN : listType.name(),
+                       "sensitivity", sensitivity == null ? UNKNOWN : sensitivity.name());
+    }
+}
@@ -0,0 +1,195 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscription;
+import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscriptionArtefact;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.NotificationOutboxRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService.ThirdPartyNotification;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.DELETION_PIPELINE;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.PUBLICATION_PIPELINE;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService.MAPPER;
+
+/**
+ * Drains the notification outbox, sending each pending notification to publication services. Notifications are
+ * claimed in batches by marking them as in flight with a lease, in a short transaction, so several instances can
+ * dispatch at the same time. They are then sent outside of any transaction, so no database connection or row lock
+ * is held while publication services is called, and the outcome of each is recorded in a second short transaction.
+ * A notification whose dispatcher stops before recording the outcome is claimed again once its lease expires. A
+ * notification which fails to send is retried with an exponential backoff, until it has been attempted the maximum
+ * number of times.
+ *
+ * <p>Subscription summaries are only retried for the recipients which could not be sent to, so recipients which
+ * have already been notified are not sent the summary again.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxDispatcher {
+    private static final TypeReference<Map<String, List<SubscriptionRecipient>>> SUMMARY_PAYLOAD =
+        new TypeReference<>() {};
+    private static final String DISPATCH_STAGE = "dispatch";
+
+    private final NotificationOutboxRepository repository;
+
+    private final PublicationServicesService publicationServicesService;
+
+    private final NotificationMetricsService notificationMetricsService;
+
+    private final int batchSize;
+
+    private final Duration lease;
+
+    private final int maxAttempts;
+
+    private final Duration retryBackoff;
+
+    private final Duration maxRetryBackoff;
+
+    @Autowired
+    public NotificationOutboxDispatcher(NotificationOutboxRepository repository,
+                                        PublicationServicesService publicationServicesService,
+                                        NotificationMetricsService notificationMetricsService,
+                                        @Value("${notificationOutbox.batchSize}") int batchSize,
+                                        @Value("${notificationOutbox.leaseMs}") long leaseMs,
+                                        @Value("${notificationOutbox.maxAttempts}") int maxAttempts,
+                                        @Value("${notificationOutbox.retryBackoffMs}") long retryBackoffMs,
+                                        @Value("${notificationOutbox.maxRetryBackoffMs}") long maxRetryBackoffMs) {
+        this.repository = repository;
+        this.publicationServicesService = publicationServicesService;
+        this.notificationMetricsService = notificationMetricsService;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+        this.maxRetryBackoff = Duration.ofMillis(maxRetryBackoffMs);
+    }
+
+    /**
+     * Send the notifications which are due, a batch at a time, until there are no more due notifications.
+     */
+    @Scheduled(initialDelayString = "${notificationOutbox.pollIntervalMs}",
+        fixedDelayString = "${notificationOutbox.pollIntervalMs}")
+    public void dispatchDueNotifications() {
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> notifications = repository.claimDueNotifications(now, now.plus(lease), batchSize);
+        notifications.forEach(notification -> {
+            dispatch(notification);
+            if (repository.recordOutcome(notification) == 0) {
+                log.warn(writeLog(String.format(
+                    "Outcome of notification %s for artefact %s was not recorded as its lease expired",
+                    notification.getId(), notification.getArtefactId())));
+            }
+        });
+        return notifications.size();
+    }
+
+    /**
+     * Send a claimed notification, and update it with the outcome. The claim has already counted the attempt.
+     */
+    private void dispatch(NotificationOutbox notification) {
+        try {
+            if (timedSend(notification)) {
+                notification.setStatus(NotificationStatus.SENT);
+                notification.setLastError(null);
+                notificationMetricsService.recordDelivery(notification);
+            } else {
+                recordFailedAttempt(notification, "Notification was not accepted by publication services");
+            }
+        } catch (JsonProcessingException e) {
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setLastError("Notification payload could not be read: " + e.getOriginalMessage());
+            log.error(writeLog(String.format("Notification %s for artefact %s could not be read",
+                                             notification.getId(), notification.getArtefactId())));
+        } catch (RuntimeException e) {
+            recordFailedAttempt(notification, e.getMessage());
+        }
+    }
+
+    private boolean timedSend(NotificationOutbox notification) throws JsonProcessingException {
+        long start = System.nanoTime();
+        boolean sent = false;
+        try {
+            sent = send(notification);
+            return sent;
+        } finally {
+            notificationMetricsService.recordStage(
+                notification.getNotificationType() == NotificationType.THIRD_PARTY_DELETION
+                    ? DELETION_PIPELINE : PUBLICATION_PIPELINE,
+                DISPATCH_STAGE, notification.getListType(), notification.getSensitivity(),
+                Duration.ofNanos(System.nanoTime() - start), sent);
+        }
+    }
+
+    /**
+     * Send the notification to publication services.
+     * @return true if every recipient of the notification was sent to.
+     */
+    private boolean send(NotificationOutbox notification) throws JsonProcessingException {
+        return switch (notification.getNotificationType()) {
+            case SUBSCRIPTION_SUMMARY -> {
+                Map<String, List<SubscriptionRecipient>> unsent = publicationServicesService.postSubscriptionSummaries(
+                    notification.getArtefactId(), MAPPER.readValue(notification.getPayload(), SUMMARY_PAYLOAD));
+                if (!unsent.isEmpty()) {
+                    notification.setPayload(MAPPER.writeValueAsString(unsent));
+                }
+                yield unsent.isEmpty();
+            }
+            case THIRD_PARTY_LIST -> publicationServicesService.sendThirdPartyList(new ThirdPartySubscription(
+                readThirdPartyNotification(notification).apiDestination(), notification.getArtefactId()));
+            case THIRD_PARTY_DELETION -> {
+                ThirdPartyNotification thirdPartyNotification = readThirdPartyNotification(notification);
+                yield publicationServicesService.sendEmptyArtefact(new ThirdPartySubscriptionArtefact(
+                    thirdPartyNotification.apiDestination(), thirdPartyNotification.artefact()));
+            }
+        };
+    }
+
+    private ThirdPartyNotification readThirdPartyNotification(NotificationOutbox notification)
+        throws JsonProcessingException {
+        return MAPPER.readValue(notification.getPayload(), ThirdPartyNotification.class);
+    }
+
+    private void recordFailedAttempt(NotificationOutbox notification, String error) {
+        notification.setLastError(error);
+        notification.setStatus(NotificationStatus.PENDING);
+        if (notification.getAttempts() >= maxAttempts) {
+            notification.setStatus(NotificationStatus.FAILED);
+            log.error(writeLog(String.format(
+                "%s notification for artefact %s failed after %s attempts: %s",
+                notification.getNotificationType(), notification.getArtefactId(), notification.getAttempts(), error
+            )));
+            return;
+        }
+
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(notification.getAttempts() - 1, 30));
+        notification.setNextAttemptDate(LocalDateTime.now().plus(
+            backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff));
+        log.warn(writeLog(String.format(
+            "%s notification for artefact %s failed on attempt %s, it will be retried: %s",
+            notification.getNotificationType(), notification.getArtefactId(), notification.getAttempts(), error
+        )));
+    }
+}
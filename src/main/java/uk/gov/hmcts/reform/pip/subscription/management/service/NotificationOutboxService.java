@@ -0,0 +1,136 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.pip.model.publication.Artefact;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.NotificationOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+
+/**
+ * Writes notifications for artefacts to the notification outbox, so they are kept until publication services has
+ * accepted them. The notifications are sent by the {@link NotificationOutboxDispatcher}.
+ *
+ * <p>Each notification is queued in its own transaction, so it is committed straight away even when it is queued
+ * while a longer read is in progress, such as when the recipients of an artefact are streamed.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxService {
+    static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final NotificationOutboxRepository repository;
+
+    private final long retentionDays;
+
+    @Autowired
+    public NotificationOutboxService(NotificationOutboxRepository repository,
+                                     @Value("${notificationOutbox.retentionDays}") long retentionDays) {
+        this.repository = repository;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Queue the subscription summaries for an artefact.
+     *
+     * @param artefact The artefact associated with the subscriptions
+     * @param acceptedDate When the request to notify the subscribers was accepted
+     * @param subscriptions A map containing each email which matches the criteria, alongside the subscriptions.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void queueSubscriptionSummaries(Artefact artefact, LocalDateTime acceptedDate,
+                                           Map<String, List<SubscriptionRecipient>> subscriptions) {
+        queue(artefact, acceptedDate, NotificationType.SUBSCRIPTION_SUMMARY, subscriptions);
+    }
+
+    /**
+     * Queue the notification of a new artefact to a third party.
+     *
+     * @param apiDestination The third party api to notify
+     * @param artefact The new artefact
+     * @param acceptedDate When the request to notify the subscribers was accepted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void queueThirdPartyList(String apiDestination, Artefact artefact, LocalDateTime acceptedDate) {
+        queue(artefact, acceptedDate, NotificationType.THIRD_PARTY_LIST,
+              new ThirdPartyNotification(apiDestination, null));
+    }
+
+    /**
+     * Queue the notification of a deleted artefact to a third party.
+     *
+     * @param apiDestination The third party api to notify
+     * @param artefact The artefact which has been deleted
+     * @param acceptedDate When the request to notify the subscribers was accepted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void queueThirdPartyDeletion(String apiDestination, Artefact artefact, LocalDateTime acceptedDate) {
+        queue(artefact, acceptedDate, NotificationType.THIRD_PARTY_DELETION,
+              new ThirdPartyNotification(apiDestination, artefact));
+    }
+
+    /**
+     * Find the notifications which have been queued for an artefact, along with their delivery status.
+     *
+     * @param artefactId The artefact id to find the notifications for
+     * @return The list of notifications for the artefact
+     */
+    public List<NotificationOutbox> findNotificationsByArtefactId(UUID artefactId) {
+        return repository.findByArtefactIdOrderByCreatedDate(artefactId);
+    }
+
+    /**
+     * Remove notifications which were sent, or failed for the last time, longer ago than the retention period. The
+     * payloads hold the e-mails of the recipients, so failed notifications are not kept indefinitely either.
+     */
+    @Scheduled(initialDelayString = "${notificationOutbox.purgeIntervalMs}",
+        fixedDelayString = "${notificationOutbox.purgeIntervalMs}")
+    public void purgeCompletedNotifications() {
+        int purged = repository.deleteByStatusInAndLastAttemptDateBefore(
+            List.of(NotificationStatus.SENT, NotificationStatus.FAILED), LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info(writeLog(String.format("Purged %s sent or failed notifications from the notification outbox",
+                                            purged)));
+        }
+    }
+
+    private void queue(Artefact artefact, LocalDateTime acceptedDate, NotificationType notificationType,
+                       Object payload) {
+        try {
+            NotificationOutbox notification = new NotificationOutbox(artefact.getArtefactId(), notificationType,
+                                                                     MAPPER.writeValueAsString(payload));
+            notification.setListType(artefact.getListType());
+            notification.setSensitivity(artefact.getSensitivity());
+            notification.setAcceptedDate(acceptedDate);
+            repository.save(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                String.format("Failed to write %s notification for artefact %s", notificationType,
+                              artefact.getArtefactId()), e);
+        }
+    }
+
+    /**
+     * The payload of a third party notification. The artefact is only held for deleted artefacts, as third parties
+     * are sent the artefact id of a new artefact.
+     */
+    record ThirdPartyNotification(String apiDestination, Artefact artefact) {
+    }
+}
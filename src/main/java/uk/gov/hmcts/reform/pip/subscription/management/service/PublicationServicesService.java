@@ -1,26 +1,39 @@
 package uk.gov.hmcts.reform.pip.subscription.management.service;
 
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 import uk.gov.hmcts.reform.pip.model.subscription.LocationSubscriptionDeletion;
 import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscription;
 import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscriptionArtefact;
 import uk.gov.hmcts.reform.pip.model.system.admin.ActionResult;
 import uk.gov.hmcts.reform.pip.model.system.admin.DeleteLocationSubscriptionAction;
 import uk.gov.hmcts.reform.pip.subscription.management.models.BulkSubscriptionsSummary;
-import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionsSummary;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionsSummaryDetails;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction.clientRegistrationId;
 import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
@@ -32,60 +45,151 @@ public class PublicationServicesService {
     private static final String NOTIFY_API_PATH = "notify/api";
     private static final String NOTIFY_LOCATION_SUBSCRIPTION_PATH = "notify/location-subscription-delete";
     private static final String PUBLICATION_SERVICE_API = "publicationServicesApi";
+    private static final String SUMMARY_CHUNK_METRIC = "subscription.summary.chunk";
+    private static final String OUTCOME_TAG = "outcome";
 
     private final WebClient webClient;
 
+    private final MeterRegistry meterRegistry;
+
+    private final int summaryChunkSize;
+
+    private final int summaryConcurrency;
+
+    private final Retry summaryRetry;
+
+    private final DistributionSummary summaryChunkSizeMetric;
+
     @Value("${service-to-service.publication-services}")
     private String url;
 
     @Autowired
-    public PublicationServicesService(WebClient webClient) {
+    public PublicationServicesService(WebClient webClient,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${subscriptionSummary.chunkSize}") int summaryChunkSize,
+                                      @Value("${subscriptionSummary.concurrency}") int summaryConcurrency,
+                                      @Value("${subscriptionSummary.maxRetries}") long summaryMaxRetries,
+                                      @Value("${subscriptionSummary.retryBackoffMs}") long summaryRetryBackoffMs) {
         this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+        this.summaryChunkSize = summaryChunkSize;
+        this.summaryConcurrency = summaryConcurrency;
+        this.summaryRetry = Retry.backoff(summaryMaxRetries, Duration.ofMillis(summaryRetryBackoffMs))
+            .filter(PublicationServicesService::isRetryable)
+            .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure());
+        this.summaryChunkSizeMetric = DistributionSummary.builder(SUMMARY_CHUNK_METRIC + ".size")
+            .description("Number of recipients in each subscription summary chunk")
+            .register(meterRegistry);
     }
 
-    public void postSubscriptionSummaries(UUID artefactId, Map<String, List<Subscription>> subscriptions) {
-        BulkSubscriptionsSummary payload = formatSubscriptionsSummary(artefactId, subscriptions);
-        try {
-            webClient.post().uri(url + "/" + NOTIFY_SUBSCRIPTION_PATH)
-                .attributes(clientRegistrationId(PUBLICATION_SERVICE_API))
-                .body(BodyInserters.fromValue(payload)).retrieve()
-                .bodyToMono(Void.class)
-                .block();
+    /**
+     * Send the subscription summaries for an artefact to publication services. The recipients are split into chunks,
+     * which are sent concurrently up to the configured limit. A chunk which fails with a server or connection error
+     * is retried on its own, and any error in a chunk only affects the recipients in that chunk.
+     *
+     * @param artefactId The artefact id associated with the subscriptions
+     * @param subscriptions A map containing each email which matches the criteria, alongside the subscriptions.
+     * @return The emails and subscriptions of the recipients which could not be sent to.
+     */
+    public Map<String, List<SubscriptionRecipient>> postSubscriptionSummaries(
+        UUID artefactId, Map<String, List<SubscriptionRecipient>> subscriptions) {
+        List<SubscriptionsSummary> summaries = formatSubscriptionsSummary(artefactId, subscriptions)
+            .getSubscriptionEmails();
 
-        } catch (WebClientException ex) {
-            log.error(writeLog(
-                String.format("Subscription email failed to send with error: %s", ex.getMessage())
-            ));
-        }
+        Set<String> failedEmails = Flux.fromIterable(Lists.partition(summaries, summaryChunkSize))
+            .flatMap(chunk -> postSubscriptionSummaryChunk(artefactId, chunk), summaryConcurrency)
+            .flatMapIterable(failedChunk -> failedChunk)
+            .map(SubscriptionsSummary::getEmail)
+            .collect(Collectors.toSet())
+            .block();
+
+        return subscriptions.entrySet().stream()
+            .filter(entry -> failedEmails.contains(entry.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Send a chunk of subscription summaries. Any error while sending the chunk, including one raised before the
+     * request is made, is recorded as a failure of that chunk rather than of the whole send.
+     * @return An empty list if the chunk was sent, otherwise the summaries in the chunk.
+     */
+    private Mono<List<SubscriptionsSummary>> postSubscriptionSummaryChunk(UUID artefactId,
+                                                                         List<SubscriptionsSummary> chunk) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return Mono.defer(() -> sendSubscriptionSummaryChunk(artefactId, chunk))
+                .map(response -> {
+                    sample.stop(summaryChunkTimer("success"));
+                    return List.<SubscriptionsSummary>of();
+                })
+                .onErrorResume(ex -> {
+                    sample.stop(summaryChunkTimer("failure"));
+                    log.error(writeLog(
+                        String.format("Subscription email failed to send with error: %s, for %s recipients",
+                                      ex.getMessage(), chunk.size())
+                    ));
+                    return Mono.just(chunk);
+                });
+        });
+    }
+
+    private Mono<ResponseEntity<Void>> sendSubscriptionSummaryChunk(UUID artefactId,
+                                                                    List<SubscriptionsSummary> chunk) {
+        BulkSubscriptionsSummary payload = new BulkSubscriptionsSummary();
+        payload.setArtefactId(artefactId);
+        payload.setSubscriptionEmails(new ArrayList<>(chunk));
+        summaryChunkSizeMetric.record(chunk.size());
+
+        return webClient.post().uri(url + "/" + NOTIFY_SUBSCRIPTION_PATH)
+            .attributes(clientRegistrationId(PUBLICATION_SERVICE_API))
+            .body(BodyInserters.fromValue(payload)).retrieve()
+            .toBodilessEntity()
+            .retryWhen(summaryRetry);
+    }
+
+    private Timer summaryChunkTimer(String outcome) {
+        return Timer.builder(SUMMARY_CHUNK_METRIC)
+            .description("Time taken to send each subscription summary chunk, including retries")
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry);
+    }
+
+    private static boolean isRetryable(Throwable throwable) {
+        return throwable instanceof WebClientRequestException
+            || throwable instanceof WebClientResponseException ex && ex.getStatusCode().is5xxServerError();
     }
 
-    public void sendThirdPartyList(ThirdPartySubscription subscriptions) {
+    public boolean sendThirdPartyList(ThirdPartySubscription subscriptions) {
         try {
             webClient.post().uri(url + "/" + NOTIFY_API_PATH)
                 .attributes(clientRegistrationId(PUBLICATION_SERVICE_API))
                 .bodyValue(subscriptions).retrieve()
                 .bodyToMono(Void.class)
                 .block();
+            return true;
         } catch (WebClientResponseException ex) {
             log.error(writeLog(
                 String.format("Publication to third party failed to send with error: %s",
                               ex.getResponseBodyAsString())
             ));
+            return false;
         }
     }
 
-    public void sendEmptyArtefact(ThirdPartySubscriptionArtefact subscriptionArtefact) {
+    public boolean sendEmptyArtefact(ThirdPartySubscriptionArtefact subscriptionArtefact) {
         try {
             webClient.put().uri(url + "/" + NOTIFY_API_PATH)
                 .attributes(clientRegistrationId(PUBLICATION_SERVICE_API))
                 .bodyValue(subscriptionArtefact).retrieve()
                 .bodyToMono(Void.class)
                 .block();
+            return true;
         } catch (WebClientResponseException ex) {
             log.error(writeLog(
                 String.format("Deleted artefact notification to third party failed to send with error: %s",
                               ex.getResponseBodyAsString())
             ));
+            return false;
         }
     }
 
@@ -142,8 +246,8 @@ public class PublicationServicesService {
      * @param subscriptions A map containing each email which matches the criteria, alongside the subscriptions.
      * @return A subscriptions summary model
      */
-    private BulkSubscriptionsSummary formatSubscriptionsSummary(UUID artefactId,
-                                                            Map<String, List<Subscription>> subscriptions) {
+    private BulkSubscriptionsSummary formatSubscriptionsSummary(
+        UUID artefactId, Map<String, List<SubscriptionRecipient>> subscriptions) {
 
         BulkSubscriptionsSummary bulkSubscriptionsSummary = new BulkSubscriptionsSummary();
         bulkSubscriptionsSummary.setArtefactId(artefactId);
@@ -151,12 +255,12 @@ public class PublicationServicesService {
         subscriptions.forEach((email, listOfSubscriptions) -> {
             SubscriptionsSummaryDetails subscriptionsSummaryDetails = new SubscriptionsSummaryDetails();
             listOfSubscriptions.forEach(subscription -> {
-                switch (subscription.getSearchType()) {
-                    case CASE_URN -> subscriptionsSummaryDetails.addToCaseUrn(subscription.getSearchValue());
-                    case CASE_ID -> subscriptionsSummaryDetails.addToCaseNumber(subscription.getSearchValue());
-                    case LOCATION_ID -> subscriptionsSummaryDetails.addToLocationId(subscription.getSearchValue());
+                switch (subscription.searchType()) {
+                    case CASE_URN -> subscriptionsSummaryDetails.addToCaseUrn(subscription.searchValue());
+                    case CASE_ID -> subscriptionsSummaryDetails.addToCaseNumber(subscription.searchValue());
+                    case LOCATION_ID -> subscriptionsSummaryDetails.addToLocationId(subscription.searchValue());
                     default -> log.error(writeLog(
-                        String.format("Search type was not one of allowed options: %s", subscription.getSearchType())
+                        String.format("Search type was not one of allowed options: %s", subscription.searchType())
                     ));
                 }
             });
@@ -3,9 +3,10 @@ package uk.gov.hmcts.reform.pip.subscription.management.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.subscription.Channel;
 import uk.gov.hmcts.reform.pip.subscription.management.config.ThirdPartyApiConfigurationProperties;
-import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -35,22 +36,24 @@ public class SubscriptionChannelService {
      * request to the account management microservice to match user ids to emails, then pruning and logging those
      * with no attached email, then building the final map of individual user emails to relevant subscription objects.
      * The deduplication occurs before sending the request to account management for emails to prevent wasteful API use.
-     * @param listOfSubs - a list of subscription objects associated with a publication
+     * The request to account management does not block.
+     * @param listOfSubs - a list of subscription recipients associated with a publication
      * @return A map of user emails to list of subscriptions
      */
-    public Map<String, List<Subscription>> buildEmailSubscriptions(List<Subscription> listOfSubs) {
-        Map<String, List<Subscription>> mappedSubscriptions =
+    public Mono<Map<String, List<SubscriptionRecipient>>> buildEmailSubscriptions(
+        List<SubscriptionRecipient> listOfSubs) {
+        Map<String, List<SubscriptionRecipient>> mappedSubscriptions =
             deduplicateSubscriptions(listOfSubs);
 
         List<String> userIds = new ArrayList<>(mappedSubscriptions.keySet());
 
-        Map<String, Optional<String>> mapOfUsersAndEmails = accountManagementService.getMappedEmails(userIds);
-
-        if (mapOfUsersAndEmails.values().stream().allMatch(Optional::isEmpty)) {
-            log.error(writeLog("No email channel found for any of the users provided"));
-            return Collections.emptyMap();
-        }
-        return userIdToUserEmailSwitcher(mappedSubscriptions, mapOfUsersAndEmails);
+        return accountManagementService.findMappedEmails(userIds).map(mapOfUsersAndEmails -> {
+            if (mapOfUsersAndEmails.values().stream().allMatch(Optional::isEmpty)) {
+                log.error(writeLog("No email channel found for any of the users provided"));
+                return Collections.emptyMap();
+            }
+            return userIdToUserEmailSwitcher(mappedSubscriptions, mapOfUsersAndEmails);
+        });
     }
 
     /**
@@ -58,7 +61,7 @@ public class SubscriptionChannelService {
      * @param subscriptions list of subscriptions to be trimmed of duplications and associated with an api.
      * @return Map of Url to list of subscriptions.
      */
-    public Map<String, List<Subscription>> buildApiSubscriptions(List<Subscription> subscriptions) {
+    public Map<String, List<SubscriptionRecipient>> buildApiSubscriptions(List<SubscriptionRecipient> subscriptions) {
         return userIdToApiValueSwitcher(deduplicateSubscriptions(subscriptions));
     }
 
@@ -67,15 +70,15 @@ public class SubscriptionChannelService {
      * with associated subscriptions for each.
      * @param listOfSubs - a list of subscriptions for a given object.
      */
-    Map<String, List<Subscription>> deduplicateSubscriptions(List<Subscription> listOfSubs) {
-        Map<String, List<Subscription>> mapOfSubscriptions = new ConcurrentHashMap<>();
+    Map<String, List<SubscriptionRecipient>> deduplicateSubscriptions(List<SubscriptionRecipient> listOfSubs) {
+        Map<String, List<SubscriptionRecipient>> mapOfSubscriptions = new ConcurrentHashMap<>();
         listOfSubs.forEach(subscription -> {
-            List<Subscription> currentList = new ArrayList<>();
-            if (mapOfSubscriptions.get(subscription.getUserId()) != null) {
-                currentList = mapOfSubscriptions.get(subscription.getUserId());
+            List<SubscriptionRecipient> currentList = new ArrayList<>();
+            if (mapOfSubscriptions.get(subscription.userId()) != null) {
+                currentList = mapOfSubscriptions.get(subscription.userId());
             }
             currentList.add(subscription);
-            mapOfSubscriptions.put(subscription.getUserId(), currentList);
+            mapOfSubscriptions.put(subscription.userId(), currentList);
         });
         return mapOfSubscriptions;
     }
@@ -88,9 +91,9 @@ public class SubscriptionChannelService {
      *                     management.)
      * @return Map of email addresses to subscription objects.
      */
-    Map<String, List<Subscription>> userIdToUserEmailSwitcher(Map<String, List<Subscription>> userIdMap,
-                                                                     Map<String, Optional<String>> userEmailMap) {
-        Map<String, List<Subscription>> cloneMap = new ConcurrentHashMap<>(userIdMap);
+    Map<String, List<SubscriptionRecipient>> userIdToUserEmailSwitcher(
+        Map<String, List<SubscriptionRecipient>> userIdMap, Map<String, Optional<String>> userEmailMap) {
+        Map<String, List<SubscriptionRecipient>> cloneMap = new ConcurrentHashMap<>(userIdMap);
 
         cloneMap.forEach((userId, subscriptions) -> {
 
@@ -110,15 +113,16 @@ public class SubscriptionChannelService {
      * @param subscriptions Map of user id's to list of subscriptions.
      * @return Map of URL's to list of subscriptions.
      */
-    private Map<String, List<Subscription>> userIdToApiValueSwitcher(Map<String, List<Subscription>> subscriptions) {
+    private Map<String, List<SubscriptionRecipient>> userIdToApiValueSwitcher(
+        Map<String, List<SubscriptionRecipient>> subscriptions) {
         AtomicBoolean invalidChannel = new AtomicBoolean(false);
-        Map<String, List<Subscription>> switchedMap = new ConcurrentHashMap<>();
+        Map<String, List<SubscriptionRecipient>> switchedMap = new ConcurrentHashMap<>();
         subscriptions.forEach((recipient, subscriptionList)  -> {
-            if (Channel.API_COURTEL.equals(subscriptionList.get(0).getChannel())) {
+            if (Channel.API_COURTEL.equals(subscriptionList.get(0).channel())) {
                 switchedMap.put(thirdPartyApi.getCourtel(), subscriptionList);
             } else {
                 log.error(writeLog("Invalid channel for API subscriptions: "
-                                       + subscriptionList.get(0).getChannel()));
+                                       + subscriptionList.get(0).channel()));
                 invalidChannel.set(true);
             }
         });
@@ -0,0 +1,315 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.DeletionJobClaimedException;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.DeletionJobNotFoundException;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobState;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.LocationSubscriptionsDeletedEvent;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.DeletionJobRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionListTypeRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.LOCATION_ID;
+
+/**
+ * Runs bulk deletions of subscriptions as background jobs, so a large deletion does not hold up the caller.
+ *
+ * <p>Subscriptions are deleted a chunk at a time, each chunk in its own transaction, so no transaction holds locks on
+ * every subscription being deleted or writes a large amount of WAL at once. The job is held in the database and its
+ * progress is updated with each chunk. A job runs on the instance which accepted it.
+ *
+ * <p>A job which stops recording progress, for example because the instance running it was stopped, is resumed by
+ * whichever instance next checks for stale jobs. Deleting the remaining subscriptions is safe to repeat, as each chunk
+ * only deletes subscriptions which still exist. Each run of a job owns it until the job is resumed by another run, and
+ * progress and completion are only recorded while the run still owns the job, so a run which was only slow cannot
+ * overwrite the progress of the run which resumed it. The subscribers of each deleted chunk are recorded with the
+ * progress of the job, so they are all notified by whichever run completes it.
+ */
+@Slf4j
+@Service
+public class SubscriptionDeletionJobService {
+
+    private final DeletionJobRepository deletionJobRepository;
+
+    private final SubscriptionRepository repository;
+
+    private final SubscriptionListTypeRepository subscriptionListTypeRepository;
+
+    private final SubscriptionIndexService subscriptionIndexService;
+
+    private final ViewRefreshSchedulerService viewRefreshSchedulerService;
+
+    private final AccountManagementService accountManagementService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor taskExecutor;
+
+    private final int chunkSize;
+
+    private final Duration staleAfter;
+
+    @Autowired
+    public SubscriptionDeletionJobService(
+        DeletionJobRepository deletionJobRepository,
+        SubscriptionRepository repository,
+        SubscriptionListTypeRepository subscriptionListTypeRepository,
+        SubscriptionIndexService subscriptionIndexService,
+        ViewRefreshSchedulerService viewRefreshSchedulerService,
+        AccountManagementService accountManagementService,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+        @Value("${subscriptionDeletionJobs.chunkSize}") int chunkSize,
+        @Value("${subscriptionDeletionJobs.staleAfterMs}") long staleAfterMs
+    ) {
+        this.deletionJobRepository = deletionJobRepository;
+        this.repository = repository;
+        this.subscriptionListTypeRepository = subscriptionListTypeRepository;
+        this.subscriptionIndexService = subscriptionIndexService;
+        this.viewRefreshSchedulerService = viewRefreshSchedulerService;
+        this.accountManagementService = accountManagementService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+    }
+
+    /**
+     * Start a background job to delete all the subscriptions for a location. The subscribers and system admins are
+     * notified once the job has completed.
+     *
+     * @param locationId The ID of the location to delete the subscriptions for.
+     * @param actioningUserId The ID of the user deleting the subscriptions.
+     * @return The job, which has not necessarily started yet.
+     */
+    public DeletionJob submitLocationDeletion(String locationId, String actioningUserId) {
+        return submit(DeletionJobType.LOCATION, locationId, actioningUserId);
+    }
+
+    /**
+     * Start a background job to delete all the subscriptions, and the list type configuration, of a user.
+     *
+     * @param userId The ID of the user to delete the subscriptions for.
+     * @param actioningUserId The ID of the user deleting the subscriptions, if known.
+     * @return The job, which has not necessarily started yet.
+     */
+    public DeletionJob submitUserDeletion(String userId, String actioningUserId) {
+        return submit(DeletionJobType.USER, userId, actioningUserId);
+    }
+
+    /**
+     * Start a background job to delete all the subscriptions for locations with a name starting with a prefix.
+     *
+     * @param prefix The location name prefix.
+     * @return The job, which has not necessarily started yet.
+     */
+    public DeletionJob submitLocationNamePrefixDeletion(String prefix) {
+        return submit(DeletionJobType.LOCATION_NAME_PREFIX, prefix, null);
+    }
+
+    /**
+     * Find a deletion job, to report its progress.
+     *
+     * @param jobId The ID of the job.
+     * @return The job.
+     * @throws DeletionJobNotFoundException if there is no job with the ID.
+     */
+    public DeletionJob findJob(UUID jobId) {
+        return deletionJobRepository.findById(jobId).orElseThrow(() -> new DeletionJobNotFoundException(
+            String.format("No deletion job found with the id %s", jobId)));
+    }
+
+    /**
+     * Resume the jobs which have stopped recording progress, which is checked on a fixed schedule and so also picks
+     * up the jobs left behind when an instance was stopped.
+     */
+    @Scheduled(initialDelayString = "${subscriptionDeletionJobs.recoveryIntervalMs}",
+        fixedDelayString = "${subscriptionDeletionJobs.recoveryIntervalMs}")
+    public void resumeStaleJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID owner = UUID.randomUUID();
+        for (UUID jobId : deletionJobRepository.claimStaleJobs(now, now.minus(staleAfter), owner)) {
+            log.info(writeLog(String.format("Resuming deletion job %s, which stopped recording progress", jobId)));
+            try {
+                taskExecutor.execute(() -> runJob(jobId, owner));
+            } catch (TaskRejectedException e) {
+                log.warn(writeLog(String.format("Deletion job %s could not be resumed and will be retried: %s",
+                                                jobId, e.getMessage())));
+            }
+        }
+    }
+
+    private DeletionJob submit(DeletionJobType jobType, String target, String actioningUserId) {
+        DeletionJob job = deletionJobRepository.save(new DeletionJob(jobType, target, actioningUserId));
+        log.info(writeLog(String.format("Deletion job %s submitted to delete %s subscriptions for %s",
+                                        job.getId(), jobType, target)));
+        try {
+            taskExecutor.execute(() -> runJob(job.getId(), job.getOwner()));
+        } catch (TaskRejectedException e) {
+            completeJob(job, DeletionJobState.FAILED, e.getMessage());
+            throw e;
+        }
+        return job;
+    }
+
+    private void runJob(UUID jobId, UUID owner) {
+        DeletionJob job = findJob(jobId);
+        try {
+            if (!owner.equals(job.getOwner())) {
+                throw new DeletionJobClaimedException(jobClaimedMessage(job));
+            }
+
+            // A resumed job has already deleted some of its subscriptions
+            int totalCount = Math.toIntExact(job.getDeletedCount() + countSubscriptions(job));
+            LocalDateTime now = LocalDateTime.now();
+            if (deletionJobRepository.startJob(job.getId(), owner, totalCount, now) == 0) {
+                throw new DeletionJobClaimedException(jobClaimedMessage(job));
+            }
+            if (job.getStartedDate() == null) {
+                job.setStartedDate(now);
+            }
+            job.setState(DeletionJobState.IN_PROGRESS);
+            job.setHeartbeatDate(now);
+            job.setTotalCount(totalCount);
+
+            switch (job.getJobType()) {
+                case LOCATION -> deleteLocationSubscriptions(job);
+                case USER -> deleteUserSubscriptions(job);
+                default -> deleteLocationNamePrefixSubscriptions(job);
+            }
+            if (!completeJob(job, DeletionJobState.COMPLETED, null)) {
+                throw new DeletionJobClaimedException(jobClaimedMessage(job));
+            }
+            log.info(writeLog(String.format("Deletion job %s deleted %s subscription(s)", job.getId(),
+                                            job.getDeletedCount())));
+
+            if (job.getJobType() == DeletionJobType.LOCATION && !job.getSubscriberUserIds().isEmpty()) {
+                eventPublisher.publishEvent(new LocationSubscriptionsDeletedEvent(
+                    job.getTarget(), job.getActioningUserId(), job.getSubscriberUserIds()));
+            }
+        } catch (DeletionJobClaimedException e) {
+            log.info(writeLog(e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error(writeLog(String.format("Deletion job %s failed: %s", job.getId(), e.getMessage())));
+            completeJob(job, DeletionJobState.FAILED, e.getMessage());
+        }
+    }
+
+    private static String jobClaimedMessage(DeletionJob job) {
+        return String.format("Deletion job %s has been claimed by another run, so this run has stopped", job.getId());
+    }
+
+    private long countSubscriptions(DeletionJob job) {
+        return switch (job.getJobType()) {
+            case LOCATION -> repository.countBySearchTypeAndSearchValue(LOCATION_ID, job.getTarget());
+            case USER -> repository.countByUserId(job.getTarget());
+            case LOCATION_NAME_PREFIX -> repository.countByLocationNameStartingWithIgnoreCase(job.getTarget());
+        };
+    }
+
+    private void deleteLocationSubscriptions(DeletionJob job) {
+        deleteInChunks(job, limit -> repository.findBySearchTypeAndSearchValue(LOCATION_ID, job.getTarget(), limit),
+                       chunk -> {
+                           String[] userIds = chunk.stream().map(Subscription::getUserId).distinct()
+                               .toArray(String[]::new);
+                           subscriptionListTypeRepository.deleteOrphanedByUserIdIn(userIds)
+                               .forEach(subscriptionIndexService::listTypeDeleted);
+                           return chunk.stream().map(Subscription::getUserId).toList();
+                       });
+    }
+
+    private void deleteUserSubscriptions(DeletionJob job) {
+        String userId = job.getTarget();
+        deleteInChunks(job, limit -> repository.findByUserId(userId, limit), chunk -> List.of());
+
+        subscriptionListTypeRepository.deleteByUserId(userId);
+        subscriptionIndexService.userSubscriptionsDeleted(userId);
+        accountManagementService.evictUserAuthorisation(userId);
+    }
+
+    private void deleteLocationNamePrefixSubscriptions(DeletionJob job) {
+        deleteInChunks(job, limit -> repository.findByLocationNameStartingWithIgnoreCase(job.getTarget(), limit),
+                       chunk -> List.of());
+    }
+
+    /**
+     * Delete the subscriptions found by the given query a chunk at a time, until there are none left. Each chunk is
+     * deleted in its own transaction, along with any further work for the chunk and the progress of the job. The
+     * chunk is rolled back if the job has been claimed by another run.
+     *
+     * @param findChunk Finds the next chunk of subscriptions to delete.
+     * @param afterChunkDeleted Does any further work for a deleted chunk, and returns the IDs of the users to notify.
+     */
+    private void deleteInChunks(DeletionJob job, Function<Limit, List<Subscription>> findChunk,
+                                Function<List<Subscription>, List<String>> afterChunkDeleted) {
+        int deleted;
+        do {
+            List<String> subscriberUserIds = new ArrayList<>();
+            Integer chunkDeleted = transactionTemplate.execute(status -> {
+                List<Subscription> chunk = findChunk.apply(Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    return 0;
+                }
+
+                List<UUID> ids = chunk.stream().map(Subscription::getId).toList();
+                repository.deleteByIdIn(ids);
+                subscriptionIndexService.subscriptionsDeleted(ids);
+                subscriberUserIds.addAll(afterChunkDeleted.apply(chunk));
+                if (deletionJobRepository.addDeletedCount(job.getId(), job.getOwner(), ids.size(),
+                                                          subscriberUserIds.toArray(String[]::new),
+                                                          LocalDateTime.now()) == 0) {
+                    throw new DeletionJobClaimedException(jobClaimedMessage(job));
+                }
+                return ids.size();
+            });
+            deleted = chunkDeleted == null ? 0 : chunkDeleted;
+            if (deleted > 0) {
+                job.setDeletedCount(job.getDeletedCount() + deleted);
+                job.getSubscriberUserIds().addAll(subscriberUserIds);
+                viewRefreshSchedulerService.recordWrites(deleted);
+            }
+        } while (deleted > 0);
+    }
+
+    /**
+     * Record the outcome of a job, if it is still owned by the run finishing it.
+     *
+     * @return true if the outcome was recorded, or false if the job has been claimed by another run.
+     */
+    private boolean completeJob(DeletionJob job, DeletionJobState state, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        if (deletionJobRepository.completeJob(job.getId(), job.getOwner(), state.name(), reason, now) == 0) {
+            return false;
+        }
+        job.setState(state);
+        job.setCompletedDate(now);
+        job.setReason(reason);
+        return true;
+    }
+}
@@ -0,0 +1,307 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ListTypeIndexEntry;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionIndexEntry;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionListTypeRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_ID;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_URN;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.LIST_TYPE;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.LOCATION_ID;
+
+/**
+ * In-memory inverted index of subscriptions keyed by search type and search value, used to resolve the recipients
+ * of an artefact without querying the database. Only the recipient of each subscription is held, not the entity.
+ *
+ * <p>The index is built from the database when the application starts and kept current by the subscription write
+ * paths in this service instance. Writes made by other instances are only picked up by a periodic rebuild, so the
+ * index is disabled by default and should only be enabled where a single instance writes subscriptions, or where
+ * recipients may be stale for up to the rebuild interval. Until the first build completes the index reports itself
+ * as not ready, and callers fall back to the database.
+ *
+ * <p>A rebuild loads a new index from a single database snapshot without holding the write lock, and then swaps it
+ * in. Writes applied while it loads are replayed onto the new index before the swap, so none are lost.
+ */
+@Slf4j
+@Service
+public class SubscriptionIndexService {
+
+    private final SubscriptionRepository repository;
+
+    private final SubscriptionListTypeRepository subscriptionListTypeRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile IndexState state;
+
+    /**
+     * The writes applied while a rebuild is loading, which are replayed onto the new index. Null when no rebuild is
+     * in progress. Guarded by the write lock.
+     */
+    private List<IndexUpdate> updatesDuringRebuild;
+
+    @Autowired
+    public SubscriptionIndexService(SubscriptionRepository repository,
+                                    SubscriptionListTypeRepository subscriptionListTypeRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${subscriptionIndex.enabled}") boolean enabled) {
+        this.repository = repository;
+        this.subscriptionListTypeRepository = subscriptionListTypeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the index has been built and can be used in place of the database.
+     * @return true if the index is ready to serve lookups.
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    /**
+     * Build the index on startup, and rebuild it periodically so that writes made by other instances of the
+     * service are picked up. The subscriptions and list types are read in one repeatable read transaction, so both
+     * come from the same snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${subscriptionIndex.rebuildIntervalMs}",
+        fixedDelayString = "${subscriptionIndex.rebuildIntervalMs}")
+    public void rebuildIndex() {
+        if (!enabled) {
+            return;
+        }
+
+        List<IndexUpdate> pendingUpdates = new ArrayList<>();
+        withWriteLock(() -> updatesDuringRebuild = pendingUpdates);
+        try {
+            IndexState newState = transactionTemplate.execute(status -> {
+                IndexState loadedState = new IndexState();
+                repository.findAllIndexEntries().forEach(loadedState::addSubscription);
+                subscriptionListTypeRepository.findAllIndexEntries().forEach(loadedState::addListType);
+                return loadedState;
+            });
+
+            withWriteLock(() -> {
+                pendingUpdates.forEach(update -> update.apply(newState));
+                state = newState;
+            });
+            log.info(writeLog(String.format("Subscription index built with %s subscription(s)",
+                                            newState.subscriptionsById.size())));
+        } finally {
+            withWriteLock(() -> updatesDuringRebuild = null);
+        }
+    }
+
+    /**
+     * Find every subscription which should be notified about an artefact. This mirrors the matching rules of
+     * {@link SubscriptionRepository#findSubscriptionRecipientsForArtefact}.
+     *
+     * @param locationId The location ID of the artefact.
+     * @param listType The list type of the artefact.
+     * @param listLanguage The language of the artefact.
+     * @param caseNumbers All case numbers found in the artefact search block.
+     * @param caseUrns All case URNs found in the artefact search block.
+     * @return The recipients of the matching subscriptions.
+     */
+    public List<SubscriptionRecipient> findSubscriptionsForArtefact(String locationId, String listType,
+                                                                    String listLanguage,
+                                                                    Collection<String> caseNumbers,
+                                                                    Collection<String> caseUrns) {
+        IndexState current = state;
+        List<SubscriptionRecipient> subscriptions = new ArrayList<>();
+
+        current.findByKey(LOCATION_ID, locationId).stream()
+            .filter(subscription -> current.matchesListType(subscription.userId(), listType, listLanguage))
+            .forEach(subscriptions::add);
+
+        subscriptions.addAll(current.findByKey(LIST_TYPE, listType));
+        caseNumbers.forEach(caseNumber -> subscriptions.addAll(current.findByKey(CASE_ID, caseNumber)));
+        caseUrns.forEach(caseUrn -> subscriptions.addAll(current.findByKey(CASE_URN, caseUrn)));
+        return subscriptions;
+    }
+
+    /**
+     * Find the subscriptions held against a single search type and value.
+     *
+     * @param searchType The search type of the subscription.
+     * @param searchValue The search value of the subscription.
+     * @return The recipients of the matching subscriptions.
+     */
+    public List<SubscriptionRecipient> findSubscriptionsBySearchValue(SearchType searchType, String searchValue) {
+        return state.findByKey(searchType, searchValue);
+    }
+
+    public void subscriptionSaved(Subscription subscription) {
+        SubscriptionIndexEntry entry = SubscriptionIndexEntry.of(subscription);
+        applyAfterCommit(current -> current.addSubscription(entry));
+    }
+
+    public void subscriptionsDeleted(Collection<UUID> subscriptionIds) {
+        List<UUID> ids = List.copyOf(subscriptionIds);
+        applyAfterCommit(current -> ids.forEach(current::removeSubscription));
+    }
+
+    public void userSubscriptionsDeleted(String userId) {
+        applyAfterCommit(current -> {
+            current.removeSubscriptionsForUser(userId);
+            current.listTypesByUser.remove(userId);
+        });
+    }
+
+    public void listTypeSaved(SubscriptionListType subscriptionListType) {
+        ListTypeIndexEntry entry = ListTypeIndexEntry.of(subscriptionListType);
+        applyAfterCommit(current -> current.addListType(entry));
+    }
+
+    public void listTypeDeleted(String userId) {
+        applyAfterCommit(current -> current.listTypesByUser.remove(userId));
+    }
+
+    /**
+     * Apply a change to the index once the surrounding transaction (if any) has committed, so that rolled back
+     * writes are never visible in the index.
+     */
+    private void applyAfterCommit(IndexUpdate update) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    private void apply(IndexUpdate update) {
+        withWriteLock(() -> {
+            if (state != null) {
+                update.apply(state);
+            }
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void apply(IndexState state);
+    }
+
+    private record IndexKey(SearchType searchType, String searchValue) {
+    }
+
+    private static final class IndexState {
+        private final Map<UUID, SubscriptionRecipient> subscriptionsById = new ConcurrentHashMap<>();
+        private final Map<IndexKey, Map<UUID, SubscriptionRecipient>> subscriptionsByKey = new ConcurrentHashMap<>();
+        private final Map<String, ListTypeIndexEntry> listTypesByUser = new ConcurrentHashMap<>();
+
+        List<SubscriptionRecipient> findByKey(SearchType searchType, String searchValue) {
+            Map<UUID, SubscriptionRecipient> subscriptions =
+                subscriptionsByKey.get(new IndexKey(searchType, searchValue));
+            return subscriptions == null ? List.of() : List.copyOf(subscriptions.values());
+        }
+
+        /**
+         * Location subscriptions only match if the user has list type configuration, the configured list types are
+         * either empty or include the artefact list type, and the configured languages include the artefact language.
+         */
+        boolean matchesListType(String userId, String listType, String listLanguage) {
+            ListTypeIndexEntry subscriptionListType = listTypesByUser.get(userId);
+            if (subscriptionListType == null || subscriptionListType.listLanguage() == null) {
+                return false;
+            }
+
+            List<String> listTypes = subscriptionListType.listType();
+            return (listTypes == null || listTypes.isEmpty() || listTypes.contains(listType))
+                && subscriptionListType.listLanguage().contains(listLanguage);
+        }
+
+        void addSubscription(SubscriptionIndexEntry subscription) {
+            SubscriptionRecipient recipient = subscription.recipient();
+            removeSubscription(subscription.id());
+            subscriptionsById.put(subscription.id(), recipient);
+            subscriptionsByKey
+                .computeIfAbsent(keyOf(recipient), key -> new ConcurrentHashMap<>())
+                .put(subscription.id(), recipient);
+        }
+
+        void removeSubscription(UUID subscriptionId) {
+            SubscriptionRecipient removed = subscriptionsById.remove(subscriptionId);
+            if (removed != null) {
+                IndexKey key = keyOf(removed);
+                Map<UUID, SubscriptionRecipient> subscriptions = subscriptionsByKey.get(key);
+                if (subscriptions != null) {
+                    subscriptions.remove(subscriptionId);
+                    if (subscriptions.isEmpty()) {
+                        subscriptionsByKey.remove(key);
+                    }
+                }
+            }
+        }
+
+        void removeSubscriptionsForUser(String userId) {
+            subscriptionsById.entrySet().stream()
+                .filter(entry -> userId.equals(entry.getValue().userId()))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::removeSubscription);
+        }
+
+        void addListType(ListTypeIndexEntry subscriptionListType) {
+            listTypesByUser.put(subscriptionListType.userId(), subscriptionListType);
+        }
+
+        private static IndexKey keyOf(SubscriptionRecipient subscription) {
+            return new IndexKey(subscription.searchType(), subscription.searchValue());
+        }
+    }
+}
@@ -1,29 +1,22 @@
 package uk.gov.hmcts.reform.pip.subscription.management.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import uk.gov.hmcts.reform.pip.model.account.PiUser;
-import uk.gov.hmcts.reform.pip.model.system.admin.ActionResult;
+import org.springframework.transaction.annotation.Transactional;
 import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.SubscriptionNotFoundException;
+import uk.gov.hmcts.reform.pip.subscription.management.models.LocationSubscriptionsDeletedEvent;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionListTypeRepository;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
-import static uk.gov.hmcts.reform.pip.model.account.Roles.SYSTEM_ADMIN;
-import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.PI_AAD;
-import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.SSO;
 
 
 @Slf4j
@@ -34,25 +27,25 @@ public class SubscriptionLocationService {
 
     private final SubscriptionListTypeRepository subscriptionListTypeRepository;
 
-    private final DataManagementService dataManagementService;
+    private final SubscriptionIndexService subscriptionIndexService;
 
-    private final AccountManagementService accountManagementService;
+    private final ViewRefreshSchedulerService viewRefreshSchedulerService;
 
-    private final PublicationServicesService publicationServicesService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public SubscriptionLocationService(
         SubscriptionRepository repository,
-        DataManagementService dataManagementService,
-        AccountManagementService accountManagementService,
-        PublicationServicesService publicationServicesService,
-        SubscriptionListTypeRepository subscriptionListTypeRepository
+        SubscriptionListTypeRepository subscriptionListTypeRepository,
+        SubscriptionIndexService subscriptionIndexService,
+        ViewRefreshSchedulerService viewRefreshSchedulerService,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.repository = repository;
-        this.dataManagementService = dataManagementService;
-        this.accountManagementService = accountManagementService;
-        this.publicationServicesService = publicationServicesService;
         this.subscriptionListTypeRepository = subscriptionListTypeRepository;
+        this.subscriptionIndexService = subscriptionIndexService;
+        this.viewRefreshSchedulerService = viewRefreshSchedulerService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Subscription> findSubscriptionsByLocationId(String value) {
@@ -66,8 +59,17 @@ public class SubscriptionLocationService {
         return locationSubscriptions;
     }
 
-    public String deleteSubscriptionByLocation(String locationId, String userId)
-        throws JsonProcessingException {
+    /**
+     * Delete all the subscriptions for a location. The subscribers and system admins are notified by
+     * {@link LocationDeletionNotificationService} once the deletion has committed, so the transaction only covers the
+     * database work.
+     *
+     * @param locationId The ID of the location to delete the subscriptions for.
+     * @param userId The ID of the user deleting the subscriptions.
+     * @return A confirmation message.
+     */
+    @Transactional
+    public String deleteSubscriptionByLocation(String locationId, String userId) {
 
         log.info(writeLog(String.format("User %s attempting to delete all subscriptions for location %s",
                                         userId, locationId)));
@@ -76,6 +78,8 @@ public class SubscriptionLocationService {
         List<UUID> subIds = locationSubscriptions.stream()
             .map(Subscription::getId).toList();
         repository.deleteByIdIn(subIds);
+        subscriptionIndexService.subscriptionsDeleted(subIds);
+        viewRefreshSchedulerService.recordWrites(subIds.size());
 
         //DELETE DATA FROM SUBSCRIPTION LIST TYPE TABLE AS WELL.
         this.deleteAllSubscriptionListTypeForLocation(locationSubscriptions);
@@ -83,25 +87,20 @@ public class SubscriptionLocationService {
         log.info(writeLog(String.format("%s subscription(s) have been deleted for location %s by user %s",
                                         subIds.size(), locationId, userId)));
 
-        String locationName = dataManagementService.getCourtName(locationId);
-        notifySubscriberAboutSubscriptionDeletion(locationSubscriptions, locationName);
-        notifySystemAdminAboutSubscriptionDeletion(userId,
-            String.format("Total %s subscription(s) for location %s",
-                          locationSubscriptions.size(), locationName));
+        eventPublisher.publishEvent(new LocationSubscriptionsDeletedEvent(
+            locationId, userId, locationSubscriptions.stream().map(Subscription::getUserId).toList()));
 
         return String.format("Total %s subscriptions deleted for location id %s", subIds.size(), locationId);
 
     }
 
     private void deleteAllSubscriptionListTypeForLocation(List<Subscription> locationSubscriptions) {
-        List<String> uniqueUsers = locationSubscriptions.stream()
-            .map(Subscription::getUserId).distinct().toList();
+        String[] uniqueUsers = locationSubscriptions.stream()
+            .map(Subscription::getUserId).distinct().toArray(String[]::new);
 
-        if (!uniqueUsers.isEmpty()) {
-
-            for (String userId : uniqueUsers) {
-                this.deleteSubscriptionListTypeByUser(userId);
-            }
+        if (uniqueUsers.length > 0) {
+            subscriptionListTypeRepository.deleteOrphanedByUserIdIn(uniqueUsers)
+                .forEach(subscriptionIndexService::listTypeDeleted);
         }
     }
 
@@ -112,7 +111,10 @@ public class SubscriptionLocationService {
         if (userLocationSubscriptions.isEmpty()) {
             Optional<SubscriptionListType> subscriptionListType =
                 subscriptionListTypeRepository.findByUserId(userId);
-            subscriptionListType.ifPresent(subscriptionListTypeRepository::delete);
+            subscriptionListType.ifPresent(listType -> {
+                subscriptionListTypeRepository.delete(listType);
+                subscriptionIndexService.listTypeDeleted(userId);
+            });
         }
     }
 
@@ -123,50 +125,10 @@ public class SubscriptionLocationService {
 
         if (!subscriptionIds.isEmpty()) {
             repository.deleteByIdIn(subscriptionIds);
+            subscriptionIndexService.subscriptionsDeleted(subscriptionIds);
+            viewRefreshSchedulerService.recordWrites(subscriptionIds.size());
         }
         return String.format("%s subscription(s) deleted for location name starting with %s",
                              subscriptionIds.size(), prefix);
     }
-
-    private void notifySubscriberAboutSubscriptionDeletion(List<Subscription> locationSubscriptions,
-                                                           String locationName) {
-        List<String> userEmails = getUserEmailsForAllSubscriptions(locationSubscriptions);
-        publicationServicesService.sendLocationDeletionSubscriptionEmail(userEmails, locationName);
-    }
-
-    private void notifySystemAdminAboutSubscriptionDeletion(String userId, String additionalDetails)
-        throws JsonProcessingException {
-        Optional<PiUser> piUserOptional = accountManagementService.getUserByUserId(userId);
-        if (piUserOptional.isPresent()) {
-            PiUser piUser = piUserOptional.get();
-            List<PiUser> systemAdminsAad = accountManagementService.getAllAccounts(PI_AAD.toString(),
-                                                                                   SYSTEM_ADMIN.toString());
-            List<PiUser> systemAdminsSso = accountManagementService
-                .getAllAccounts(SSO.toString(), SYSTEM_ADMIN.toString());
-
-            List<PiUser> systemAdmins = Stream.concat(systemAdminsAad.stream(), systemAdminsSso.stream()).toList();
-            List<String> systemAdminEmails = systemAdmins.stream().map(PiUser::getEmail).toList();
-            publicationServicesService.sendSystemAdminEmail(systemAdminEmails, piUser.getEmail(),
-                                                            ActionResult.SUCCEEDED, additionalDetails);
-        } else {
-            log.error(writeLog(String.format("User %s not found in the system when notifying system admins", userId)));
-        }
-    }
-
-    private List<String> getUserEmailsForAllSubscriptions(List<Subscription> subscriptions) {
-        List<String> userIds = subscriptions.stream()
-            .map(Subscription::getUserId).toList();
-        Map<String, Optional<String>> usersInfo =
-            accountManagementService.getMappedEmails(userIds);
-
-        List<String> userEmails = new ArrayList<>();
-
-        usersInfo.forEach((userId, email) ->
-            userEmails.add(
-                email.isPresent() ? email.get() : ""
-            )
-        );
-        userEmails.removeAll(Arrays.asList(""));
-        return userEmails;
-    }
 }
@@ -2,31 +2,55 @@ package uk.gov.hmcts.reform.pip.subscription.management.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.hmcts.reform.pip.model.publication.Artefact;
 import uk.gov.hmcts.reform.pip.model.subscription.Channel;
-import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscription;
-import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscriptionArtefact;
-import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.models.response.ArtefactRecipientsExplanation;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
 import static uk.gov.hmcts.reform.pip.model.publication.Sensitivity.CLASSIFIED;
 import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_ID;
 import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_URN;
 import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.LIST_TYPE;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.LOCATION_ID;
+import static uk.gov.hmcts.reform.pip.subscription.management.config.AsyncConfiguration.FAN_OUT_EXECUTOR;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.DELETION_PIPELINE;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.PUBLICATION_PIPELINE;
 
 @Service
 @Slf4j
 public class SubscriptionNotificationService {
     private static final String CASE_NUMBER_KEY = "caseNumber";
     private static final String CASE_URN_KEY = "caseUrn";
+    private static final String SUBSCRIPTIONS_STAGE = "subscriptions";
+    private static final String AUTHORISATION_STAGE = "authorisation";
+    private static final String EMAILS_STAGE = "emails";
+    private static final String QUEUE_STAGE = "queue";
 
     private final SubscriptionRepository repository;
 
@@ -34,123 +58,414 @@ public class SubscriptionNotificationService {
 
     private final AccountManagementService accountManagementService;
 
-    private final PublicationServicesService publicationServicesService;
+    private final NotificationOutboxService notificationOutboxService;
+
+    private final SubscriptionIndexService subscriptionIndexService;
+
+    private final CaseSubscriptionFilterService caseSubscriptionFilterService;
+
+    private final ArtefactRecipientRequestService artefactRecipientRequestService;
+
+    private final NotificationMetricsService notificationMetricsService;
+
+    private final SubscriptionRecipientStreamService subscriptionRecipientStreamService;
+
+    /**
+     * Bounded executor which runs the first stage of each fan-out pipeline. The stage is submitted on the request
+     * thread, so a full executor is returned to the caller as a 503. The requests to account management run on the
+     * WebClient threads, so no thread is held while they are in flight.
+     */
+    private final Executor fanOutExecutor;
 
     @Autowired
     public SubscriptionNotificationService(
         SubscriptionRepository repository,
         SubscriptionChannelService subscriptionChannelService,
         AccountManagementService accountManagementService,
-        PublicationServicesService publicationServicesService
+        NotificationOutboxService notificationOutboxService,
+        SubscriptionIndexService subscriptionIndexService,
+        CaseSubscriptionFilterService caseSubscriptionFilterService,
+        ArtefactRecipientRequestService artefactRecipientRequestService,
+        NotificationMetricsService notificationMetricsService,
+        SubscriptionRecipientStreamService subscriptionRecipientStreamService,
+        @Qualifier(FAN_OUT_EXECUTOR) Executor fanOutExecutor
     ) {
         this.repository = repository;
         this.subscriptionChannelService = subscriptionChannelService;
         this.accountManagementService = accountManagementService;
-        this.publicationServicesService = publicationServicesService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.subscriptionIndexService = subscriptionIndexService;
+        this.caseSubscriptionFilterService = caseSubscriptionFilterService;
+        this.artefactRecipientRequestService = artefactRecipientRequestService;
+        this.notificationMetricsService = notificationMetricsService;
+        this.subscriptionRecipientStreamService = subscriptionRecipientStreamService;
+        this.fanOutExecutor = fanOutExecutor;
     }
 
     /**
      * Collect all subscribers for the artefact, and handle sending of email and third party subscriptions to
-     * the subscribers.
+     * the subscribers. The subscriptions are found, authorised, mapped to e-mails and queued as a single non-blocking
+     * pipeline. Finding the subscriptions is submitted to the fan-out executor before this returns, and if the
+     * executor is full the request is released and the TaskRejectedException is thrown, so the caller can retry. If
+     * the subscribers cannot be collected once the pipeline has started, the failure is logged and the request is
+     * released so that it can be made again.
+     *
+     * <p>When streaming is enabled, the subscriptions are instead read from the database in batches, and each batch
+     * is authorised, mapped to e-mails and queued before the next is read.
      * @param artefact the artefact to collect the subscriptions for.
+     * @return a Mono which completes once the notifications have been queued.
+     * @throws TaskRejectedException if the fan-out executor is full.
      */
-    @Async
-    public void collectSubscribers(Artefact artefact) {
+    public Mono<Void> collectSubscribers(Artefact artefact) {
+        LocalDateTime acceptedDate = LocalDateTime.now();
+        try {
+            return subscriptionRecipientStreamService.isEnabled()
+                ? collectSubscribersInBatches(artefact, acceptedDate)
+                : collectAllSubscribers(artefact, acceptedDate);
+        } catch (TaskRejectedException e) {
+            artefactRecipientRequestService.release(artefact);
+            throw e;
+        }
+    }
 
-        List<Subscription> subscriptionList = new ArrayList<>(querySubscriptionValueForLocation(
-            artefact.getLocationId(), artefact.getListType().toString(),
-                                                artefact.getLanguage().toString()));
+    private Mono<Void> collectAllSubscribers(Artefact artefact, LocalDateTime acceptedDate) {
+        return submitToFanOut(() -> timeStage(PUBLICATION_PIPELINE, SUBSCRIPTIONS_STAGE, artefact,
+                                              () -> querySubscriptionsForArtefact(artefact)))
+            .flatMap(subscriptionList -> CLASSIFIED.equals(artefact.getSensitivity())
+                ? validateSubscriptionPermissions(PUBLICATION_PIPELINE, subscriptionList, artefact)
+                : Mono.just(subscriptionList))
+            .flatMap(subscriptionsToContact -> handleSubscriptionSending(artefact, acceptedDate,
+                                                                        subscriptionsToContact))
+            .onErrorResume(e -> handleCollectionFailure(artefact, e));
+    }
 
-        subscriptionList.addAll(querySubscriptionValue(LIST_TYPE.name(), artefact.getListType().name()));
+    /**
+     * Stream the subscribers for the artefact in batches, so only one batch of subscriptions is held at a time. The
+     * stream is read on the fan-out executor, and each batch is sent before the next is read. Third parties are only
+     * notified once, however many batches their subscriptions are spread across.
+     */
+    private Mono<Void> collectSubscribersInBatches(Artefact artefact, LocalDateTime acceptedDate) {
+        Set<String> notifiedApis = new HashSet<>();
+        return submitToFanOut(() -> streamSubscriptionsForArtefact(artefact, batch ->
+                handleSubscriptionBatch(artefact, acceptedDate, batch, notifiedApis)))
+            .doOnNext(streamed -> recordStageItems(PUBLICATION_PIPELINE, SUBSCRIPTIONS_STAGE, artefact, streamed))
+            .then()
+            .onErrorResume(e -> handleCollectionFailure(artefact, e));
+    }
 
-        if (artefact.getSearch().containsKey("cases")) {
-            artefact.getSearch().get("cases").forEach(object -> subscriptionList.addAll(extractSearchValue(object)));
-        }
+    /**
+     * Authorise, map to e-mails and queue a single batch of subscriptions. This waits for the requests to account
+     * management to complete, so the next batch is not read until this one has been queued. No database connection
+     * is held while it waits, as each page of subscriptions has already been read. The authorisation, e-mail and queue
+     * stages are timed for each batch.
+     */
+    private void handleSubscriptionBatch(Artefact artefact, LocalDateTime acceptedDate,
+                                         List<SubscriptionRecipient> batch, Set<String> notifiedApis) {
+        List<SubscriptionRecipient> subscriptionsToContact = CLASSIFIED.equals(artefact.getSensitivity())
+            ? validateSubscriptionPermissions(PUBLICATION_PIPELINE, batch, artefact)
+                .defaultIfEmpty(Collections.emptyList()).block()
+            : batch;
+
+        Map<String, List<SubscriptionRecipient>> emailSubscriptions =
+            buildEmailSubscriptions(artefact, subscriptionsToContact)
+                .defaultIfEmpty(Collections.emptyMap()).block();
+        queueSubscriptions(artefact, acceptedDate, emailSubscriptions, subscriptionsToContact, notifiedApis);
+    }
 
-        List<Subscription> subscriptionsToContact = CLASSIFIED.equals(artefact.getSensitivity())
-            ? validateSubscriptionPermissions(subscriptionList, artefact)
-            : subscriptionList;
+    /**
+     * Submit the first, blocking, stage of a fan-out pipeline to the fan-out executor straight away, rather than when
+     * the pipeline is subscribed to, so that a full executor throws a TaskRejectedException to the caller.
+     */
+    private <T> Mono<T> submitToFanOut(Supplier<T> work) {
+        return Mono.fromFuture(CompletableFuture.supplyAsync(work, fanOutExecutor));
+    }
 
-        handleSubscriptionSending(artefact.getArtefactId(), subscriptionsToContact);
+    private Mono<Void> handleCollectionFailure(Artefact artefact, Throwable e) {
+        log.error(writeLog(String.format("Failed to collect subscribers for artefact %s with error: %s",
+                                         artefact.getArtefactId(), e.getMessage())));
+        return Mono.<Void>fromRunnable(() -> artefactRecipientRequestService.release(artefact))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Resolve the recipients of the artefact in the same way as {@link #collectSubscribers(Artefact)}, without
+     * queueing any notifications, and explain how many subscriptions and users came out of each stage. The stages are
+     * not recorded in the pipeline metrics, so explaining a publication does not skew them.
+     * @param artefact the artefact to explain the recipients of.
+     * @return the counts and timings of each stage of the resolution.
+     */
+    public ArtefactRecipientsExplanation explainRecipients(Artefact artefact) {
+        ArtefactRecipientsExplanation explanation = new ArtefactRecipientsExplanation();
+
+        long start = System.nanoTime();
+        List<SubscriptionRecipient> subscriptions = querySubscriptionsForArtefact(artefact);
+        explanation.getStageDurationsMs().put(SUBSCRIPTIONS_STAGE, elapsedMs(start));
+
+        Map<SearchType, Long> matches = subscriptions.stream()
+            .collect(Collectors.groupingBy(SubscriptionRecipient::searchType, Collectors.counting()));
+        explanation.setLocationMatches(matches.getOrDefault(LOCATION_ID, 0L).intValue());
+        explanation.setListTypeMatches(matches.getOrDefault(LIST_TYPE, 0L).intValue());
+        explanation.setCaseMatches(matches.getOrDefault(CASE_ID, 0L).intValue()
+                                       + matches.getOrDefault(CASE_URN, 0L).intValue());
+
+        Set<String> userIds = subscriptions.stream()
+            .map(SubscriptionRecipient::userId)
+            .collect(Collectors.toSet());
+        explanation.setUsersAfterDedup(userIds.size());
+
+        int recipients = userIds.size();
+        if (CLASSIFIED.equals(artefact.getSensitivity()) && !userIds.isEmpty()) {
+            start = System.nanoTime();
+            Set<String> authorisedUserIds = accountManagementService.findAuthorisedUserIds(
+                userIds, artefact.getListType(), artefact.getSensitivity()).block();
+            explanation.getStageDurationsMs().put(AUTHORISATION_STAGE, elapsedMs(start));
+
+            recipients = authorisedUserIds == null ? 0 : authorisedUserIds.size();
+            explanation.setClassifiedUsersDropped(userIds.size() - recipients);
+        }
+        explanation.setRecipients(recipients);
+        return explanation;
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
     }
 
     /**
      * Collect the third party subscribers for the deleted artefact, and handle sending of notification emails to them.
+     * Finding the subscriptions is submitted to the fan-out executor before this returns.
      * @param artefactBeingDeleted the artefact which has been deleted.
+     * @return a Mono which completes once the notifications have been queued.
+     * @throws TaskRejectedException if the fan-out executor is full.
      */
-    @Async
-    public void collectThirdPartyForDeletion(Artefact artefactBeingDeleted) {
-        List<Subscription> subscriptionList = new ArrayList<>(querySubscriptionValue(
-            LIST_TYPE.name(), artefactBeingDeleted.getListType().name()));
+    public Mono<Void> collectThirdPartyForDeletion(Artefact artefactBeingDeleted) {
+        LocalDateTime acceptedDate = LocalDateTime.now();
+        return submitToFanOut(() -> timeStage(
+                DELETION_PIPELINE, SUBSCRIPTIONS_STAGE, artefactBeingDeleted,
+                () -> querySubscriptionValue(LIST_TYPE, artefactBeingDeleted.getListType().name())))
+            .flatMap(subscriptionList -> CLASSIFIED.equals(artefactBeingDeleted.getSensitivity())
+                ? validateSubscriptionPermissions(DELETION_PIPELINE, subscriptionList, artefactBeingDeleted)
+                : Mono.just(subscriptionList))
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(subscriptionsToContact -> timeStage(
+                DELETION_PIPELINE, QUEUE_STAGE, artefactBeingDeleted,
+                () -> handleDeletedArtefactSending(subscriptionsToContact, artefactBeingDeleted, acceptedDate)))
+            .then()
+            .onErrorResume(e -> {
+                log.error(writeLog(String.format(
+                    "Failed to collect third party subscribers for deleted artefact %s with error: %s",
+                    artefactBeingDeleted.getArtefactId(), e.getMessage())));
+                return Mono.empty();
+            });
+    }
 
-        List<Subscription> subscriptionsToContact = CLASSIFIED.equals(artefactBeingDeleted.getSensitivity())
-            ? validateSubscriptionPermissions(subscriptionList, artefactBeingDeleted)
-            : subscriptionList;
+    /**
+     * Filter the subscriptions down to those whose users are authorised to see the classified artefact. Each user is
+     * only checked once, however many of their subscriptions match the artefact.
+     */
+    private Mono<List<SubscriptionRecipient>> validateSubscriptionPermissions(
+        String pipeline, List<SubscriptionRecipient> subscriptions, Artefact artefact) {
+        if (subscriptions.isEmpty()) {
+            return Mono.just(subscriptions);
+        }
 
-        handleDeletedArtefactSending(subscriptionsToContact, artefactBeingDeleted);
+        return notificationMetricsService.timeStage(
+                pipeline, AUTHORISATION_STAGE, artefact.getListType(), artefact.getSensitivity(),
+                accountManagementService.findAuthorisedUserIds(
+                    subscriptions.stream().map(SubscriptionRecipient::userId).toList(),
+                    artefact.getListType(), artefact.getSensitivity()))
+            .map(authorisedUserIds -> subscriptions.stream()
+                .filter(subscription -> authorisedUserIds.contains(subscription.userId()))
+                .toList())
+            .doOnNext(authorised -> recordStageItems(pipeline, AUTHORISATION_STAGE, artefact, authorised.size()));
     }
 
-    private List<Subscription> validateSubscriptionPermissions(List<Subscription> subscriptions, Artefact artefact) {
-        List<Subscription> filteredList = new ArrayList<>();
-        subscriptions.forEach(subscription -> {
-            if (Boolean.TRUE.equals(accountManagementService.isUserAuthorised(subscription.getUserId(),
-                artefact.getListType(), artefact.getSensitivity()))) {
-                filteredList.add(subscription);
-            }
-        });
-        return filteredList;
+    /**
+     * Time a blocking stage of the pipeline, and count the subscriptions which come out of it.
+     */
+    private <T> T timeStage(String pipeline, String stage, Artefact artefact, Supplier<T> work) {
+        T result = notificationMetricsService.timeStage(pipeline, stage, artefact.getListType(),
+                                                        artefact.getSensitivity(), work);
+        if (result instanceof Collection<?> items) {
+            recordStageItems(pipeline, stage, artefact, items.size());
+        }
+        return result;
     }
 
-    private List<Subscription> querySubscriptionValue(String term, String value) {
-        return repository.findSubscriptionsBySearchValue(term, value);
+    private void recordStageItems(String pipeline, String stage, Artefact artefact, int count) {
+        notificationMetricsService.recordStageItems(pipeline, stage, artefact.getListType(),
+                                                    artefact.getSensitivity(), count);
     }
 
-    private List<Subscription> querySubscriptionValueForLocation(String value, String listType,
-                                                                 String listLanguage) {
-        return repository.findSubscriptionsByLocationSearchValue(value, listType, listLanguage);
+    private List<SubscriptionRecipient> querySubscriptionValue(SearchType term, String value) {
+        if (subscriptionIndexService.isReady()) {
+            return subscriptionIndexService.findSubscriptionsBySearchValue(term, value);
+        }
+        return repository.findSubscriptionRecipientsBySearchValue(term, value);
+    }
+
+    /**
+     * Resolve all location, list type and case subscriptions for the artefact in a single query. The case numbers
+     * and URNs from the artefact search block are collected up front so the number of queries does not grow with
+     * the number of cases in the publication. The in-memory subscription index is used when it is available,
+     * otherwise cases which definitely have no subscribers are dropped before the database is queried.
+     *
+     * @param artefact The artefact to find the subscriptions for.
+     * @return The list of subscriptions matching the artefact.
+     */
+    private List<SubscriptionRecipient> querySubscriptionsForArtefact(Artefact artefact) {
+        Set<String> caseNumbers = new LinkedHashSet<>();
+        Set<String> caseUrns = new LinkedHashSet<>();
+        extractCaseValues(artefact, caseNumbers, caseUrns);
+
+        if (subscriptionIndexService.isReady()) {
+            return subscriptionIndexService.findSubscriptionsForArtefact(
+                artefact.getLocationId(), artefact.getListType().name(), artefact.getLanguage().name(),
+                caseNumbers, caseUrns
+            );
+        }
+
+        List<String> subscribedCaseNumbers = caseSubscriptionFilterService.filterPossiblySubscribed(
+            CASE_ID, caseNumbers);
+        List<String> subscribedCaseUrns = caseSubscriptionFilterService.filterPossiblySubscribed(
+            CASE_URN, caseUrns);
+
+        return repository.findSubscriptionRecipientsForArtefact(
+            artefact.getLocationId(), artefact.getListType().name(), artefact.getLanguage().name(),
+            subscribedCaseNumbers.toArray(new String[0]), subscribedCaseUrns.toArray(new String[0])
+        );
+    }
+
+    /**
+     * Stream all location, list type and case subscriptions for the artefact from the database, passing them to the
+     * consumer in batches. The in-memory subscription index is not used, as it would hold every subscription at once.
+     * The subscriptions stage is recorded once, as the time spent reading the subscriptions, excluding the time spent
+     * handling each batch, which is recorded by the later stages.
+     *
+     * @param artefact The artefact to find the subscriptions for.
+     * @param batchConsumer The consumer of each batch of subscriptions.
+     * @return The number of subscriptions matching the artefact.
+     */
+    private int streamSubscriptionsForArtefact(Artefact artefact,
+                                               Consumer<List<SubscriptionRecipient>> batchConsumer) {
+        long start = System.nanoTime();
+        AtomicLong batchNanos = new AtomicLong();
+        boolean success = false;
+        try {
+            Set<String> caseNumbers = new LinkedHashSet<>();
+            Set<String> caseUrns = new LinkedHashSet<>();
+            extractCaseValues(artefact, caseNumbers, caseUrns);
+
+            List<String> subscribedCaseNumbers = caseSubscriptionFilterService.filterPossiblySubscribed(
+                CASE_ID, caseNumbers);
+            List<String> subscribedCaseUrns = caseSubscriptionFilterService.filterPossiblySubscribed(
+                CASE_URN, caseUrns);
+
+            int streamed = subscriptionRecipientStreamService.streamRecipientsForArtefact(
+                artefact.getLocationId(), artefact.getListType().name(), artefact.getLanguage().name(),
+                subscribedCaseNumbers.toArray(new String[0]), subscribedCaseUrns.toArray(new String[0]),
+                batch -> {
+                    long batchStart = System.nanoTime();
+                    try {
+                        batchConsumer.accept(batch);
+                    } finally {
+                        batchNanos.addAndGet(System.nanoTime() - batchStart);
+                    }
+                }
+            );
+            success = true;
+            return streamed;
+        } finally {
+            notificationMetricsService.recordStage(
+                PUBLICATION_PIPELINE, SUBSCRIPTIONS_STAGE, artefact.getListType(), artefact.getSensitivity(),
+                Duration.ofNanos(System.nanoTime() - start - batchNanos.get()), success);
+        }
+    }
+
+    private void extractCaseValues(Artefact artefact, Set<String> caseNumbers, Set<String> caseUrns) {
+        if (artefact.getSearch().containsKey("cases")) {
+            artefact.getSearch().get("cases").forEach(object -> extractSearchValue(object, caseNumbers, caseUrns));
+        }
     }
 
     @SuppressWarnings("unchecked")
-    private List<Subscription> extractSearchValue(Object caseObject) {
-        List<Subscription> subscriptionList = new ArrayList<>();
+    private void extractSearchValue(Object caseObject, Set<String> caseNumbers, Set<String> caseUrns) {
         Map<String, Object> caseMap = (Map) caseObject;
 
         if (caseMap.containsKey(CASE_NUMBER_KEY) && caseMap.get(CASE_NUMBER_KEY) != null) {
-            subscriptionList.addAll(querySubscriptionValue(CASE_ID.name(), caseMap.get(CASE_NUMBER_KEY).toString()));
+            caseNumbers.add(caseMap.get(CASE_NUMBER_KEY).toString());
         }
 
         if (caseMap.containsKey(CASE_URN_KEY) && caseMap.get(CASE_URN_KEY) != null) {
-            subscriptionList.addAll(querySubscriptionValue(CASE_URN.name(), caseMap.get(CASE_URN_KEY).toString()));
+            caseUrns.add(caseMap.get(CASE_URN_KEY).toString());
         }
 
         if (!caseMap.containsKey(CASE_NUMBER_KEY) || !caseMap.containsKey(CASE_URN_KEY)) {
             log.warn(writeLog(String.format("No value found in %s for case number or urn", caseObject)));
         }
-        return subscriptionList;
     }
 
     /**
-     * Handle forming and sending of subscriptions to publication services.
+     * Handle forming of subscriptions, and queue them in the notification outbox to be sent to publication services.
+     * The e-mails are found without blocking, and the notifications are then queued on the bounded elastic
+     * scheduler. The pipeline has already been accepted by the fan-out executor by this point, so a full executor
+     * cannot drop it.
      *
-     * @param artefactId The id of the artefact being sent
+     * @param artefact The artefact being sent
+     * @param acceptedDate When the request to notify the subscribers was accepted
      * @param subscriptionsList The list of subscriptions being sent
      */
-    private void handleSubscriptionSending(UUID artefactId, List<Subscription> subscriptionsList) {
-        List<Subscription> emailList = sortSubscriptionByChannel(subscriptionsList, Channel.EMAIL.notificationRoute);
-        List<Subscription> apiList = sortSubscriptionByChannel(subscriptionsList,
-                                                               Channel.API_COURTEL.notificationRoute);
-
-        Map<String, List<Subscription>> emailSubscriptions =
-            subscriptionChannelService.buildEmailSubscriptions(emailList);
-        if (!emailSubscriptions.isEmpty()) {
-            log.info(writeLog("Summary being sent to publication services for id " + artefactId));
-            publicationServicesService.postSubscriptionSummaries(artefactId, emailSubscriptions);
-        }
+    private Mono<Void> handleSubscriptionSending(Artefact artefact, LocalDateTime acceptedDate,
+                                                 List<SubscriptionRecipient> subscriptionsList) {
+        return buildEmailSubscriptions(artefact, subscriptionsList)
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(emailSubscriptions -> queueSubscriptions(artefact, acceptedDate, emailSubscriptions,
+                                                               subscriptionsList, new HashSet<>()))
+            .then();
+    }
 
-        subscriptionChannelService.buildApiSubscriptions(apiList)
-            .forEach((api, subscriptions) ->
-                         publicationServicesService.sendThirdPartyList(new ThirdPartySubscription(api, artefactId)));
-        log.info(writeLog(String.format("Collected %s api subscribers", apiList.size())));
+    /**
+     * Map the e-mail subscriptions to the e-mails of their users, without blocking.
+     */
+    private Mono<Map<String, List<SubscriptionRecipient>>> buildEmailSubscriptions(
+        Artefact artefact, List<SubscriptionRecipient> subscriptionsList) {
+        List<SubscriptionRecipient> emailList = sortSubscriptionByChannel(subscriptionsList,
+                                                                          Channel.EMAIL.notificationRoute);
+
+        return notificationMetricsService.timeStage(
+                PUBLICATION_PIPELINE, EMAILS_STAGE, artefact.getListType(), artefact.getSensitivity(),
+                subscriptionChannelService.buildEmailSubscriptions(emailList))
+            .doOnNext(emailSubscriptions -> recordStageItems(PUBLICATION_PIPELINE, EMAILS_STAGE, artefact,
+                                                             emailSubscriptions.size()));
+    }
+
+    /**
+     * Queue the subscription summaries and third party notifications in the notification outbox. Third parties
+     * which have already been notified are skipped.
+     */
+    private void queueSubscriptions(Artefact artefact, LocalDateTime acceptedDate,
+                                    Map<String, List<SubscriptionRecipient>> emailSubscriptions,
+                                    List<SubscriptionRecipient> subscriptionsList, Set<String> notifiedApis) {
+        List<SubscriptionRecipient> apiList = sortSubscriptionByChannel(subscriptionsList,
+                                                                        Channel.API_COURTEL.notificationRoute);
+
+        timeStage(PUBLICATION_PIPELINE, QUEUE_STAGE, artefact, () -> {
+            List<String> recipients = new ArrayList<>();
+            if (!emailSubscriptions.isEmpty()) {
+                log.info(writeLog("Summary being sent to publication services for id " + artefact.getArtefactId()));
+                notificationOutboxService.queueSubscriptionSummaries(artefact, acceptedDate, emailSubscriptions);
+                recipients.addAll(emailSubscriptions.keySet());
+            }
+
+            subscriptionChannelService.buildApiSubscriptions(apiList).forEach((api, subscriptions) -> {
+                if (notifiedApis.add(api)) {
+                    notificationOutboxService.queueThirdPartyList(api, artefact, acceptedDate);
+                    recipients.add(api);
+                }
+            });
+            log.info(writeLog(String.format("Collected %s api subscribers", apiList.size())));
+            return recipients;
+        });
     }
 
     /**
@@ -160,11 +475,12 @@ public class SubscriptionNotificationService {
      * @param channel The channel we want the subscriptions of
      * @return A list of subscriptions
      */
-    private List<Subscription> sortSubscriptionByChannel(List<Subscription> subscriptionsList, String channel) {
-        List<Subscription> sortedSubscriptionsList = new ArrayList<>();
+    private List<SubscriptionRecipient> sortSubscriptionByChannel(List<SubscriptionRecipient> subscriptionsList,
+                                                                  String channel) {
+        List<SubscriptionRecipient> sortedSubscriptionsList = new ArrayList<>();
 
-        subscriptionsList.forEach((Subscription subscription) -> {
-            if (channel.equals(subscription.getChannel().notificationRoute)) {
+        subscriptionsList.forEach((SubscriptionRecipient subscription) -> {
+            if (channel.equals(subscription.channel().notificationRoute)) {
                 sortedSubscriptionsList.add(subscription);
             }
         });
@@ -172,12 +488,16 @@ public class SubscriptionNotificationService {
         return sortedSubscriptionsList;
     }
 
-    private void handleDeletedArtefactSending(List<Subscription> subscriptions, Artefact artefactBeingDeleted) {
-        List<Subscription> apiList = sortSubscriptionByChannel(subscriptions,
-                                                               Channel.API_COURTEL.notificationRoute);
+    private List<String> handleDeletedArtefactSending(List<SubscriptionRecipient> subscriptions,
+                                                      Artefact artefactBeingDeleted, LocalDateTime acceptedDate) {
+        List<SubscriptionRecipient> apiList = sortSubscriptionByChannel(subscriptions,
+                                                                        Channel.API_COURTEL.notificationRoute);
+        List<String> recipients = new ArrayList<>();
         subscriptionChannelService.buildApiSubscriptions(apiList)
-            .forEach((api, subscription) -> publicationServicesService.sendEmptyArtefact(
-                new ThirdPartySubscriptionArtefact(api, artefactBeingDeleted)
-            ));
+            .forEach((api, subscription) -> {
+                notificationOutboxService.queueThirdPartyDeletion(api, artefactBeingDeleted, acceptedDate);
+                recipients.add(api);
+            });
+        return recipients;
     }
 }
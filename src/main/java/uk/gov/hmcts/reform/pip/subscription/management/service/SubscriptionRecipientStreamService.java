@@ -0,0 +1,98 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the recipients of an artefact from the database, handing them on in fixed-size batches as they are read.
+ * Only one batch is held in memory at a time, so the memory used by a fan-out does not grow with the number of users
+ * subscribed to a location.
+ *
+ * <p>The recipients are read a page at a time, each page by its own query which starts after the last recipient of
+ * the previous page. No database connection or transaction is held while a batch is handed on, so the consumer can
+ * make remote calls without tying up the connection pool.
+ *
+ * <p>A batch is only closed once the next recipient belongs to a different user, so all the subscriptions of a user
+ * are handed on together and each user is sent a single summary.
+ */
+@Service
+public class SubscriptionRecipientStreamService {
+    private static final String FIRST_PAGE = "";
+
+    private final SubscriptionRepository repository;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    @Autowired
+    public SubscriptionRecipientStreamService(SubscriptionRepository repository,
+                                              @Value("${subscriptionStreaming.enabled}") boolean enabled,
+                                              @Value("${subscriptionStreaming.batchSize}") int batchSize) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Whether the recipients of an artefact should be streamed, rather than loaded in full.
+     *
+     * @return true if streaming is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stream the recipients of the subscriptions matching an artefact, and pass each batch to the consumer as it
+     * fills. Each page of recipients is read before the batches in it are handed on, so the consumer is not called
+     * within a transaction.
+     *
+     * @param locationId The location ID of the artefact.
+     * @param listType The list type of the artefact.
+     * @param listLanguage The language of the artefact.
+     * @param caseNumbers The case numbers found in the artefact search block.
+     * @param caseUrns The case URNs found in the artefact search block.
+     * @param batchConsumer The consumer of each batch of recipients.
+     * @return The total number of recipients streamed.
+     */
+    @SuppressWarnings("PMD.UseVarargs")
+    public int streamRecipientsForArtefact(String locationId, String listType, String listLanguage,
+                                           String[] caseNumbers, String[] caseUrns,
+                                           Consumer<List<SubscriptionRecipient>> batchConsumer) {
+        int count = 0;
+        List<SubscriptionRecipient> batch = new ArrayList<>(batchSize);
+        List<SubscriptionRecipient> page = repository.findSubscriptionRecipientsForArtefactPage(
+            locationId, listType, listLanguage, caseNumbers, caseUrns, FIRST_PAGE, FIRST_PAGE, FIRST_PAGE, batchSize);
+
+        while (!page.isEmpty()) {
+            for (SubscriptionRecipient recipient : page) {
+                if (batch.size() >= batchSize && !recipient.userId().equals(batch.get(batch.size() - 1).userId())) {
+                    batchConsumer.accept(List.copyOf(batch));
+                    batch.clear();
+                }
+                batch.add(recipient);
+                count++;
+            }
+
+            SubscriptionRecipient last = page.get(page.size() - 1);
+            page = page.size() < batchSize
+                ? List.of()
+                : repository.findSubscriptionRecipientsForArtefactPage(
+                    locationId, listType, listLanguage, caseNumbers, caseUrns,
+                    last.userId(), last.searchType().name(), last.searchValue(), batchSize);
+        }
+
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(List.copyOf(batch));
+        }
+        return count;
+    }
+}
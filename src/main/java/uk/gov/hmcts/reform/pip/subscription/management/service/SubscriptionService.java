@@ -34,28 +34,43 @@ public class SubscriptionService {
 
     private final SubscriptionLocationService subscriptionLocationService;
 
+    private final SubscriptionIndexService subscriptionIndexService;
+
+    private final CaseSubscriptionFilterService caseSubscriptionFilterService;
+
+    private final ViewRefreshSchedulerService viewRefreshSchedulerService;
+
     @Autowired
     public SubscriptionService(SubscriptionRepository repository, DataManagementService dataManagementService,
                                SubscriptionListTypeRepository subscriptionListTypeRepository,
-                               SubscriptionLocationService subscriptionLocationService) {
+                               SubscriptionLocationService subscriptionLocationService,
+                               SubscriptionIndexService subscriptionIndexService,
+                               CaseSubscriptionFilterService caseSubscriptionFilterService,
+                               ViewRefreshSchedulerService viewRefreshSchedulerService) {
         this.repository = repository;
         this.dataManagementService = dataManagementService;
         this.subscriptionListTypeRepository = subscriptionListTypeRepository;
         this.subscriptionLocationService = subscriptionLocationService;
+        this.subscriptionIndexService = subscriptionIndexService;
+        this.caseSubscriptionFilterService = caseSubscriptionFilterService;
+        this.viewRefreshSchedulerService = viewRefreshSchedulerService;
     }
 
     public Subscription createSubscription(Subscription subscription, String actioningUserId) {
         log.info(writeLog(actioningUserId, UserActions.CREATE_SUBSCRIPTION,
                           subscription.getSearchType().toString()));
 
-        duplicateSubscriptionHandler(subscription);
-
         subscription.setLastUpdatedDate(subscription.getCreatedDate());
 
         if (subscription.getSearchType().equals(LOCATION_ID)) {
             subscription.setLocationName(dataManagementService.getCourtName(subscription.getSearchValue()));
         }
-        return repository.save(subscription);
+        // An existing subscription of the user with the same search type and value is replaced by the new one
+        Subscription savedSubscription = repository.upsertSubscription(subscription);
+        subscriptionIndexService.subscriptionSaved(savedSubscription);
+        caseSubscriptionFilterService.subscriptionSaved(savedSubscription);
+        viewRefreshSchedulerService.recordWrites(1);
+        return savedSubscription;
     }
 
     public void addListTypesForSubscription(SubscriptionListType subscriptionListType,
@@ -63,6 +78,7 @@ public class SubscriptionService {
         log.info(writeLog(actioningUserId, UserActions.CREATE_SUBSCRIPTION, LOCATION_ID.name()));
         subscriptionListTypeRepository.deleteByUserId(subscriptionListType.getUserId());
         subscriptionListTypeRepository.save(subscriptionListType);
+        subscriptionIndexService.listTypeSaved(subscriptionListType);
     }
 
     public void configureListTypesForSubscription(SubscriptionListType subscriptionListType,
@@ -73,6 +89,7 @@ public class SubscriptionService {
             .findByUserId(subscriptionListType.getUserId());
         existingSubscriptionListType.ifPresent(listType -> subscriptionListType.setId(listType.getId()));
         subscriptionListTypeRepository.save(subscriptionListType);
+        subscriptionIndexService.listTypeSaved(subscriptionListType);
     }
 
     public void deleteById(UUID id, String actioningUserId) {
@@ -85,6 +102,8 @@ public class SubscriptionService {
         }
 
         repository.deleteById(id);
+        subscriptionIndexService.subscriptionsDeleted(List.of(id));
+        viewRefreshSchedulerService.recordWrites(1);
 
         if (subscription.get().getSearchType().equals(LOCATION_ID)) {
             subscriptionLocationService
@@ -121,11 +140,15 @@ public class SubscriptionService {
             == repository.findLocationSubscriptionsByUserId(subscriptions.get(0).getUserId()).size()) {
             Optional<SubscriptionListType> subscriptionListTypes =
                 subscriptionListTypeRepository.findByUserId(subscriptions.get(0).getUserId());
-            subscriptionListTypes.ifPresent(subscriptionListType -> subscriptionListTypeRepository
-                .deleteByUserId(subscriptionListType.getUserId()));
+            subscriptionListTypes.ifPresent(subscriptionListType -> {
+                subscriptionListTypeRepository.deleteByUserId(subscriptionListType.getUserId());
+                subscriptionIndexService.listTypeDeleted(subscriptionListType.getUserId());
+            });
         }
 
         repository.deleteByIdIn(ids);
+        subscriptionIndexService.subscriptionsDeleted(ids);
+        viewRefreshSchedulerService.recordWrites(ids.size());
         subscriptions.forEach(s -> log.info(writeLog(s.getUserId(), UserActions.DELETE_SUBSCRIPTION,
                                                      s.getId().toString())));
     }
@@ -145,21 +168,6 @@ public class SubscriptionService {
         return subscription.get();
     }
 
-    /**
-     * Take in a new user subscription and check if any with the same criteria already exist.
-     * If it does then delete the original subscription as the new one will supersede it.
-     *
-     * @param subscription The new subscription that will be created
-     */
-    private void duplicateSubscriptionHandler(Subscription subscription) {
-        repository.findByUserId(subscription.getUserId()).forEach(existingSub -> {
-            if (existingSub.getSearchType().equals(subscription.getSearchType())
-                && existingSub.getSearchValue().equals(subscription.getSearchValue())) {
-                repository.delete(existingSub);
-            }
-        });
-    }
-
     public List<AllSubscriptionMiData> getAllSubscriptionsDataForMiReportingV2() {
         return repository.getAllSubsDataForMiV2();
     }
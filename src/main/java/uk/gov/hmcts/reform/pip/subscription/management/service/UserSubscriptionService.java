@@ -24,11 +24,23 @@ public class UserSubscriptionService {
 
     private final SubscriptionListTypeRepository subscriptionListTypeRepository;
 
+    private final SubscriptionIndexService subscriptionIndexService;
+
+    private final ViewRefreshSchedulerService viewRefreshSchedulerService;
+
+    private final AccountManagementService accountManagementService;
+
     @Autowired
     public UserSubscriptionService(SubscriptionRepository repository,
-                                   SubscriptionListTypeRepository subscriptionListTypeRepository) {
+                                   SubscriptionListTypeRepository subscriptionListTypeRepository,
+                                   SubscriptionIndexService subscriptionIndexService,
+                                   ViewRefreshSchedulerService viewRefreshSchedulerService,
+                                   AccountManagementService accountManagementService) {
         this.repository = repository;
         this.subscriptionListTypeRepository = subscriptionListTypeRepository;
+        this.subscriptionIndexService = subscriptionIndexService;
+        this.viewRefreshSchedulerService = viewRefreshSchedulerService;
+        this.accountManagementService = accountManagementService;
     }
 
     /**
@@ -51,7 +63,10 @@ public class UserSubscriptionService {
      */
     public String deleteAllByUserId(String userId) {
         subscriptionListTypeRepository.deleteByUserId(userId);
-        repository.deleteAllByUserId(userId);
+        int deleted = repository.deleteAllByUserId(userId);
+        subscriptionIndexService.userSubscriptionsDeleted(userId);
+        viewRefreshSchedulerService.recordWrites(deleted);
+        accountManagementService.evictUserAuthorisation(userId);
         String message = String.format("All subscriptions deleted for user id %s", userId);
         log.info(writeLog(message));
         return message;
@@ -0,0 +1,120 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
+
+/**
+ * Refreshes the subscription view when enough subscription writes have been made, or when the oldest write not yet
+ * in the view passes a maximum age. Writes are counted by the subscription mutation paths, and checked on a fixed
+ * schedule so that bursts of writes are merged into a single refresh.
+ *
+ * <p>If a refresh started by this scheduler fails or is skipped because another instance is refreshing, its writes
+ * are counted again so that they are picked up by a later refresh.
+ */
+@Slf4j
+@Service
+public class ViewRefreshSchedulerService {
+
+    private final ViewService viewService;
+
+    private final boolean enabled;
+
+    private final long writeThreshold;
+
+    private final Duration maxAge;
+
+    private final AtomicLong pendingWrites = new AtomicLong();
+
+    private final AtomicReference<Instant> oldestPendingWrite = new AtomicReference<>();
+
+    private long inFlightWrites;
+
+    private Instant inFlightOldestWrite;
+
+    @Autowired
+    public ViewRefreshSchedulerService(ViewService viewService,
+                                       @Value("${viewRefresh.enabled}") boolean enabled,
+                                       @Value("${viewRefresh.writeThreshold}") long writeThreshold,
+                                       @Value("${viewRefresh.maxAgeMs}") long maxAgeMs) {
+        this.viewService = viewService;
+        this.enabled = enabled;
+        this.writeThreshold = writeThreshold;
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+    }
+
+    /**
+     * Record that subscriptions have been written, so the view needs refreshing.
+     * @param writes The number of subscriptions written.
+     */
+    public void recordWrites(int writes) {
+        if (enabled && writes > 0) {
+            pendingWrites.addAndGet(writes);
+            oldestPendingWrite.compareAndSet(null, Instant.now());
+        }
+    }
+
+    /**
+     * Check whether the view needs refreshing, and start a refresh if it does. This runs on a fixed delay, so checks
+     * never overlap.
+     */
+    @Scheduled(initialDelayString = "${viewRefresh.checkIntervalMs}",
+        fixedDelayString = "${viewRefresh.checkIntervalMs}")
+    public void refreshIfRequired() {
+        if (!enabled || !checkInFlightRefresh()) {
+            return;
+        }
+
+        long writes = pendingWrites.get();
+        if (writes == 0) {
+            return;
+        }
+
+        Instant oldestWrite = oldestPendingWrite.get();
+        boolean tooOld = oldestWrite == null || !oldestWrite.plus(maxAge).isAfter(Instant.now());
+        if (writes >= writeThreshold || tooOld) {
+            inFlightOldestWrite = oldestPendingWrite.getAndSet(null);
+            inFlightWrites = pendingWrites.getAndSet(0);
+
+            log.info(writeLog(String.format("Refreshing Subscription view after %s subscription write(s)",
+                                            inFlightWrites)));
+            viewService.refreshView();
+        }
+    }
+
+    /**
+     * Check the outcome of the last refresh started by the scheduler.
+     * @return true if there is no refresh still running.
+     */
+    private boolean checkInFlightRefresh() {
+        if (inFlightWrites == 0) {
+            return true;
+        }
+
+        ViewRefreshState state = viewService.getRefreshStatus().getState();
+        if (state == ViewRefreshState.IN_PROGRESS) {
+            return false;
+        }
+
+        if (state != ViewRefreshState.COMPLETED) {
+            pendingWrites.addAndGet(inFlightWrites);
+            Instant oldestWrite = inFlightOldestWrite == null ? Instant.now() : inFlightOldestWrite;
+            oldestPendingWrite.accumulateAndGet(oldestWrite, (current, retried) ->
+                current == null || retried.isBefore(current) ? retried : current);
+        }
+
+        inFlightWrites = 0;
+        inFlightOldestWrite = null;
+        return true;
+    }
+}
@@ -2,31 +2,139 @@ package uk.gov.hmcts.reform.pip.subscription.management.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefresh;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshStatus;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.ViewRefreshRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 import static uk.gov.hmcts.reform.pip.model.LogBuilder.writeLog;
 
 /**
  * Service class which handles dealing with views.
+ *
+ * <p>The subscription view is refreshed in the background, so a large refresh does not hold up the caller. Only one
+ * refresh runs at a time. A request made while a refresh is running queues a single further refresh once the current
+ * one finishes, so writes made during the running refresh are still picked up.
+ *
+ * <p>The state of the refresh is held in the database, so it can be reported by any instance of the service, and a
+ * request made on one instance is queued behind a refresh running on another. A refresh still running after the
+ * timeout is treated as abandoned, and a new one can be started in its place. A Postgres advisory lock is held for
+ * the duration of the refresh, so even then only one instance refreshes the view at a time. If another instance is
+ * already refreshing, the refresh is skipped.
  */
 @Service
 @Slf4j
 public class ViewService {
+    private static final long REFRESH_LOCK_KEY = 1_715_329_406L;
+
+    private static final String VIEW_NAME = "sdp_mat_view_subscription";
 
     private final SubscriptionRepository subscriptionRepository;
 
+    private final ViewRefreshRepository viewRefreshRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor taskExecutor;
+
+    private final Duration timeout;
+
     @Autowired
-    public ViewService(SubscriptionRepository subscriptionRepository) {
+    public ViewService(SubscriptionRepository subscriptionRepository,
+                       ViewRefreshRepository viewRefreshRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                       @Value("${viewRefresh.timeoutMs}") long timeoutMs) {
         this.subscriptionRepository = subscriptionRepository;
+        this.viewRefreshRepository = viewRefreshRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Service method which starts a background refresh of the view, or queues another refresh if one is already
+     * running.
+     * @return The status of the refresh.
+     */
+    public ViewRefreshStatus refreshView() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean queued = viewRefreshRepository.startOrQueueRefresh(VIEW_NAME, now, now.minus(timeout));
+        if (!queued) {
+            try {
+                taskExecutor.execute(this::runRefresh);
+            } catch (TaskRejectedException e) {
+                viewRefreshRepository.recordRefreshOutcome(VIEW_NAME, ViewRefreshState.FAILED, e.getMessage(),
+                                                           LocalDateTime.now());
+                throw e;
+            }
+        }
+        return getRefreshStatus();
     }
 
     /**
-     * Service method which refreshes the view.
+     * Service method which returns the status of the most recent refresh.
+     * @return The status of the refresh.
      */
-    public void refreshView() {
+    public ViewRefreshStatus getRefreshStatus() {
+        return viewRefreshRepository.findById(VIEW_NAME)
+            .map(ViewRefresh::toStatus)
+            .orElseGet(() -> new ViewRefreshStatus(ViewRefreshState.NOT_STARTED, null, null, null));
+    }
+
+    private void runRefresh() {
+        boolean refreshAgain;
+        do {
+            ViewRefreshState outcome;
+            String reason = null;
+            try {
+                outcome = Boolean.TRUE.equals(transactionTemplate.execute(transactionStatus -> refreshWithLock()))
+                    ? ViewRefreshState.COMPLETED
+                    : ViewRefreshState.SKIPPED;
+                if (outcome == ViewRefreshState.SKIPPED) {
+                    reason = "Subscription view is being refreshed by another instance";
+                    log.info(writeLog(reason));
+                }
+            } catch (RuntimeException e) {
+                log.error(writeLog("Failed to refresh Subscription view: " + e.getMessage()));
+                outcome = ViewRefreshState.FAILED;
+                reason = e.getMessage();
+            }
+            refreshAgain = completeRefresh(outcome, reason);
+        } while (refreshAgain);
+    }
+
+    private boolean refreshWithLock() {
+        if (!subscriptionRepository.tryAdvisoryTransactionLock(REFRESH_LOCK_KEY)) {
+            return false;
+        }
         log.info(writeLog("Refreshing Subscription view"));
         subscriptionRepository.refreshSubscriptionView();
+        return true;
     }
 
+    /**
+     * Record the outcome of a refresh, and start the queued refresh if there is one.
+     * @return true if a queued refresh should now run.
+     */
+    private boolean completeRefresh(ViewRefreshState outcome, String reason) {
+        if (outcome == ViewRefreshState.COMPLETED) {
+            return ViewRefreshState.IN_PROGRESS.name().equals(
+                viewRefreshRepository.completeRefresh(VIEW_NAME, LocalDateTime.now()));
+        }
+
+        viewRefreshRepository.recordRefreshOutcome(VIEW_NAME, outcome, reason, LocalDateTime.now());
+        return false;
+    }
 }
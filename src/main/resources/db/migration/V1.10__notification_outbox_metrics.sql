@@ -0,0 +1,7 @@
+--
+-- Records the list type, sensitivity and acceptance time of the artefact on each notification, so the time from a
+-- request being accepted to the notification being sent can be measured.
+--
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS list_type varchar(255);
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS sensitivity varchar(255);
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS accepted_date timestamp;
@@ -0,0 +1,64 @@
+--
+-- Bitmasks of the list types and languages configured by each user, so location subscribers can be filtered with
+-- an integer AND rather than string array comparisons. Every list type and language is given a code the first time
+-- it is configured, which never changes afterwards, and bit n of a mask is set for the value with code n, held in
+-- 64 bit words. The list type mask is NULL when no list types are configured, as the user is then subscribed to
+-- every list type. The masks are derived by a trigger whenever the configuration is written.
+--
+CREATE TABLE IF NOT EXISTS list_type_code (
+  list_type text NOT NULL PRIMARY KEY,
+  code integer GENERATED ALWAYS AS IDENTITY (MINVALUE 0 START WITH 0) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS list_language_code (
+  list_language text NOT NULL PRIMARY KEY,
+  code integer GENERATED ALWAYS AS IDENTITY (MINVALUE 0 START WITH 0) UNIQUE
+);
+
+ALTER TABLE subscription_list_type ADD COLUMN IF NOT EXISTS list_type_mask bigint[];
+ALTER TABLE subscription_list_type ADD COLUMN IF NOT EXISTS list_language_mask bigint[];
+
+CREATE OR REPLACE FUNCTION code_mask(p_codes integer[])
+RETURNS bigint[] AS $$
+  SELECT COALESCE(ARRAY_AGG(COALESCE(w.bits, 0) ORDER BY n.word), '{}')
+  FROM generate_series(1, (SELECT MAX(c) FROM unnest(p_codes) AS t(c)) / 64 + 1) AS n(word)
+  LEFT JOIN (SELECT c / 64 + 1 AS word, BIT_OR(CAST(1 AS bigint) << (c % 64)) AS bits
+             FROM unnest(p_codes) AS t(c)
+             GROUP BY 1) w ON w.word = n.word;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Whether the bit for a code is set in a mask. NULL codes are never set.
+CREATE OR REPLACE FUNCTION mask_has_code(p_mask bigint[], p_code integer)
+RETURNS boolean AS $$
+  SELECT COALESCE((p_mask[p_code / 64 + 1] & (CAST(1 AS bigint) << (p_code % 64))) <> 0, false);
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION subscription_list_type_masks_trigger()
+RETURNS trigger AS $$
+BEGIN
+  INSERT INTO list_type_code (list_type)
+  SELECT DISTINCT unnest(NEW.list_type)
+  ON CONFLICT DO NOTHING;
+
+  INSERT INTO list_language_code (list_language)
+  SELECT DISTINCT unnest(NEW.list_language)
+  ON CONFLICT DO NOTHING;
+
+  NEW.list_type_mask := CASE WHEN ARRAY_LENGTH(NEW.list_type, 1) IS NULL THEN NULL
+                             ELSE code_mask(ARRAY(SELECT code FROM list_type_code
+                                                  WHERE list_type = ANY(NEW.list_type))) END;
+  NEW.list_language_mask := code_mask(ARRAY(SELECT code FROM list_language_code
+                                            WHERE list_language = ANY(NEW.list_language)));
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS subscription_list_type_masks ON subscription_list_type;
+CREATE TRIGGER subscription_list_type_masks
+  BEFORE INSERT OR UPDATE ON subscription_list_type
+  FOR EACH ROW EXECUTE FUNCTION subscription_list_type_masks_trigger();
+
+--
+-- Fill in the masks of the existing configurations, which fires the trigger
+--
+UPDATE subscription_list_type SET list_type = list_type;
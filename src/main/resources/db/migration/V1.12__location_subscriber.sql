@@ -0,0 +1,84 @@
+--
+-- Location subscriptions held alongside the list type and language masks of their users, so the subscribers of a
+-- location can be found with a single index lookup rather than joining to subscription_list_type and comparing
+-- arrays for every row. The table is kept up to date by triggers on subscription and subscription_list_type.
+--
+CREATE TABLE IF NOT EXISTS location_subscriber (
+  subscription_id uuid NOT NULL PRIMARY KEY,
+  location_id varchar(255) NOT NULL,
+  user_id varchar(255) NOT NULL,
+  channel varchar(255),
+  list_type_mask bigint[],
+  list_language_mask bigint[]
+);
+
+CREATE INDEX IF NOT EXISTS idx_location_subscriber_location_id
+  ON location_subscriber (location_id);
+
+-- Used by the triggers to remove the rows of a user
+CREATE INDEX IF NOT EXISTS idx_location_subscriber_user_id
+  ON location_subscriber (user_id);
+
+--
+-- Add the rows for the location subscriptions of a user, or only for a single subscription when one is given
+--
+CREATE OR REPLACE FUNCTION add_location_subscribers(p_user_id varchar, p_subscription_id uuid)
+RETURNS void AS $$
+BEGIN
+  INSERT INTO location_subscriber (subscription_id, location_id, user_id, channel, list_type_mask,
+                                   list_language_mask)
+  SELECT s.id, s.search_value, s.user_id, s.channel, sl.list_type_mask, sl.list_language_mask
+  FROM subscription s
+  INNER JOIN subscription_list_type sl ON s.user_id = sl.user_id
+  WHERE s.user_id = p_user_id
+  AND s.search_type = 'LOCATION_ID'
+  AND (p_subscription_id IS NULL OR s.id = p_subscription_id)
+  ON CONFLICT DO NOTHING;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION location_subscriber_subscription_trigger()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    DELETE FROM location_subscriber WHERE subscription_id = OLD.id;
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.search_type = 'LOCATION_ID' THEN
+    PERFORM add_location_subscribers(NEW.user_id, NEW.id);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION location_subscriber_list_type_trigger()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    DELETE FROM location_subscriber WHERE user_id = OLD.user_id;
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM add_location_subscribers(NEW.user_id, NULL);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS location_subscriber_subscription ON subscription;
+CREATE TRIGGER location_subscriber_subscription
+  AFTER INSERT OR UPDATE OR DELETE ON subscription
+  FOR EACH ROW EXECUTE FUNCTION location_subscriber_subscription_trigger();
+
+DROP TRIGGER IF EXISTS location_subscriber_list_type ON subscription_list_type;
+CREATE TRIGGER location_subscriber_list_type
+  AFTER INSERT OR UPDATE OR DELETE ON subscription_list_type
+  FOR EACH ROW EXECUTE FUNCTION location_subscriber_list_type_trigger();
+
+--
+-- Populate the table from the existing subscriptions
+--
+INSERT INTO location_subscriber (subscription_id, location_id, user_id, channel, list_type_mask, list_language_mask)
+SELECT s.id, s.search_value, s.user_id, s.channel, sl.list_type_mask, sl.list_language_mask
+FROM subscription s
+INNER JOIN subscription_list_type sl ON s.user_id = sl.user_id
+WHERE s.search_type = 'LOCATION_ID'
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,17 @@
+--
+-- Bulk deletions of subscriptions which run in the background. The progress of each job is updated as its
+-- subscriptions are deleted in chunks, so it can be reported while the job runs.
+--
+CREATE TABLE IF NOT EXISTS deletion_job (
+  id uuid NOT NULL PRIMARY KEY,
+  job_type varchar(255) NOT NULL,
+  target varchar(255) NOT NULL,
+  actioning_user_id varchar(255),
+  state varchar(255) NOT NULL,
+  total_count integer NOT NULL DEFAULT 0,
+  deleted_count integer NOT NULL DEFAULT 0,
+  created_date timestamp NOT NULL,
+  started_date timestamp,
+  completed_date timestamp,
+  reason text
+);
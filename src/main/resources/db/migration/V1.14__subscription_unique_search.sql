@@ -0,0 +1,30 @@
+--
+-- A user has a single subscription for each search type and value, which lets a subscription be
+-- created with a single INSERT ... ON CONFLICT.
+--
+-- The table is locked against writes for the whole migration, so no duplicate can be written by
+-- an instance still running the previous version between removing the duplicates and building the
+-- index. The index is built in the same transaction, so a failed build is rolled back rather than
+-- leaving an invalid index behind.
+--
+LOCK TABLE subscription IN SHARE ROW EXCLUSIVE MODE;
+
+-- Creating a subscription has always replaced an existing one with the same criteria, so the most
+-- recently created subscription is kept.
+DELETE FROM subscription a
+USING subscription b
+WHERE a.user_id = b.user_id
+  AND a.search_type = b.search_type
+  AND a.search_value = b.search_value
+  AND (COALESCE(a.created_date, '-infinity'::timestamp), a.id)
+    < (COALESCE(b.created_date, '-infinity'::timestamp), b.id);
+
+-- Replace any index left by an earlier attempt, which may be invalid
+DROP INDEX IF EXISTS idx_subscription_user_id_search_type_search_value;
+
+CREATE UNIQUE INDEX idx_subscription_user_id_search_type_search_value
+  ON subscription (user_id, search_type, search_value);
+
+-- The unique index also serves lookups by user, and by user and search type, so the index
+-- previously used for these only adds to the cost of each write.
+DROP INDEX IF EXISTS idx_subscription_user_id_search_type;
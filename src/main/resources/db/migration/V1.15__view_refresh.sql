@@ -0,0 +1,12 @@
+--
+-- The state of the background refresh of each materialised view, shared by every instance of the service. A refresh
+-- requested while another is running is queued on the row, and run by the instance which is refreshing.
+--
+CREATE TABLE IF NOT EXISTS view_refresh (
+  view_name varchar(255) NOT NULL PRIMARY KEY,
+  state varchar(255) NOT NULL,
+  started_date timestamp,
+  completed_date timestamp,
+  reason text,
+  refresh_queued boolean NOT NULL DEFAULT false
+);
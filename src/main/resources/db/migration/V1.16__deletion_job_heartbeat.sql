@@ -0,0 +1,8 @@
+--
+-- The last time each deletion job recorded progress, so jobs left behind by a stopped instance can be found and
+-- resumed.
+--
+ALTER TABLE deletion_job ADD COLUMN IF NOT EXISTS heartbeat_date timestamp;
+
+CREATE INDEX IF NOT EXISTS idx_deletion_job_state
+  ON deletion_job (state);
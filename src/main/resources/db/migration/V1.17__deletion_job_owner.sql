@@ -0,0 +1,8 @@
+--
+-- The instance which owns each deletion job, so progress and completion are only recorded by the instance currently
+-- running the job, and the subscribers whose location subscriptions a job has deleted, so they are still notified if
+-- the job is resumed by another instance.
+--
+ALTER TABLE deletion_job ADD COLUMN IF NOT EXISTS owner uuid;
+
+ALTER TABLE deletion_job ADD COLUMN IF NOT EXISTS subscriber_user_ids text[] NOT NULL DEFAULT '{}';
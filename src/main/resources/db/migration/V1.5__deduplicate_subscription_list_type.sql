@@ -0,0 +1,8 @@
+--
+-- Remove duplicate list type configuration for a user so that user_id can be
+-- uniquely indexed. Only one row is ever read per user, so one row is kept.
+--
+DELETE FROM subscription_list_type a
+USING subscription_list_type b
+WHERE a.user_id = b.user_id
+  AND a.id < b.id;
@@ -0,0 +1,48 @@
+-- flyway:executeInTransaction=false
+--
+-- Index every access path used by the subscription repositories. These are
+-- built concurrently so that writes are not blocked while the indexes build,
+-- which means this script is run outside of a transaction.
+--
+
+-- A concurrent build which fails leaves an invalid index behind, which IF NOT EXISTS would then
+-- skip on the next attempt. Drop any such index so that it is built again.
+DO $$
+DECLARE
+  invalid_index text;
+BEGIN
+  FOR invalid_index IN
+    SELECT c.relname
+    FROM pg_index i
+    JOIN pg_class c ON c.oid = i.indexrelid
+    WHERE NOT i.indisvalid
+      AND c.relname IN ('idx_subscription_search_type_search_value',
+                        'idx_subscription_user_id_search_type',
+                        'idx_subscription_list_type_user_id',
+                        'idx_subscription_list_type_list_type',
+                        'idx_subscription_list_type_list_language')
+  LOOP
+    EXECUTE format('DROP INDEX %I', invalid_index);
+  END LOOP;
+END $$;
+
+-- Lookups by search type and value, e.g. findSubscriptionsBySearchValue and the location branch
+-- of findSubscriptionsByLocationSearchValue
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_search_type_search_value
+  ON subscription (search_type, search_value);
+
+-- Lookups by user, e.g. findByUserId and findLocationSubscriptionsByUserId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_user_id_search_type
+  ON subscription (user_id, search_type);
+
+-- A user has a single list type configuration, used for SubscriptionListTypeRepository.findByUserId
+-- and the join from subscription
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_list_type_user_id
+  ON subscription_list_type (user_id);
+
+-- Array overlap filters on the list type configuration
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_list_type_list_type
+  ON subscription_list_type USING GIN (list_type);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_subscription_list_type_list_language
+  ON subscription_list_type USING GIN (list_language);
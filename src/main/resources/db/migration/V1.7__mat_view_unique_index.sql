@@ -0,0 +1,6 @@
+--
+-- A unique index is required to refresh the materialised view concurrently,
+-- which allows reporting queries to keep reading the view during a refresh
+--
+CREATE UNIQUE INDEX IF NOT EXISTS idx_sdp_mat_view_subscription_id
+  ON sdp_mat_view_subscription (id);
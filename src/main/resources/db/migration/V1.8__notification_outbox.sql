@@ -0,0 +1,24 @@
+--
+-- Outbox of notifications waiting to be sent to publication services. Rows are written once the
+-- recipients of an artefact have been resolved, and drained by the notification dispatcher.
+--
+CREATE TABLE IF NOT EXISTS notification_outbox (
+  id uuid NOT NULL PRIMARY KEY,
+  artefact_id uuid NOT NULL,
+  notification_type varchar(255) NOT NULL,
+  payload text NOT NULL,
+  status varchar(255) NOT NULL,
+  attempts integer NOT NULL DEFAULT 0,
+  last_error text,
+  created_date timestamp NOT NULL,
+  last_attempt_date timestamp,
+  next_attempt_date timestamp NOT NULL
+);
+
+-- Used by the dispatcher to find the notifications which are due to be sent
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_status_next_attempt_date
+  ON notification_outbox (status, next_attempt_date);
+
+-- Used to report the notification status of an artefact
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_artefact_id
+  ON notification_outbox (artefact_id);
@@ -0,0 +1,14 @@
+--
+-- Requests to notify the recipients of an artefact, keyed by the artefact and a hash of its content. Used to fold
+-- duplicate requests for the same artefact into the request which is already being processed.
+--
+CREATE TABLE IF NOT EXISTS artefact_recipient_request (
+  artefact_id uuid NOT NULL,
+  content_hash varchar(64) NOT NULL,
+  created_date timestamp NOT NULL,
+  PRIMARY KEY (artefact_id, content_hash)
+);
+
+-- Used to purge requests which are older than the idempotency window
+CREATE INDEX IF NOT EXISTS idx_artefact_recipient_request_created_date
+  ON artefact_recipient_request (created_date);
@@ -0,0 +1,77 @@
+package uk.gov.hmcts.reform.pip.subscription.management.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncConfigurationTest {
+    private static final String METRIC_MESSAGE = "Fan-out metric does not match";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        FanOutExecutorConfigurationProperties properties = new FanOutExecutorConfigurationProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+
+        executor = new AsyncConfiguration().fanOutExecutor(properties, meterRegistry);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void teardown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private void blockingTask() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testFanOutExecutorRejectsWhenFull() {
+        executor.execute(this::blockingTask);
+        executor.execute(this::blockingTask);
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(this::blockingTask),
+                     "Task should be rejected once the pool and queue are full");
+
+        assertThat(meterRegistry.get("subscription.fanout.rejected").counter().count())
+            .as(METRIC_MESSAGE)
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("subscription.fanout.queue.size").gauge().value())
+            .as(METRIC_MESSAGE)
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testFanOutExecutorRecordsWaitTime() throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(1);
+        executor.execute(completed::countDown);
+
+        assertThat(completed.await(5, TimeUnit.SECONDS))
+            .as("Task should have run")
+            .isTrue();
+        assertThat(meterRegistry.get("subscription.fanout.wait").timer().count())
+            .as(METRIC_MESSAGE)
+            .isEqualTo(1);
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.hmcts.reform.pip.subscription.management.config.flyway;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.MissingMigrationObjectException;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationObjectValidatorTest {
+
+    @Mock
+    SubscriptionRepository subscriptionRepository;
+
+    @InjectMocks
+    MigrationObjectValidator migrationObjectValidator;
+
+    @Test
+    void testStartsWhenNoObjectsMissing() {
+        when(subscriptionRepository.findMissingRecipientObjects()).thenReturn(List.of());
+
+        assertDoesNotThrow(migrationObjectValidator::afterPropertiesSet,
+                           "Exception thrown when the migrated objects exist");
+    }
+
+    @Test
+    void testFailsWhenObjectsMissing() {
+        when(subscriptionRepository.findMissingRecipientObjects()).thenReturn(List.of("location_subscriber"));
+
+        MissingMigrationObjectException exception = assertThrows(
+            MissingMigrationObjectException.class, migrationObjectValidator::afterPropertiesSet,
+            "No exception thrown when a migrated object is missing");
+        assertTrue(exception.getMessage().contains("location_subscriber"), "Missing object should be named");
+    }
+}
@@ -7,8 +7,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.publication.Artefact;
 import uk.gov.hmcts.reform.pip.model.publication.ListType;
 import uk.gov.hmcts.reform.pip.model.report.AllSubscriptionMiData;
@@ -16,9 +18,14 @@ import uk.gov.hmcts.reform.pip.model.report.LocationSubscriptionMiData;
 import uk.gov.hmcts.reform.pip.model.subscription.Channel;
 import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
 import uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.response.ArtefactRecipientsExplanation;
 import uk.gov.hmcts.reform.pip.subscription.management.models.response.UserSubscription;
+import uk.gov.hmcts.reform.pip.subscription.management.service.ArtefactRecipientRequestService;
+import uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionLocationService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionNotificationService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionService;
@@ -30,9 +37,12 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith({MockitoExtension.class})
@@ -64,6 +74,12 @@ class SubscriptionControllerTest {
     @Mock
     SubscriptionLocationService subscriptionLocationService;
 
+    @Mock
+    NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    ArtefactRecipientRequestService artefactRecipientRequestService;
+
     @InjectMocks
     SubscriptionController subscriptionController;
 
@@ -188,15 +204,66 @@ class SubscriptionControllerTest {
 
     @Test
     void testArtefactRecipientsReturnsAccepted() {
-        doNothing().when(subscriptionNotificationService).collectSubscribers(any());
+        when(artefactRecipientRequestService.claim(any())).thenReturn(true);
+        when(subscriptionNotificationService.collectSubscribers(any())).thenReturn(Mono.empty());
         assertEquals(HttpStatus.ACCEPTED, subscriptionController.buildSubscriberList(new Artefact()).getStatusCode(),
                      STATUS_CODE_MATCH
         );
     }
 
+    @Test
+    void testArtefactRecipientsRejectedWhenFanOutExecutorFull() {
+        Artefact artefact = new Artefact();
+        when(artefactRecipientRequestService.claim(artefact)).thenReturn(true);
+        when(subscriptionNotificationService.collectSubscribers(artefact))
+            .thenThrow(new TaskRejectedException("Fan-out executor is full"));
+
+        assertThrows(TaskRejectedException.class, () -> subscriptionController.buildSubscriberList(artefact),
+                     "Rejection should be returned as a 503 by the exception handler");
+    }
+
+    @Test
+    void testDuplicateArtefactRecipientsReturnsAcceptedWithoutCollectingSubscribers() {
+        Artefact artefact = new Artefact();
+        when(artefactRecipientRequestService.claim(artefact)).thenReturn(false);
+
+        assertEquals(HttpStatus.ACCEPTED, subscriptionController.buildSubscriberList(artefact).getStatusCode(),
+                     STATUS_CODE_MATCH
+        );
+        verify(subscriptionNotificationService, never()).collectSubscribers(any());
+    }
+
+    @Test
+    void testExplainArtefactRecipientsReturnsOk() {
+        Artefact artefact = new Artefact();
+        ArtefactRecipientsExplanation explanation = new ArtefactRecipientsExplanation();
+        when(subscriptionNotificationService.explainRecipients(artefact)).thenReturn(explanation);
+
+        ResponseEntity<ArtefactRecipientsExplanation> response = subscriptionController.explainSubscriberList(artefact);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), STATUS_CODE_MATCH);
+        assertEquals(explanation, response.getBody(), "Explanation should be returned");
+        verify(artefactRecipientRequestService, never()).claim(any());
+        verify(subscriptionNotificationService, never()).collectSubscribers(any());
+    }
+
+    @Test
+    void testFindNotificationsByArtefactId() {
+        UUID artefactId = UUID.randomUUID();
+        List<NotificationOutbox> notifications = List.of(
+            new NotificationOutbox(artefactId, NotificationType.SUBSCRIPTION_SUMMARY, "{}"));
+        when(notificationOutboxService.findNotificationsByArtefactId(artefactId)).thenReturn(notifications);
+
+        ResponseEntity<List<NotificationOutbox>> response =
+            subscriptionController.findNotificationsByArtefactId(artefactId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), STATUS_CODE_MATCH);
+        assertEquals(notifications, response.getBody(), "Returned notifications do not match");
+    }
+
     @Test
     void testBuildDeletedArtefactSubscribers() {
-        doNothing().when(subscriptionNotificationService).collectThirdPartyForDeletion(any());
+        when(subscriptionNotificationService.collectThirdPartyForDeletion(any())).thenReturn(Mono.empty());
         assertEquals(HttpStatus.ACCEPTED, subscriptionController.buildDeletedArtefactSubscribers(new Artefact())
             .getStatusCode(), STATUS_CODE_MATCH);
     }
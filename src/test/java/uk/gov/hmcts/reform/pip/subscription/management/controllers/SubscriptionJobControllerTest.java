@@ -0,0 +1,69 @@
+package uk.gov.hmcts.reform.pip.subscription.management.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobType;
+import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionDeletionJobService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionJobControllerTest {
+    private static final String LOCATION_ID = "1";
+    private static final String USER_ID = "2";
+    private static final String ACTIONING_USER_ID = "3";
+
+    private static final String STATUS_CODE_MESSAGE = "Unknown response status returned from controller";
+    private static final String BODY_MESSAGE = "Unexpected deletion job returned from controller";
+
+    @Mock
+    private SubscriptionDeletionJobService subscriptionDeletionJobService;
+
+    @InjectMocks
+    private SubscriptionJobController subscriptionJobController;
+
+    @Test
+    void testDeleteSubscriptionsByLocationReturnsAccepted() {
+        DeletionJob job = new DeletionJob(DeletionJobType.LOCATION, LOCATION_ID, ACTIONING_USER_ID);
+        when(subscriptionDeletionJobService.submitLocationDeletion(LOCATION_ID, ACTIONING_USER_ID)).thenReturn(job);
+
+        ResponseEntity<DeletionJob> response = subscriptionJobController.deleteSubscriptionsByLocation(
+            ACTIONING_USER_ID, Integer.parseInt(LOCATION_ID));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), STATUS_CODE_MESSAGE);
+        assertEquals(job, response.getBody(), BODY_MESSAGE);
+    }
+
+    @Test
+    void testDeleteSubscriptionsByUserReturnsAccepted() {
+        DeletionJob job = new DeletionJob(DeletionJobType.USER, USER_ID, ACTIONING_USER_ID);
+        when(subscriptionDeletionJobService.submitUserDeletion(USER_ID, ACTIONING_USER_ID)).thenReturn(job);
+
+        ResponseEntity<DeletionJob> response = subscriptionJobController.deleteSubscriptionsByUser(
+            ACTIONING_USER_ID, USER_ID);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), STATUS_CODE_MESSAGE);
+        assertEquals(job, response.getBody(), BODY_MESSAGE);
+    }
+
+    @Test
+    void testGetDeletionJobReturnsOk() {
+        DeletionJob job = new DeletionJob(DeletionJobType.USER, USER_ID, ACTIONING_USER_ID);
+        job.setId(UUID.randomUUID());
+        when(subscriptionDeletionJobService.findJob(job.getId())).thenReturn(job);
+
+        ResponseEntity<DeletionJob> response = subscriptionJobController.getDeletionJob(job.getId());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), STATUS_CODE_MESSAGE);
+        assertEquals(job, response.getBody(), BODY_MESSAGE);
+    }
+}
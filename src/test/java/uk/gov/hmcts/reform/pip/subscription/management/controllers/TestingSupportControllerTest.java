@@ -7,6 +7,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobType;
+import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionDeletionJobService;
 import uk.gov.hmcts.reform.pip.subscription.management.service.SubscriptionLocationService;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,6 +22,9 @@ class TestingSupportControllerTest {
     @Mock
     SubscriptionLocationService subscriptionLocationService;
 
+    @Mock
+    SubscriptionDeletionJobService subscriptionDeletionJobService;
+
     @InjectMocks
     TestingSupportController testingSupportController;
 
@@ -40,4 +46,22 @@ class TestingSupportControllerTest {
             .as("Response body does not match")
             .isEqualTo(responseMessage);
     }
+
+    @Test
+    void testSubmitSubscriptionsWithLocationNamePrefixDeletionReturnsAccepted() {
+        DeletionJob job = new DeletionJob(DeletionJobType.LOCATION_NAME_PREFIX, LOCATION_NAME_PREFIX, null);
+        when(subscriptionDeletionJobService.submitLocationNamePrefixDeletion(LOCATION_NAME_PREFIX))
+            .thenReturn(job);
+
+        ResponseEntity<DeletionJob> response = testingSupportController
+            .submitSubscriptionsWithLocationNamePrefixDeletion(LOCATION_NAME_PREFIX);
+
+        assertThat(response.getStatusCode())
+            .as("Response status does not match")
+            .isEqualTo(HttpStatus.ACCEPTED);
+
+        assertThat(response.getBody())
+            .as("Response body does not match")
+            .isEqualTo(job);
+    }
 }
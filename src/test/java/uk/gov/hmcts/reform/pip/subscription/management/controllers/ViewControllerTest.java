@@ -7,16 +7,28 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshStatus;
 import uk.gov.hmcts.reform.pip.subscription.management.service.ViewService;
 
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 @ExtendWith(MockitoExtension.class)
 class ViewControllerTest {
 
+    private static final String STATUS_CODE_MESSAGE = "Unknown response message returned from controller";
+    private static final String BODY_MESSAGE = "Unexpected refresh status returned from controller";
+
+    private final ViewRefreshStatus refreshStatus = new ViewRefreshStatus(
+        ViewRefreshState.IN_PROGRESS, LocalDateTime.now(), null, null
+    );
+
     @Mock
     private ViewService viewService;
 
@@ -25,9 +37,21 @@ class ViewControllerTest {
 
     @Test
     void testResponseFromViewService() {
-        ResponseEntity<Void> response = viewController.refreshView();
-        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unknown response message returned from controller");
+        when(viewService.refreshView()).thenReturn(refreshStatus);
+
+        ResponseEntity<ViewRefreshStatus> response = viewController.refreshView();
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), STATUS_CODE_MESSAGE);
+        assertEquals(refreshStatus, response.getBody(), BODY_MESSAGE);
         verify(viewService, times(1)).refreshView();
     }
 
+    @Test
+    void testRefreshStatusFromViewService() {
+        when(viewService.getRefreshStatus()).thenReturn(refreshStatus);
+
+        ResponseEntity<ViewRefreshStatus> response = viewController.getRefreshStatus();
+        assertEquals(HttpStatus.OK, response.getStatusCode(), STATUS_CODE_MESSAGE);
+        assertEquals(refreshStatus, response.getBody(), BODY_MESSAGE);
+    }
+
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -15,6 +16,7 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.context.request.ServletWebRequest;
 import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.DeletionJobNotFoundException;
 import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.SubscriptionNotFoundException;
 
 import java.util.List;
@@ -87,4 +89,26 @@ class GlobalExceptionHandlerTest {
         assertTrue(responseEntity.getBody().getMessage().contains("LOCATION_ID CASE_ID CASE_URN"),
                    "Incorrect response text");
     }
+
+    @Test
+    void testHandleTaskRejected() {
+        ResponseEntity<ExceptionResponse> responseEntity =
+            globalExceptionHandler.handle(new TaskRejectedException(TEST_MESSAGE));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode(),
+                     "Status code should be service unavailable");
+        assertNotNull(responseEntity.getBody(), "Response should contain a body");
+        assertNotNull(responseEntity.getBody().getTimestamp(), "Response should contain a timestamp");
+    }
+
+    @Test
+    void testHandleDeletionJobNotFound() {
+        ResponseEntity<ExceptionResponse> responseEntity =
+            globalExceptionHandler.handle(new DeletionJobNotFoundException(TEST_MESSAGE));
+
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode(), "Status code should be not found");
+        assertNotNull(responseEntity.getBody(), "Response should contain a body");
+        assertEquals(TEST_MESSAGE, responseEntity.getBody().getMessage(),
+                     "The message should match the message passed in");
+    }
 }
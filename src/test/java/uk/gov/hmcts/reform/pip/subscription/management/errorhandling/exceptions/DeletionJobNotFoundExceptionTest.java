@@ -0,0 +1,16 @@
+package uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeletionJobNotFoundExceptionTest {
+
+    @Test
+    void testCreationOfDeletionJobNotFoundException() {
+        DeletionJobNotFoundException deletionJobNotFoundException
+            = new DeletionJobNotFoundException("This is a test message");
+        assertEquals("This is a test message", deletionJobNotFoundException.getMessage(),
+                     "The message should match the message passed in");
+    }
+}
@@ -3,9 +3,13 @@ package uk.gov.hmcts.reform.pip.subscription.management.service;
 import com.azure.core.http.ContentType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nl.altindag.log.LogCaptor;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +27,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -44,6 +49,7 @@ class AccountManagementServiceTest {
     private static final String LOG_MESSAGE_MATCH = "Log messages should match.";
     private static final String VALID_ID = "1";
     private static final String INVALID_ID = "2";
+    private static final String TEST_EMAIL = "a@b.com";
 
     private final Map<String, Optional<String>> expectedMap = new ConcurrentHashMap<>();
     private String jsonResponse;
@@ -52,6 +58,7 @@ class AccountManagementServiceTest {
     private List<String> subscriptionIds;
 
     private final MockWebServer mockAccountManagementEndpoint = new MockWebServer();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
     private AccountManagementService accountManagementService;
 
     @BeforeEach
@@ -65,7 +72,7 @@ class AccountManagementServiceTest {
         mockSubscription.setId(UUID.randomUUID());
 
         List<Subscription> subscriptionList = List.of(mockSubscription);
-        expectedMap.put("a@b.com", Optional.empty());
+        expectedMap.put(mockSubscription.getId().toString(), Optional.of(TEST_EMAIL));
         jsonResponse = OBJECT_WRITER.writeValueAsString(expectedMap);
 
         subscriptionIds = subscriptionList.stream()
@@ -74,7 +81,8 @@ class AccountManagementServiceTest {
         WebClient mockedWebClient = WebClient.builder()
             .baseUrl(mockAccountManagementEndpoint.url("/").toString())
             .build();
-        accountManagementService = new AccountManagementService(mockedWebClient);
+        accountManagementService = new AccountManagementService(mockedWebClient, meterRegistry, 2, 60_000, 100,
+                                                                60_000, 60_000, 100);
     }
 
     @AfterEach
@@ -140,6 +148,91 @@ class AccountManagementServiceTest {
         }
     }
 
+    @Test
+    void testGetAuthorisedUserIdsChecksEachUserOnce() {
+        mockAccountManagementEndpoint.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().contains("/" + VALID_ID + "/")) {
+                    return new MockResponse()
+                        .setHeader(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody(String.valueOf(true));
+                }
+                return new MockResponse().setResponseCode(FORBIDDEN.value());
+            }
+        });
+
+        Set<String> authorisedUserIds = accountManagementService.findAuthorisedUserIds(
+            List.of(VALID_ID, INVALID_ID, VALID_ID, INVALID_ID), ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED
+        ).block();
+
+        assertEquals(Set.of(VALID_ID), authorisedUserIds, "Only the authorised user should be returned");
+        assertEquals(2, mockAccountManagementEndpoint.getRequestCount(),
+                     "Each user should only be checked once");
+    }
+
+    @Test
+    void testGetAuthorisedUserIdsExcludesUsersWhenRequestErrors() {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .setResponseCode(INTERNAL_SERVER_ERROR.value()));
+
+        Set<String> authorisedUserIds = accountManagementService.findAuthorisedUserIds(
+            List.of(VALID_ID), ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED).block();
+
+        assertTrue(authorisedUserIds.isEmpty(), "No users should be returned when the check fails");
+    }
+
+    @Test
+    void testIsAuthenticatedUsesCachedDecision() {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .setHeader(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                                  .setBody(String.valueOf(true)));
+
+        accountManagementService.isUserAuthorised(VALID_ID, ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED);
+        assertTrue(accountManagementService.isUserAuthorised(VALID_ID, ListType.SJP_PRESS_LIST,
+                                                             Sensitivity.CLASSIFIED),
+                   "Cached decision should be returned");
+
+        assertEquals(1, mockAccountManagementEndpoint.getRequestCount(),
+                     "Account management should only be called once");
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(),
+                     "Cache hit should be recorded");
+    }
+
+    @Test
+    void testIsAuthenticatedDoesNotCacheFailedRequest() {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .setResponseCode(INTERNAL_SERVER_ERROR.value()));
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .setHeader(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                                  .setBody(String.valueOf(true)));
+
+        assertFalse(accountManagementService.isUserAuthorised(VALID_ID, ListType.SJP_PRESS_LIST,
+                                                              Sensitivity.CLASSIFIED),
+                    "Failed request should return false");
+        assertTrue(accountManagementService.isUserAuthorised(VALID_ID, ListType.SJP_PRESS_LIST,
+                                                             Sensitivity.CLASSIFIED),
+                   "Failed request should not be cached");
+    }
+
+    @Test
+    void testEvictUserAuthorisation() {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .setHeader(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                                  .setBody(String.valueOf(true)));
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .setResponseCode(FORBIDDEN.value()));
+
+        accountManagementService.isUserAuthorised(VALID_ID, ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED);
+        accountManagementService.evictUserAuthorisation(VALID_ID);
+
+        assertFalse(accountManagementService.isUserAuthorised(VALID_ID, ListType.SJP_PRESS_LIST,
+                                                              Sensitivity.CLASSIFIED),
+                    "Evicted decision should be checked again");
+        assertEquals(2, mockAccountManagementEndpoint.getRequestCount(),
+                     "Account management should be called again after eviction");
+    }
+
     @Test
     void testGetMappedEmails() {
         mockAccountManagementEndpoint.enqueue(new MockResponse()
@@ -160,6 +253,86 @@ class AccountManagementServiceTest {
         assertNotNull(returnedMap, "List was null when error occurred");
     }
 
+    @Test
+    void testGetMappedEmailsOnlyRequestsUncachedUsers() throws IOException, InterruptedException {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .addHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON)
+                                                  .setBody(OBJECT_WRITER.writeValueAsString(
+                                                      Map.of(VALID_ID, Optional.of(TEST_EMAIL)))));
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .addHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON)
+                                                  .setBody(OBJECT_WRITER.writeValueAsString(
+                                                      Map.of(INVALID_ID, Optional.empty()))));
+
+        accountManagementService.getMappedEmails(List.of(VALID_ID));
+        Map<String, Optional<String>> returnedMap =
+            accountManagementService.getMappedEmails(List.of(VALID_ID, INVALID_ID));
+
+        assertEquals(Map.of(VALID_ID, Optional.of(TEST_EMAIL), INVALID_ID, Optional.empty()), returnedMap,
+                     "Cached and requested e-mails should be returned");
+
+        mockAccountManagementEndpoint.takeRequest();
+        assertEquals("[\"" + INVALID_ID + "\"]", mockAccountManagementEndpoint.takeRequest().getBody().readUtf8(),
+                     "Only the uncached user should be requested");
+    }
+
+    @Test
+    void testGetMappedEmailsReturnsEveryUserWhenUncachedRequestFails() throws IOException {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .addHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON)
+                                                  .setBody(OBJECT_WRITER.writeValueAsString(
+                                                      Map.of(VALID_ID, Optional.of(TEST_EMAIL)))));
+        mockAccountManagementEndpoint.enqueue(new MockResponse().setResponseCode(INTERNAL_SERVER_ERROR.value()));
+
+        accountManagementService.getMappedEmails(List.of(VALID_ID));
+        Map<String, Optional<String>> returnedMap =
+            accountManagementService.getMappedEmails(List.of(VALID_ID, INVALID_ID));
+
+        assertEquals(Map.of(VALID_ID, Optional.of(TEST_EMAIL), INVALID_ID, Optional.empty()), returnedMap,
+                     "Users which could not be requested should be returned without an e-mail");
+    }
+
+    @Test
+    void testGetMappedEmailsReturnsUsersMissingFromResponse() throws IOException {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .addHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON)
+                                                  .setBody(OBJECT_WRITER.writeValueAsString(
+                                                      Map.of(VALID_ID, Optional.of(TEST_EMAIL)))));
+
+        Map<String, Optional<String>> returnedMap =
+            accountManagementService.getMappedEmails(List.of(VALID_ID, INVALID_ID));
+
+        assertEquals(Map.of(VALID_ID, Optional.of(TEST_EMAIL), INVALID_ID, Optional.empty()), returnedMap,
+                     "Users missing from the response should be returned without an e-mail");
+    }
+
+    @Test
+    void testGetMappedEmailsCachesUsersWithoutEmail() throws IOException {
+        mockAccountManagementEndpoint.enqueue(new MockResponse()
+                                                  .addHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON)
+                                                  .setBody(OBJECT_WRITER.writeValueAsString(
+                                                      Map.of(INVALID_ID, Optional.empty()))));
+
+        accountManagementService.getMappedEmails(List.of(INVALID_ID));
+        Map<String, Optional<String>> returnedMap = accountManagementService.getMappedEmails(List.of(INVALID_ID));
+
+        assertEquals(Map.of(INVALID_ID, Optional.empty()), returnedMap, "User without e-mail should be returned");
+        assertEquals(1, mockAccountManagementEndpoint.getRequestCount(),
+                     "Account management should only be called once");
+    }
+
+    @Test
+    void testGetMappedEmailsDoesNotCacheFailedRequest() {
+        mockAccountManagementEndpoint.enqueue(new MockResponse().setResponseCode(INTERNAL_SERVER_ERROR.value()));
+        mockAccountManagementEndpoint.enqueue(new MockResponse().setResponseCode(INTERNAL_SERVER_ERROR.value()));
+
+        accountManagementService.getMappedEmails(List.of(VALID_ID));
+        accountManagementService.getMappedEmails(List.of(VALID_ID));
+
+        assertEquals(2, mockAccountManagementEndpoint.getRequestCount(),
+                     "Failed request should not be cached");
+    }
+
     @Test
     void testGetUserByUserIdSuccess() throws IOException {
         PiUser response = new PiUser();
@@ -0,0 +1,107 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.model.publication.Artefact;
+import uk.gov.hmcts.reform.pip.model.publication.ListType;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.ArtefactRecipientRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArtefactRecipientRequestServiceTest {
+    private static final UUID ARTEFACT_ID = UUID.randomUUID();
+    private static final long IDEMPOTENCY_WINDOW_MS = 60_000;
+    private static final String HASH_MESSAGE = "Content hash does not match";
+
+    @Mock
+    private ArtefactRecipientRequestRepository repository;
+
+    private ArtefactRecipientRequestService artefactRecipientRequestService;
+
+    private Artefact artefact;
+
+    @BeforeEach
+    void setup() {
+        artefactRecipientRequestService = new ArtefactRecipientRequestService(repository, IDEMPOTENCY_WINDOW_MS);
+
+        artefact = new Artefact();
+        artefact.setArtefactId(ARTEFACT_ID);
+        artefact.setListType(ListType.CIVIL_DAILY_CAUSE_LIST);
+    }
+
+    @Test
+    void testClaimNewRequest() {
+        when(repository.claimRequest(eq(ARTEFACT_ID), anyString(), any(), any())).thenReturn(1);
+
+        assertTrue(artefactRecipientRequestService.claim(artefact), "New request should be claimed");
+    }
+
+    @Test
+    void testClaimDuplicateRequest() {
+        when(repository.claimRequest(eq(ARTEFACT_ID), anyString(), any(), any())).thenReturn(0);
+
+        assertFalse(artefactRecipientRequestService.claim(artefact), "Duplicate request should not be claimed");
+    }
+
+    @Test
+    void testClaimExpiresRequestsOutsideWindow() {
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> expiry = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(repository.claimRequest(eq(ARTEFACT_ID), anyString(), now.capture(), expiry.capture())).thenReturn(1);
+
+        artefactRecipientRequestService.claim(artefact);
+
+        assertEquals(now.getValue().minusNanos(IDEMPOTENCY_WINDOW_MS * 1_000_000), expiry.getValue(),
+                     "Expiry should be the start of the idempotency window");
+    }
+
+    @Test
+    void testContentHashIsStableForSameContent() {
+        Artefact sameArtefact = new Artefact();
+        sameArtefact.setArtefactId(ARTEFACT_ID);
+        sameArtefact.setListType(ListType.CIVIL_DAILY_CAUSE_LIST);
+
+        assertEquals(artefactRecipientRequestService.contentHash(artefact),
+                     artefactRecipientRequestService.contentHash(sameArtefact), HASH_MESSAGE);
+        assertThat(artefactRecipientRequestService.contentHash(artefact)).hasSize(64);
+    }
+
+    @Test
+    void testContentHashChangesWithContent() {
+        String hash = artefactRecipientRequestService.contentHash(artefact);
+        artefact.setListType(ListType.CROWN_DAILY_LIST);
+
+        assertNotEquals(hash, artefactRecipientRequestService.contentHash(artefact), HASH_MESSAGE);
+    }
+
+    @Test
+    void testReleaseRequest() {
+        artefactRecipientRequestService.release(artefact);
+
+        verify(repository).releaseRequest(ARTEFACT_ID, artefactRecipientRequestService.contentHash(artefact));
+    }
+
+    @Test
+    void testPurgeExpiredRequests() {
+        artefactRecipientRequestService.purgeExpiredRequests();
+
+        verify(repository).deleteByCreatedDateBefore(any(LocalDateTime.class));
+    }
+}
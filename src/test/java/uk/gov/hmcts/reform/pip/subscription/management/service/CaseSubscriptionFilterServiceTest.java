@@ -0,0 +1,124 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_ID;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.CASE_URN;
+import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscription;
+
+@ExtendWith(MockitoExtension.class)
+class CaseSubscriptionFilterServiceTest {
+    private static final String SUBSCRIBED_CASE_NUMBER = "CASE123";
+    private static final String SUBSCRIBED_CASE_URN = "URN123";
+    private static final String UNSUBSCRIBED_CASE_NUMBER = "CASE456";
+    private static final String UNSUBSCRIBED_CASE_URN = "URN456";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final String FILTER_MESSAGE = "Filtered values do not match";
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CaseSubscriptionFilterService caseSubscriptionFilterService;
+
+    @BeforeEach
+    void setup() {
+        caseSubscriptionFilterService = new CaseSubscriptionFilterService(subscriptionRepository, meterRegistry,
+                                                                          true, FALSE_POSITIVE_RATE);
+    }
+
+    private void buildFilter() {
+        when(subscriptionRepository.findSearchValuesBySearchType(CASE_ID)).thenReturn(List.of(SUBSCRIBED_CASE_NUMBER));
+        when(subscriptionRepository.findSearchValuesBySearchType(CASE_URN)).thenReturn(List.of(SUBSCRIBED_CASE_URN));
+        caseSubscriptionFilterService.rebuildFilter();
+    }
+
+    @Test
+    void testAllValuesReturnedBeforeBuild() {
+        assertThat(caseSubscriptionFilterService.filterPossiblySubscribed(
+            CASE_ID, List.of(SUBSCRIBED_CASE_NUMBER, UNSUBSCRIBED_CASE_NUMBER)))
+            .as(FILTER_MESSAGE)
+            .containsExactly(SUBSCRIBED_CASE_NUMBER, UNSUBSCRIBED_CASE_NUMBER);
+    }
+
+    @Test
+    void testFilterNotBuiltWhenDisabled() {
+        CaseSubscriptionFilterService disabledFilter = new CaseSubscriptionFilterService(
+            subscriptionRepository, meterRegistry, false, FALSE_POSITIVE_RATE);
+        disabledFilter.rebuildFilter();
+
+        verify(subscriptionRepository, never()).findSearchValuesBySearchType(CASE_ID);
+        assertThat(disabledFilter.filterPossiblySubscribed(CASE_ID, List.of(UNSUBSCRIBED_CASE_NUMBER)))
+            .as(FILTER_MESSAGE)
+            .containsExactly(UNSUBSCRIBED_CASE_NUMBER);
+    }
+
+    @Test
+    void testUnsubscribedValuesRemoved() {
+        buildFilter();
+
+        assertThat(caseSubscriptionFilterService.filterPossiblySubscribed(
+            CASE_ID, List.of(SUBSCRIBED_CASE_NUMBER, UNSUBSCRIBED_CASE_NUMBER)))
+            .as(FILTER_MESSAGE)
+            .containsExactly(SUBSCRIBED_CASE_NUMBER);
+
+        assertThat(caseSubscriptionFilterService.filterPossiblySubscribed(
+            CASE_URN, List.of(SUBSCRIBED_CASE_URN, UNSUBSCRIBED_CASE_URN)))
+            .as(FILTER_MESSAGE)
+            .containsExactly(SUBSCRIBED_CASE_URN);
+    }
+
+    @Test
+    void testValuesAreMatchedBySearchType() {
+        buildFilter();
+
+        assertThat(caseSubscriptionFilterService.filterPossiblySubscribed(CASE_URN, List.of(SUBSCRIBED_CASE_NUMBER)))
+            .as(FILTER_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void testCreatedCaseSubscriptionAdded() {
+        buildFilter();
+
+        Subscription subscription = createMockSubscription("123", UNSUBSCRIBED_CASE_NUMBER, Channel.EMAIL,
+                                                           LocalDateTime.now());
+        subscription.setSearchType(CASE_ID);
+        caseSubscriptionFilterService.subscriptionSaved(subscription);
+
+        assertThat(caseSubscriptionFilterService.filterPossiblySubscribed(CASE_ID, List.of(UNSUBSCRIBED_CASE_NUMBER)))
+            .as(FILTER_MESSAGE)
+            .containsExactly(UNSUBSCRIBED_CASE_NUMBER);
+    }
+
+    @Test
+    void testMetricsRecorded() {
+        buildFilter();
+
+        assertThat(meterRegistry.get("subscription.case.filter.rebuild").timer().count())
+            .as("Rebuild timer should be recorded")
+            .isEqualTo(1);
+
+        assertThat(meterRegistry.get("subscription.case.filter.false.positive.rate").gauge().value())
+            .as("False positive rate should be below the configured rate")
+            .isLessThan(FALSE_POSITIVE_RATE);
+    }
+}
@@ -0,0 +1,126 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import nl.altindag.log.LogCaptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.model.account.PiUser;
+import uk.gov.hmcts.reform.pip.model.system.admin.ActionResult;
+import uk.gov.hmcts.reform.pip.subscription.management.models.LocationSubscriptionsDeletedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.pip.model.account.Roles.SYSTEM_ADMIN;
+import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.PI_AAD;
+import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.SSO;
+
+@ExtendWith(MockitoExtension.class)
+class LocationDeletionNotificationServiceTest {
+    private static final String LOCATION_ID = "1";
+    private static final String COURT_NAME = "test court name";
+    private static final String EMAIL_ADDRESS = "test@test.com";
+    private static final String SUBSCRIBER_EMAIL = "subscriber@test.com";
+    private static final String SUBSCRIBER_ID = "1";
+    private static final String SUBSCRIBER_WITHOUT_EMAIL_ID = "2";
+    private static final String EXPECTED_LOG_MESSAGE = "Expected log message not found";
+
+    @Mock
+    DataManagementService dataManagementService;
+
+    @Mock
+    AccountManagementService accountManagementService;
+
+    @Mock
+    PublicationServicesService publicationService;
+
+    @InjectMocks
+    LocationDeletionNotificationService locationDeletionNotificationService;
+
+    private String userId;
+    private PiUser piUser;
+    private LocationSubscriptionsDeletedEvent event;
+
+    @BeforeEach
+    void setup() {
+        userId = UUID.randomUUID().toString();
+        piUser = new PiUser();
+        piUser.setEmail(EMAIL_ADDRESS);
+        piUser.setUserId(userId);
+
+        List<String> subscriberIds = List.of(SUBSCRIBER_ID, SUBSCRIBER_WITHOUT_EMAIL_ID);
+        event = new LocationSubscriptionsDeletedEvent(LOCATION_ID, userId, subscriberIds);
+
+        when(dataManagementService.getCourtName(LOCATION_ID)).thenReturn(COURT_NAME);
+        when(accountManagementService.getMappedEmails(subscriberIds))
+            .thenReturn(Map.of(SUBSCRIBER_ID, Optional.of(SUBSCRIBER_EMAIL),
+                               SUBSCRIBER_WITHOUT_EMAIL_ID, Optional.empty()));
+    }
+
+    @Test
+    void testSubscribersAndSystemAdminsNotified() throws JsonProcessingException {
+        PiUser sysAdminUser1 = new PiUser();
+        sysAdminUser1.setEmail(EMAIL_ADDRESS);
+        sysAdminUser1.setUserProvenance(PI_AAD);
+        PiUser sysAdminUser2 = new PiUser();
+        sysAdminUser2.setEmail(EMAIL_ADDRESS);
+        sysAdminUser2.setUserProvenance(SSO);
+
+        when(accountManagementService.getUserByUserId(userId))
+            .thenReturn(Optional.of(piUser));
+        when(accountManagementService.getAllAccounts(PI_AAD.toString(), SYSTEM_ADMIN.toString()))
+            .thenReturn(List.of(sysAdminUser1));
+        when(accountManagementService.getAllAccounts(SSO.toString(), SYSTEM_ADMIN.toString()))
+            .thenReturn(List.of(sysAdminUser2));
+
+        locationDeletionNotificationService.handleLocationSubscriptionsDeleted(event);
+
+        verify(publicationService).sendLocationDeletionSubscriptionEmail(List.of(SUBSCRIBER_EMAIL), COURT_NAME);
+        verify(publicationService).sendSystemAdminEmail(List.of(EMAIL_ADDRESS, EMAIL_ADDRESS), EMAIL_ADDRESS,
+                                                        ActionResult.SUCCEEDED,
+                                                        "Total 2 subscription(s) for location " + COURT_NAME);
+    }
+
+    @Test
+    void testSystemAdminsNotNotifiedWhenUserNotFound() {
+        try (LogCaptor logCaptor = LogCaptor.forClass(LocationDeletionNotificationService.class)) {
+            when(accountManagementService.getUserByUserId(userId))
+                .thenReturn(Optional.empty());
+
+            locationDeletionNotificationService.handleLocationSubscriptionsDeleted(event);
+
+            verify(publicationService).sendLocationDeletionSubscriptionEmail(List.of(SUBSCRIBER_EMAIL), COURT_NAME);
+            verify(publicationService, never()).sendSystemAdminEmail(any(), any(), any(), any());
+            assertTrue(logCaptor.getErrorLogs().get(0).contains(
+                "User " + userId + " not found in the system when notifying system admins"), EXPECTED_LOG_MESSAGE);
+        }
+    }
+
+    @Test
+    void testSystemAdminLookupFailureIsLogged() throws JsonProcessingException {
+        try (LogCaptor logCaptor = LogCaptor.forClass(LocationDeletionNotificationService.class)) {
+            when(accountManagementService.getUserByUserId(userId))
+                .thenReturn(Optional.of(piUser));
+            when(accountManagementService.getAllAccounts(PI_AAD.toString(), SYSTEM_ADMIN.toString()))
+                .thenThrow(new JsonProcessingException("Invalid response") {});
+
+            locationDeletionNotificationService.handleLocationSubscriptionsDeleted(event);
+
+            verify(publicationService, never()).sendSystemAdminEmail(any(), any(), any(), any());
+            assertTrue(logCaptor.getErrorLogs().get(0).contains(
+                "Failed to notify system admins about the deletion of subscriptions for location " + LOCATION_ID),
+                       EXPECTED_LOG_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import uk.gov.hmcts.reform.pip.model.publication.ListType;
+import uk.gov.hmcts.reform.pip.model.publication.Sensitivity;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.DELIVERY_METRIC;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.PUBLICATION_PIPELINE;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.STAGE_ITEMS_METRIC;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationMetricsService.STAGE_METRIC;
+
+class NotificationMetricsServiceTest {
+    private static final String STAGE = "subscriptions";
+    private static final String OUTCOME = "outcome";
+    private static final String TIMER_MESSAGE = "Stage should be timed";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationMetricsService notificationMetricsService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        notificationMetricsService = new NotificationMetricsService(meterRegistry);
+    }
+
+    private Timer stageTimer(String outcome) {
+        return meterRegistry.get(STAGE_METRIC)
+            .tag("pipeline", PUBLICATION_PIPELINE)
+            .tag("stage", STAGE)
+            .tag("list.type", ListType.CIVIL_DAILY_CAUSE_LIST.name())
+            .tag("sensitivity", Sensitivity.PUBLIC.name())
+            .tag(OUTCOME, outcome)
+            .timer();
+    }
+
+    @Test
+    void testTimeBlockingStage() {
+        String result = notificationMetricsService.timeStage(PUBLICATION_PIPELINE, STAGE,
+                                                             ListType.CIVIL_DAILY_CAUSE_LIST, Sensitivity.PUBLIC,
+                                                             () -> "result");
+
+        assertEquals("result", result, "Stage result should be returned");
+        assertEquals(1, stageTimer("success").count(), TIMER_MESSAGE);
+    }
+
+    @Test
+    void testTimeFailedBlockingStage() {
+        assertThrows(IllegalStateException.class, () -> notificationMetricsService.timeStage(
+            PUBLICATION_PIPELINE, STAGE, ListType.CIVIL_DAILY_CAUSE_LIST, Sensitivity.PUBLIC,
+            () -> {
+                throw new IllegalStateException("error");
+            }));
+
+        assertEquals(1, stageTimer("failure").count(), TIMER_MESSAGE);
+    }
+
+    @Test
+    void testTimeReactiveStageWhenSubscribed() {
+        Mono<String> stage = notificationMetricsService.timeStage(PUBLICATION_PIPELINE, STAGE,
+                                                                  ListType.CIVIL_DAILY_CAUSE_LIST, Sensitivity.PUBLIC,
+                                                                  Mono.just("result"));
+        assertTrue(meterRegistry.find(STAGE_METRIC).timers().isEmpty(), "Stage should not be timed until subscribed");
+
+        stage.block();
+        assertEquals(1, stageTimer("success").count(), TIMER_MESSAGE);
+    }
+
+    @Test
+    void testTimeFailedReactiveStage() {
+        Mono<String> stage = notificationMetricsService.timeStage(PUBLICATION_PIPELINE, STAGE,
+                                                                  ListType.CIVIL_DAILY_CAUSE_LIST, Sensitivity.PUBLIC,
+                                                                  Mono.error(new IllegalStateException("error")));
+
+        assertThrows(IllegalStateException.class, stage::block);
+        assertEquals(1, stageTimer("failure").count(), TIMER_MESSAGE);
+    }
+
+    @Test
+    void testRecordStageItems() {
+        notificationMetricsService.recordStageItems(PUBLICATION_PIPELINE, STAGE, ListType.CIVIL_DAILY_CAUSE_LIST,
+                                                    Sensitivity.PUBLIC, 3);
+
+        assertEquals(3, meterRegistry.get(STAGE_ITEMS_METRIC).tag("stage", STAGE).counter().count(),
+                     "Stage items should be counted");
+    }
+
+    @Test
+    void testRecordDelivery() {
+        NotificationOutbox notification = new NotificationOutbox(UUID.randomUUID(),
+                                                                 NotificationType.SUBSCRIPTION_SUMMARY, "{}");
+        notification.setListType(ListType.CIVIL_DAILY_CAUSE_LIST);
+        notification.setSensitivity(Sensitivity.PUBLIC);
+        notification.setAcceptedDate(LocalDateTime.now().minusSeconds(5));
+
+        notificationMetricsService.recordDelivery(notification);
+
+        Timer timer = meterRegistry.get(DELIVERY_METRIC)
+            .tag("list.type", ListType.CIVIL_DAILY_CAUSE_LIST.name())
+            .tag("notification.type", NotificationType.SUBSCRIPTION_SUMMARY.name())
+            .timer();
+        assertEquals(1, timer.count(), "Delivery should be recorded");
+        assertThat(timer.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void testDeliveryNotRecordedWithoutAcceptedDate() {
+        notificationMetricsService.recordDelivery(
+            new NotificationOutbox(UUID.randomUUID(), NotificationType.SUBSCRIPTION_SUMMARY, "{}"));
+
+        assertTrue(meterRegistry.find(DELIVERY_METRIC).timers().isEmpty(), "Delivery should not be recorded");
+    }
+}
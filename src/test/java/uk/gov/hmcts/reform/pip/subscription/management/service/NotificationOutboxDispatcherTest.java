@@ -0,0 +1,194 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.altindag.log.LogCaptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.NotificationOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService.MAPPER;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxDispatcherTest {
+    private static final UUID ARTEFACT_ID = UUID.randomUUID();
+    private static final String EMAIL = "a@b.com";
+    private static final String OTHER_EMAIL = "c@d.com";
+    private static final String API_DESTINATION = "https://test.com";
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long LEASE_MS = 60_000;
+    private static final String STATUS_MESSAGE = "Notification status does not match";
+
+    @Mock
+    private NotificationOutboxRepository repository;
+
+    @Mock
+    private PublicationServicesService publicationServicesService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationOutboxDispatcher(repository, publicationServicesService,
+                                                      new NotificationMetricsService(meterRegistry),
+                                                      BATCH_SIZE, LEASE_MS, MAX_ATTEMPTS, 1000, 5000);
+    }
+
+    /**
+     * Mark the notification as claimed by the dispatcher, as the claim query would.
+     */
+    private NotificationOutbox claim(NotificationOutbox notification) {
+        notification.setId(UUID.randomUUID());
+        notification.setStatus(NotificationStatus.IN_FLIGHT);
+        notification.setAttempts(notification.getAttempts() + 1);
+        when(repository.claimDueNotifications(any(), any(), anyInt())).thenReturn(List.of(notification));
+        return notification;
+    }
+
+    private NotificationOutbox thirdPartyNotification() throws Exception {
+        NotificationOutbox notification = new NotificationOutbox(
+            ARTEFACT_ID, NotificationType.THIRD_PARTY_LIST,
+            MAPPER.writeValueAsString(new NotificationOutboxService.ThirdPartyNotification(API_DESTINATION, null)));
+        notification.setAcceptedDate(LocalDateTime.now());
+        return claim(notification);
+    }
+
+    @Test
+    void testSentNotificationIsMarkedSent() throws Exception {
+        NotificationOutbox notification = thirdPartyNotification();
+        when(publicationServicesService.sendThirdPartyList(any())).thenReturn(true);
+
+        dispatcher.dispatchDueNotifications();
+
+        verify(publicationServicesService).sendThirdPartyList(new ThirdPartySubscription(API_DESTINATION,
+                                                                                         ARTEFACT_ID));
+        verify(repository).recordOutcome(notification);
+        assertEquals(NotificationStatus.SENT, notification.getStatus(), STATUS_MESSAGE);
+        assertEquals(1, notification.getAttempts(), "Attempts should be recorded");
+        assertEquals(1, meterRegistry.get("subscription.notification.stage").tag("stage", "dispatch")
+                         .tag("outcome", "success").timer().count(), "Dispatch should be timed");
+        assertEquals(1, meterRegistry.get("subscription.notification.delivery").timer().count(),
+                     "Delivery time should be recorded");
+    }
+
+    @Test
+    void testFailedNotificationIsRetriedLater() throws Exception {
+        NotificationOutbox notification = thirdPartyNotification();
+        when(publicationServicesService.sendThirdPartyList(any())).thenReturn(false);
+
+        dispatcher.dispatchDueNotifications();
+
+        assertEquals(NotificationStatus.PENDING, notification.getStatus(), STATUS_MESSAGE);
+        assertEquals(1, notification.getAttempts(), "Attempts should be recorded");
+        assertThat(notification.getNextAttemptDate()).isAfter(LocalDateTime.now());
+        assertThat(notification.getLastError()).isNotNull();
+    }
+
+    @Test
+    void testNotificationFailsAfterMaxAttempts() throws Exception {
+        NotificationOutbox notification = thirdPartyNotification();
+        notification.setAttempts(MAX_ATTEMPTS);
+        when(publicationServicesService.sendThirdPartyList(any())).thenThrow(new IllegalStateException("error"));
+
+        dispatcher.dispatchDueNotifications();
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus(), STATUS_MESSAGE);
+        assertEquals(MAX_ATTEMPTS, notification.getAttempts(), "Attempts should be recorded");
+        assertEquals("error", notification.getLastError(), "Last error does not match");
+    }
+
+    @Test
+    void testUnreadablePayloadFailsNotification() {
+        NotificationOutbox notification = claim(new NotificationOutbox(
+            ARTEFACT_ID, NotificationType.THIRD_PARTY_DELETION, "not json"));
+
+        dispatcher.dispatchDueNotifications();
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus(), STATUS_MESSAGE);
+        verify(publicationServicesService, never()).sendEmptyArtefact(any());
+    }
+
+    @Test
+    void testPartiallySentSummaryOnlyRetriesUnsentRecipients() throws Exception {
+        Map<String, List<SubscriptionRecipient>> unsent = Map.of(
+            OTHER_EMAIL, List.of(new SubscriptionRecipient(null, SearchType.CASE_ID, null, Channel.EMAIL)));
+        // Queued with full subscriptions, which can still be read as recipients
+        NotificationOutbox notification = claim(new NotificationOutbox(
+            ARTEFACT_ID, NotificationType.SUBSCRIPTION_SUMMARY,
+            MAPPER.writeValueAsString(Map.of(EMAIL, List.of(new Subscription()),
+                                             OTHER_EMAIL, List.of(new Subscription())))));
+        when(publicationServicesService.postSubscriptionSummaries(eq(ARTEFACT_ID), any())).thenReturn(unsent);
+
+        dispatcher.dispatchDueNotifications();
+
+        assertEquals(NotificationStatus.PENDING, notification.getStatus(), STATUS_MESSAGE);
+        assertThat(MAPPER.readTree(notification.getPayload()).fieldNames()).toIterable().containsOnly(OTHER_EMAIL);
+    }
+
+    @Test
+    void testDispatchesUntilNoFullBatchRemains() {
+        when(repository.claimDueNotifications(any(), any(), anyInt())).thenReturn(List.of());
+
+        dispatcher.dispatchDueNotifications();
+
+        verify(repository).claimDueNotifications(any(), any(), eq(BATCH_SIZE));
+        verify(publicationServicesService, never()).sendThirdPartyList(any());
+    }
+
+    @Test
+    void testNotificationsAreClaimedForTheLease() {
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseExpiryCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(repository.claimDueNotifications(nowCaptor.capture(), leaseExpiryCaptor.capture(), eq(BATCH_SIZE)))
+            .thenReturn(List.of());
+
+        dispatcher.dispatchDueNotifications();
+
+        assertEquals(nowCaptor.getValue().plus(Duration.ofMillis(LEASE_MS)), leaseExpiryCaptor.getValue(),
+                     "Notifications should be claimed until the lease expires");
+    }
+
+    @Test
+    void testNotificationIsSentWhenOutcomeCannotBeRecorded() throws Exception {
+        NotificationOutbox notification = thirdPartyNotification();
+        when(publicationServicesService.sendThirdPartyList(any())).thenReturn(true);
+        when(repository.recordOutcome(notification)).thenReturn(0);
+
+        try (LogCaptor logCaptor = LogCaptor.forClass(NotificationOutboxDispatcher.class)) {
+            dispatcher.dispatchDueNotifications();
+
+            assertThat(logCaptor.getWarnLogs())
+                .as("Lost claim should be logged")
+                .anyMatch(message -> message.contains("lease expired"));
+        }
+    }
+}
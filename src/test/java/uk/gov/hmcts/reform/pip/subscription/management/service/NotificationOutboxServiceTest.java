@@ -0,0 +1,111 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.model.publication.Artefact;
+import uk.gov.hmcts.reform.pip.model.publication.ListType;
+import uk.gov.hmcts.reform.pip.model.publication.Sensitivity;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationOutbox;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationStatus;
+import uk.gov.hmcts.reform.pip.subscription.management.models.NotificationType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.NotificationOutboxRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService.ThirdPartyNotification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.pip.subscription.management.service.NotificationOutboxService.MAPPER;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTest {
+    private static final UUID ARTEFACT_ID = UUID.randomUUID();
+    private static final String API_DESTINATION = "https://test.com";
+    private static final String EMAIL = "a@b.com";
+    private static final SubscriptionRecipient RECIPIENT = new SubscriptionRecipient(
+        "123", SearchType.CASE_ID, "456", Channel.EMAIL);
+
+    @Mock
+    private NotificationOutboxRepository repository;
+
+    private NotificationOutboxService notificationOutboxService;
+
+    private Artefact artefact;
+
+    @BeforeEach
+    void setup() {
+        notificationOutboxService = new NotificationOutboxService(repository, 7);
+
+        artefact = new Artefact();
+        artefact.setArtefactId(ARTEFACT_ID);
+        artefact.setListType(ListType.CIVIL_DAILY_CAUSE_LIST);
+        artefact.setSensitivity(Sensitivity.PUBLIC);
+    }
+
+    private NotificationOutbox captureSavedNotification() {
+        ArgumentCaptor<NotificationOutbox> captor = ArgumentCaptor.forClass(NotificationOutbox.class);
+        verify(repository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testQueueSubscriptionSummaries() throws Exception {
+        LocalDateTime acceptedDate = LocalDateTime.now();
+        notificationOutboxService.queueSubscriptionSummaries(artefact, acceptedDate,
+                                                             Map.of(EMAIL, List.of(RECIPIENT)));
+
+        NotificationOutbox notification = captureSavedNotification();
+        assertEquals(ARTEFACT_ID, notification.getArtefactId(), "Artefact id does not match");
+        assertEquals(ListType.CIVIL_DAILY_CAUSE_LIST, notification.getListType(), "List type does not match");
+        assertEquals(Sensitivity.PUBLIC, notification.getSensitivity(), "Sensitivity does not match");
+        assertEquals(acceptedDate, notification.getAcceptedDate(), "Accepted date does not match");
+        assertEquals(NotificationType.SUBSCRIPTION_SUMMARY, notification.getNotificationType(),
+                     "Notification type does not match");
+        assertEquals(NotificationStatus.PENDING, notification.getStatus(), "Notification should be pending");
+        assertThat(MAPPER.readTree(notification.getPayload()).has(EMAIL)).isTrue();
+    }
+
+    @Test
+    void testQueueThirdPartyList() throws Exception {
+        notificationOutboxService.queueThirdPartyList(API_DESTINATION, artefact, LocalDateTime.now());
+
+        NotificationOutbox notification = captureSavedNotification();
+        assertEquals(NotificationType.THIRD_PARTY_LIST, notification.getNotificationType(),
+                     "Notification type does not match");
+        assertEquals(API_DESTINATION, MAPPER.readValue(notification.getPayload(), ThirdPartyNotification.class)
+                         .apiDestination(), "Api destination does not match");
+    }
+
+    @Test
+    void testQueueThirdPartyDeletion() throws Exception {
+        notificationOutboxService.queueThirdPartyDeletion(API_DESTINATION, artefact, LocalDateTime.now());
+
+        NotificationOutbox notification = captureSavedNotification();
+        assertEquals(ARTEFACT_ID, notification.getArtefactId(), "Artefact id does not match");
+        assertEquals(NotificationType.THIRD_PARTY_DELETION, notification.getNotificationType(),
+                     "Notification type does not match");
+        assertEquals(ARTEFACT_ID, MAPPER.readValue(notification.getPayload(), ThirdPartyNotification.class)
+                         .artefact().getArtefactId(), "Artefact does not match");
+    }
+
+    @Test
+    void testPurgeSentAndFailedNotifications() {
+        notificationOutboxService.purgeCompletedNotifications();
+
+        verify(repository).deleteByStatusInAndLastAttemptDateBefore(
+            eq(List.of(NotificationStatus.SENT, NotificationStatus.FAILED)), any(LocalDateTime.class));
+    }
+}
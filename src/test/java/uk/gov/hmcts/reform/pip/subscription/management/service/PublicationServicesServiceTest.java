@@ -2,6 +2,8 @@ package uk.gov.hmcts.reform.pip.subscription.management.service;
 
 import com.azure.core.http.ContentType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nl.altindag.log.LogCaptor;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -13,24 +15,30 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.publication.Artefact;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
 import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
 import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscription;
 import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscriptionArtefact;
 import uk.gov.hmcts.reform.pip.model.system.admin.ActionResult;
 import uk.gov.hmcts.reform.pip.subscription.management.models.BulkSubscriptionsSummary;
-import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionsSummary;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionsSummaryDetails;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -41,6 +49,7 @@ class PublicationServicesServiceTest {
     private static final String TEST_ID = "123";
     private static final UUID ARTEFACT_ID = UUID.randomUUID();
     private static final String EMAIL = "a@b.com";
+    private static final String OTHER_EMAIL = "c@d.com";
     private static final String EMPTY_LOG_EMPTY_MESSAGE = "Error log not empty";
     private static final String EMPTY_LOG_MATCH_MESSAGE = "Error log does not match";
     private static final String TEST_API_DESTINATION = "http://www.abc.com";
@@ -48,23 +57,31 @@ class PublicationServicesServiceTest {
     private static final Artefact TEST_ARTEFACT = new Artefact();
 
     private final SubscriptionsSummary subscriptionsSummary = new SubscriptionsSummary();
-    private final Subscription subscription = new Subscription();
+    private SubscriptionRecipient subscription;
     private final LogCaptor logCaptor = LogCaptor.forClass(PublicationServicesService.class);
 
     private final MockWebServer mockPublicationServicesEndpoint = new MockWebServer();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SubscriptionRecipient createRecipient(SearchType searchType) {
+        return new SubscriptionRecipient(null, searchType, TEST_ID, Channel.EMAIL);
+    }
+
     private PublicationServicesService publicationServicesService;
 
 
     @BeforeEach
     void setup() {
         subscriptionsSummary.setEmail("a@b.com");
-        subscription.setSearchType(SearchType.CASE_ID);
-        subscription.setSearchValue(TEST_ID);
+        subscription = createRecipient(SearchType.CASE_ID);
+
+        publicationServicesService = createPublicationServicesService(100);
+    }
 
+    private PublicationServicesService createPublicationServicesService(int chunkSize) {
         WebClient mockedWebClient = WebClient.builder()
             .baseUrl(mockPublicationServicesEndpoint.url("/").toString())
             .build();
-        publicationServicesService = new PublicationServicesService(mockedWebClient);
+        return new PublicationServicesService(mockedWebClient, meterRegistry, chunkSize, 2, 1, 1);
     }
 
     @AfterEach
@@ -74,8 +91,8 @@ class PublicationServicesServiceTest {
 
     @Test
     void testPostSubscriptionSummariesRequestUrl() throws InterruptedException {
-        subscription.setSearchType(SearchType.LIST_TYPE);
-        Map<String, List<Subscription>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscription = createRecipient(SearchType.LIST_TYPE);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
         subscriptionsMap.put(EMAIL, List.of(subscription));
 
         mockPublicationServicesEndpoint.enqueue(new MockResponse()
@@ -93,8 +110,8 @@ class PublicationServicesServiceTest {
 
     @Test
     void testPostSubscriptionSummariesRequestBodyEmail() throws IOException, InterruptedException {
-        subscription.setSearchType(SearchType.LIST_TYPE);
-        Map<String, List<Subscription>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscription = createRecipient(SearchType.LIST_TYPE);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
         subscriptionsMap.put(EMAIL, List.of(subscription));
 
         mockPublicationServicesEndpoint.enqueue(new MockResponse()
@@ -115,8 +132,8 @@ class PublicationServicesServiceTest {
 
     @Test
     void testPostSubscriptionSummariesRequestBodyArtefactId() throws IOException, InterruptedException {
-        subscription.setSearchType(SearchType.LIST_TYPE);
-        Map<String, List<Subscription>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscription = createRecipient(SearchType.LIST_TYPE);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
         subscriptionsMap.put(EMAIL, List.of(subscription));
 
         mockPublicationServicesEndpoint.enqueue(new MockResponse()
@@ -138,8 +155,8 @@ class PublicationServicesServiceTest {
     @EnumSource(value = SearchType.class, names = {"LOCATION_ID", "CASE_URN", "CASE_ID"})
     void testPostSubscriptionDifferentTypes(SearchType searchType)
         throws InterruptedException, IOException {
-        subscription.setSearchType(searchType);
-        Map<String, List<Subscription>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscription = createRecipient(searchType);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
         subscriptionsMap.put(EMAIL, List.of(subscription));
 
         mockPublicationServicesEndpoint.enqueue(new MockResponse()
@@ -184,8 +201,8 @@ class PublicationServicesServiceTest {
 
     @Test
     void testPostSubscriptionSummariesWhenMultipleSubscriptions() throws InterruptedException, IOException {
-        subscription.setSearchType(SearchType.LOCATION_ID);
-        Map<String, List<Subscription>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscription = createRecipient(SearchType.LOCATION_ID);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
         subscriptionsMap.put(EMAIL, List.of(subscription));
         subscriptionsMap.put("OtherTestEmail", List.of(subscription));
 
@@ -208,7 +225,7 @@ class PublicationServicesServiceTest {
 
     @Test
     void testPostSubscriptionSummariesThrows() {
-        Map<String, List<Subscription>> subscriptionsMap = new ConcurrentHashMap<>();
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
         subscriptionsMap.put(EMAIL, List.of(subscription));
 
         mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(404));
@@ -222,15 +239,107 @@ class PublicationServicesServiceTest {
         );
     }
 
+    @Test
+    void testPostSubscriptionSummariesInChunks() throws InterruptedException, IOException {
+        publicationServicesService = createPublicationServicesService(1);
+        subscription = createRecipient(SearchType.LOCATION_ID);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscriptionsMap.put(EMAIL, List.of(subscription));
+        subscriptionsMap.put(OTHER_EMAIL, List.of(subscription));
+
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(200));
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(200));
+
+        publicationServicesService.postSubscriptionSummaries(ARTEFACT_ID, subscriptionsMap);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> sentEmails = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            BulkSubscriptionsSummary bulkSubscriptionsSummary = objectMapper.readValue(
+                mockPublicationServicesEndpoint.takeRequest().getBody().readByteArray(),
+                BulkSubscriptionsSummary.class);
+            assertEquals(1, bulkSubscriptionsSummary.getSubscriptionEmails().size(),
+                         "Each chunk should contain a single recipient");
+            sentEmails.add(bulkSubscriptionsSummary.getSubscriptionEmails().get(0).getEmail());
+        }
+
+        assertThat(sentEmails)
+            .as("Every recipient should be sent")
+            .containsExactlyInAnyOrder(EMAIL, OTHER_EMAIL);
+        assertEquals(2, meterRegistry.get("subscription.summary.chunk").tag("outcome", "success").timer().count(),
+                     "Chunk latency should be recorded");
+        assertEquals(2, meterRegistry.get("subscription.summary.chunk.size").summary().count(),
+                     "Chunk size should be recorded");
+    }
+
+    @Test
+    void testPostSubscriptionSummariesRetriesFailedChunk() {
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscriptionsMap.put(EMAIL, List.of(subscription));
+
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(503));
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(200));
+
+        publicationServicesService.postSubscriptionSummaries(ARTEFACT_ID, subscriptionsMap);
+
+        assertEquals(2, mockPublicationServicesEndpoint.getRequestCount(), "Failed chunk should be retried");
+        assertTrue(logCaptor.getErrorLogs().isEmpty(), EMPTY_LOG_EMPTY_MESSAGE);
+    }
+
+    @Test
+    void testPostSubscriptionSummariesFailedChunkDoesNotStopOtherChunks() {
+        publicationServicesService = createPublicationServicesService(1);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscriptionsMap.put(EMAIL, List.of(subscription));
+        subscriptionsMap.put(OTHER_EMAIL, List.of(subscription));
+
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(400));
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(200));
+
+        Map<String, List<SubscriptionRecipient>> unsent = publicationServicesService.postSubscriptionSummaries(
+            ARTEFACT_ID, subscriptionsMap);
+
+        assertEquals(2, mockPublicationServicesEndpoint.getRequestCount(), "Every chunk should be sent");
+        assertEquals(1, unsent.size(), "Only the recipients of the failed chunk should be returned");
+        assertEquals(1, logCaptor.getErrorLogs().size(), "Only the failed chunk should be logged");
+        assertEquals(1, meterRegistry.get("subscription.summary.chunk").tag("outcome", "failure").timer().count(),
+                     "Failed chunk should be recorded");
+    }
+
+    @Test
+    void testPostSubscriptionSummariesAnyChunkErrorIsRecordedAsFailure() {
+        AtomicInteger attempts = new AtomicInteger();
+        WebClient failingWebClient = WebClient.builder()
+            .baseUrl(mockPublicationServicesEndpoint.url("/").toString())
+            .filter((request, next) -> attempts.getAndIncrement() == 0
+                ? Mono.error(new IllegalStateException("Authorisation failed"))
+                : next.exchange(request))
+            .build();
+        publicationServicesService = new PublicationServicesService(failingWebClient, meterRegistry, 1, 2, 1, 1);
+        Map<String, List<SubscriptionRecipient>> subscriptionsMap = new ConcurrentHashMap<>();
+        subscriptionsMap.put(EMAIL, List.of(subscription));
+        subscriptionsMap.put(OTHER_EMAIL, List.of(subscription));
+
+        mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(200));
+
+        Map<String, List<SubscriptionRecipient>> unsent = publicationServicesService.postSubscriptionSummaries(
+            ARTEFACT_ID, subscriptionsMap);
+
+        assertEquals(1, mockPublicationServicesEndpoint.getRequestCount(), "Other chunks should still be sent");
+        assertEquals(1, unsent.size(), "Only the recipients of the failed chunk should be returned");
+        assertEquals(1, meterRegistry.get("subscription.summary.chunk").tag("outcome", "failure").timer().count(),
+                     "Failed chunk should be recorded");
+    }
+
     @Test
     void testSendThirdPartyList() {
         mockPublicationServicesEndpoint.enqueue(new MockResponse()
                                                     .addHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON)
                                                     .setResponseCode(200));
 
-        publicationServicesService.sendThirdPartyList(
+        assertTrue(publicationServicesService.sendThirdPartyList(
             new ThirdPartySubscription(TEST_API_DESTINATION, UUID.randomUUID())
-        );
+        ), "Third party list should be sent");
         assertTrue(logCaptor.getErrorLogs().isEmpty(), EMPTY_LOG_EMPTY_MESSAGE);
     }
 
@@ -265,9 +374,9 @@ class PublicationServicesServiceTest {
     void testSendThirdPartyListReturnsFailed() {
         mockPublicationServicesEndpoint.enqueue(new MockResponse().setResponseCode(404));
 
-        publicationServicesService.sendThirdPartyList(
+        assertFalse(publicationServicesService.sendThirdPartyList(
             new ThirdPartySubscription(TEST_API_DESTINATION, UUID.randomUUID())
-        );
+        ), "Failed third party list should be reported");
         assertTrue(
             logCaptor.getErrorLogs().get(0).contains("Publication to third party failed to send with error"),
             EMPTY_LOG_MATCH_MESSAGE
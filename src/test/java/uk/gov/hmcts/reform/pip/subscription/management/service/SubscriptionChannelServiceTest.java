@@ -6,9 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
 import uk.gov.hmcts.reform.pip.subscription.management.config.ThirdPartyApiConfigurationProperties;
-import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 
 import java.util.List;
 import java.util.Map;
@@ -24,11 +26,13 @@ import static org.mockito.Mockito.when;
 class SubscriptionChannelServiceTest {
 
     private static final String COURTEL_VALUE = "testCourtelValue";
-    private static final Subscription SUB1 = new Subscription();
-    private static final Subscription SUB2 = new Subscription();
-    private static final Subscription SUB3 = new Subscription();
     private static final String USER1 = "testUser1";
     private static final String USER2 = "testUser2";
+    private static final SubscriptionRecipient SUB1 = createRecipient(USER1, Channel.EMAIL);
+    private static final SubscriptionRecipient SUB2 = createRecipient(USER2, Channel.EMAIL);
+    private static final SubscriptionRecipient SUB3 = createRecipient(USER2, Channel.EMAIL);
+    private static final SubscriptionRecipient SECOND_USER1_SUB = new SubscriptionRecipient(
+        USER1, SearchType.CASE_ID, "testCaseNumber", Channel.EMAIL);
     private static final String TEST_EMAIL_1 = "test@user.com";
     private static final String TEST_EMAIL_2 = "dave@email.com";
 
@@ -50,6 +54,10 @@ class SubscriptionChannelServiceTest {
     @InjectMocks
     SubscriptionChannelService subscriptionChannelService;
 
+    private static SubscriptionRecipient createRecipient(String userId, Channel channel) {
+        return new SubscriptionRecipient(userId, SearchType.LOCATION_ID, "1", channel);
+    }
+
     @Test
     void buildEmailSubscriptionsSuccess() {
         Map<String, Optional<String>> userEmailsMap = Map.of(
@@ -57,17 +65,14 @@ class SubscriptionChannelServiceTest {
             USER1, Optional.of(TEST_EMAIL_1)
         );
 
-        SUB1.setUserId(USER1);
-        SUB2.setUserId(USER2);
-
-        Map<String, List<Subscription>> expectedMap = Map.of(
+        Map<String, List<SubscriptionRecipient>> expectedMap = Map.of(
             TEST_EMAIL_1, List.of(SUB1),
             TEST_EMAIL_2, List.of(SUB2)
         );
 
-        doReturn(userEmailsMap).when(accountManagementService).getMappedEmails(any());
+        doReturn(Mono.just(userEmailsMap)).when(accountManagementService).findMappedEmails(any());
 
-        assertThat(subscriptionChannelService.buildEmailSubscriptions(List.of(SUB1, SUB2)))
+        assertThat(subscriptionChannelService.buildEmailSubscriptions(List.of(SUB1, SUB2)).block())
             .as(EMAIL_SUBSCRIPTIONS_MESSAGE)
             .isEqualTo(expectedMap);
 
@@ -78,9 +83,9 @@ class SubscriptionChannelServiceTest {
 
     @Test
     void testBuildEmailSubscriptionsWithNoMappedEmails() {
-        when(accountManagementService.getMappedEmails(any())).thenReturn(new ConcurrentHashMap<>());
+        when(accountManagementService.findMappedEmails(any())).thenReturn(Mono.just(new ConcurrentHashMap<>()));
 
-        assertThat(subscriptionChannelService.buildEmailSubscriptions(List.of(SUB1, SUB2)))
+        assertThat(subscriptionChannelService.buildEmailSubscriptions(List.of(SUB1, SUB2)).block())
             .as(EMAIL_SUBSCRIPTIONS_MESSAGE)
             .isEmpty();
 
@@ -95,10 +100,7 @@ class SubscriptionChannelServiceTest {
 
     @Test
     void testDeduplicateSubscriptionsWithNoDuplication() {
-        SUB1.setUserId(USER1);
-        SUB2.setUserId(USER2);
-
-        Map<String, List<Subscription>> expectedResponse = Map.of(
+        Map<String, List<SubscriptionRecipient>> expectedResponse = Map.of(
             USER1, List.of(SUB1),
             USER2, List.of(SUB2)
         );
@@ -110,16 +112,12 @@ class SubscriptionChannelServiceTest {
 
     @Test
     void testDeduplicateSubscriptionsWithDuplications() {
-        SUB1.setUserId(USER1);
-        SUB2.setUserId(USER1);
-        SUB3.setUserId(USER2);
-
-        Map<String, List<Subscription>> expectedResponse = Map.of(
-            USER1, List.of(SUB1, SUB2),
+        Map<String, List<SubscriptionRecipient>> expectedResponse = Map.of(
+            USER1, List.of(SUB1, SECOND_USER1_SUB),
             USER2, List.of(SUB3)
         );
 
-        assertThat(subscriptionChannelService.deduplicateSubscriptions(List.of(SUB1, SUB2, SUB3)))
+        assertThat(subscriptionChannelService.deduplicateSubscriptions(List.of(SUB1, SECOND_USER1_SUB, SUB3)))
             .as(DEDUPLICATION_MESSAGE)
             .isEqualTo(expectedResponse);
     }
@@ -130,11 +128,11 @@ class SubscriptionChannelServiceTest {
         emailMap.put(USER1, Optional.of(TEST_EMAIL_1));
         emailMap.put(USER2, Optional.of(TEST_EMAIL_2));
 
-        Map<String, List<Subscription>> subsMap = new ConcurrentHashMap<>();
+        Map<String, List<SubscriptionRecipient>> subsMap = new ConcurrentHashMap<>();
         subsMap.put(USER1, List.of(SUB1, SUB2));
         subsMap.put(USER2, List.of(SUB3));
 
-        Map<String, List<Subscription>> expectedResponse = Map.of(
+        Map<String, List<SubscriptionRecipient>> expectedResponse = Map.of(
             TEST_EMAIL_1, List.of(SUB1, SUB2),
             TEST_EMAIL_2, List.of(SUB3)
         );
@@ -150,11 +148,11 @@ class SubscriptionChannelServiceTest {
         emailMap.put(USER1, Optional.of(TEST_EMAIL_1));
         emailMap.put(USER2, Optional.empty());
 
-        Map<String, List<Subscription>> subsMap = new ConcurrentHashMap<>();
+        Map<String, List<SubscriptionRecipient>> subsMap = new ConcurrentHashMap<>();
         subsMap.put(USER1, List.of(SUB1, SUB2));
         subsMap.put(USER2, List.of(SUB3));
 
-        Map<String, List<Subscription>> expectedResponse = new ConcurrentHashMap<>();
+        Map<String, List<SubscriptionRecipient>> expectedResponse = new ConcurrentHashMap<>();
         expectedResponse.put(TEST_EMAIL_1, List.of(SUB1, SUB2));
 
         assertThat(subscriptionChannelService.userIdToUserEmailSwitcher(subsMap, emailMap))
@@ -167,16 +165,16 @@ class SubscriptionChannelServiceTest {
     void testBuildApiSubscriptionsSuccess() {
         when(thirdPartyApi.getCourtel()).thenReturn(COURTEL_VALUE);
 
-        SUB1.setUserId(USER1);
-        SUB1.setChannel(Channel.API_COURTEL);
-        SUB2.setUserId(USER1);
-        SUB2.setChannel(Channel.API_COURTEL);
+        SubscriptionRecipient apiSubscription = createRecipient(USER1, Channel.API_COURTEL);
+        SubscriptionRecipient secondApiSubscription = new SubscriptionRecipient(
+            USER1, SearchType.LIST_TYPE, "testListType", Channel.API_COURTEL);
 
-        Map<String, List<Subscription>> expected = Map.of(
-            COURTEL_VALUE, List.of(SUB1, SUB2)
+        Map<String, List<SubscriptionRecipient>> expected = Map.of(
+            COURTEL_VALUE, List.of(apiSubscription, secondApiSubscription)
         );
 
-        assertThat(subscriptionChannelService.buildApiSubscriptions(List.of(SUB1, SUB2)))
+        assertThat(subscriptionChannelService.buildApiSubscriptions(List.of(apiSubscription,
+                                                                            secondApiSubscription)))
             .as(API_SUBSCRIPTIONS_MESSAGE)
             .isEqualTo(expected);
 
@@ -187,14 +185,11 @@ class SubscriptionChannelServiceTest {
 
     @Test
     void testBuildApiSubscriptionsWithInvalidApiChannel() {
-        SUB1.setUserId(USER1);
-        SUB1.setChannel(Channel.API_COURTEL);
-        SUB2.setUserId(USER2);
-        SUB2.setChannel(Channel.EMAIL);
+        SubscriptionRecipient apiSubscription = createRecipient(USER1, Channel.API_COURTEL);
 
         when(thirdPartyApi.getCourtel()).thenReturn(COURTEL_VALUE);
 
-        assertThat(subscriptionChannelService.buildApiSubscriptions(List.of(SUB1, SUB2)))
+        assertThat(subscriptionChannelService.buildApiSubscriptions(List.of(apiSubscription, SUB2)))
             .as(API_SUBSCRIPTIONS_MESSAGE)
             .isEmpty();
 
@@ -0,0 +1,362 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.DeletionJobNotFoundException;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJob;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobState;
+import uk.gov.hmcts.reform.pip.subscription.management.models.DeletionJobType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.LocationSubscriptionsDeletedEvent;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.DeletionJobRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionListTypeRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.pip.model.subscription.SearchType.LOCATION_ID;
+import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscription;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionDeletionJobServiceTest {
+    private static final String LOCATION_ID_VALUE = "1";
+    private static final String USER_ID = "user1";
+    private static final String OTHER_USER_ID = "user2";
+    private static final String ACTIONING_USER_ID = "admin";
+    private static final String LOCATION_NAME_PREFIX = "TEST_PIP_1234_";
+    private static final int CHUNK_SIZE = 2;
+    private static final long STALE_AFTER_MS = 600_000;
+    private static final LocalDateTime CREATED_DATE = LocalDateTime.now();
+
+    private static final String STATE_MESSAGE = "Job state does not match";
+    private static final String DELETED_COUNT_MESSAGE = "Deleted count does not match";
+
+    @Mock
+    private DeletionJobRepository deletionJobRepository;
+
+    @Mock
+    private SubscriptionRepository repository;
+
+    @Mock
+    private SubscriptionListTypeRepository subscriptionListTypeRepository;
+
+    @Mock
+    private SubscriptionIndexService subscriptionIndexService;
+
+    @Mock
+    private ViewRefreshSchedulerService viewRefreshSchedulerService;
+
+    @Mock
+    private AccountManagementService accountManagementService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Subscription subscription1 = createMockSubscription(USER_ID, LOCATION_ID_VALUE, Channel.EMAIL,
+                                                                      CREATED_DATE);
+    private final Subscription subscription2 = createMockSubscription(OTHER_USER_ID, LOCATION_ID_VALUE, Channel.EMAIL,
+                                                                      CREATED_DATE);
+    private final Subscription subscription3 = createMockSubscription(USER_ID, LOCATION_ID_VALUE, Channel.EMAIL,
+                                                                      CREATED_DATE);
+
+    private SubscriptionDeletionJobService deletionJobService;
+
+    private DeletionJob savedJob;
+
+    @BeforeEach
+    void setup() {
+        deletionJobService = createService(new SyncTaskExecutor());
+    }
+
+    private SubscriptionDeletionJobService createService(TaskExecutor taskExecutor) {
+        return new SubscriptionDeletionJobService(deletionJobRepository, repository, subscriptionListTypeRepository,
+                                                  subscriptionIndexService, viewRefreshSchedulerService,
+                                                  accountManagementService, eventPublisher, transactionManager,
+                                                  taskExecutor, CHUNK_SIZE, STALE_AFTER_MS);
+    }
+
+    private void saveJobs() {
+        when(deletionJobRepository.save(any())).thenAnswer(invocation -> {
+            savedJob = invocation.getArgument(0);
+            if (savedJob.getId() == null) {
+                savedJob.setId(UUID.randomUUID());
+            }
+            return savedJob;
+        });
+        lenient().when(deletionJobRepository.findById(any())).thenAnswer(invocation -> Optional.of(savedJob));
+    }
+
+    private void ownJobs() {
+        lenient().when(deletionJobRepository.startJob(any(), any(), anyInt(), any())).thenReturn(1);
+        lenient().when(deletionJobRepository.addDeletedCount(any(), any(), anyInt(), any(), any())).thenReturn(1);
+        lenient().when(deletionJobRepository.completeJob(any(), any(), any(), any(), any())).thenReturn(1);
+    }
+
+    private void claimSavedJob() {
+        when(deletionJobRepository.claimStaleJobs(any(), any(), any())).thenAnswer(invocation -> {
+            savedJob.setOwner(invocation.getArgument(2));
+            return List.of(savedJob.getId());
+        });
+    }
+
+    @Test
+    void testLocationDeletionDeletesInChunks() {
+        saveJobs();
+        ownJobs();
+        when(repository.countBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE)).thenReturn(3L);
+        when(repository.findBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1, subscription2), List.of(subscription3), List.of());
+        when(subscriptionListTypeRepository.deleteOrphanedByUserIdIn(any()))
+            .thenReturn(List.of(), List.of(USER_ID));
+
+        DeletionJob job = deletionJobService.submitLocationDeletion(LOCATION_ID_VALUE, ACTIONING_USER_ID);
+
+        verify(repository).deleteByIdIn(List.of(subscription1.getId(), subscription2.getId()));
+        verify(repository).deleteByIdIn(List.of(subscription3.getId()));
+        verify(deletionJobRepository).addDeletedCount(eq(job.getId()), eq(job.getOwner()), eq(2),
+                                                      eq(new String[] {USER_ID, OTHER_USER_ID}),
+                                                      any(LocalDateTime.class));
+        verify(deletionJobRepository).addDeletedCount(eq(job.getId()), eq(job.getOwner()), eq(1),
+                                                      eq(new String[] {USER_ID}), any(LocalDateTime.class));
+        verify(subscriptionListTypeRepository).deleteOrphanedByUserIdIn(new String[] {USER_ID, OTHER_USER_ID});
+        verify(subscriptionListTypeRepository).deleteOrphanedByUserIdIn(new String[] {USER_ID});
+        verify(subscriptionIndexService, times(1)).listTypeDeleted(USER_ID);
+        verify(eventPublisher).publishEvent(new LocationSubscriptionsDeletedEvent(
+            LOCATION_ID_VALUE, ACTIONING_USER_ID, List.of(USER_ID, OTHER_USER_ID, USER_ID)));
+
+        assertThat(job.getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(DeletionJobState.COMPLETED);
+        assertThat(job.getTotalCount())
+            .as("Total count does not match")
+            .isEqualTo(3);
+        assertThat(job.getDeletedCount())
+            .as(DELETED_COUNT_MESSAGE)
+            .isEqualTo(3);
+    }
+
+    @Test
+    void testLocationDeletionWithNoSubscriptions() {
+        saveJobs();
+        ownJobs();
+        when(repository.findBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of());
+
+        DeletionJob job = deletionJobService.submitLocationDeletion(LOCATION_ID_VALUE, ACTIONING_USER_ID);
+
+        verify(repository, never()).deleteByIdIn(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(job.getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(DeletionJobState.COMPLETED);
+    }
+
+    @Test
+    void testUserDeletionDeletesListTypesOnceSubscriptionsDeleted() {
+        saveJobs();
+        ownJobs();
+        when(repository.findByUserId(USER_ID, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1, subscription3), List.of());
+
+        DeletionJob job = deletionJobService.submitUserDeletion(USER_ID, ACTIONING_USER_ID);
+
+        verify(repository).deleteByIdIn(List.of(subscription1.getId(), subscription3.getId()));
+        verify(subscriptionListTypeRepository).deleteByUserId(USER_ID);
+        verify(subscriptionIndexService).userSubscriptionsDeleted(USER_ID);
+        verify(accountManagementService).evictUserAuthorisation(USER_ID);
+        assertThat(job.getJobType())
+            .as("Job type does not match")
+            .isEqualTo(DeletionJobType.USER);
+        assertThat(job.getDeletedCount())
+            .as(DELETED_COUNT_MESSAGE)
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testLocationNamePrefixDeletion() {
+        saveJobs();
+        ownJobs();
+        when(repository.findByLocationNameStartingWithIgnoreCase(LOCATION_NAME_PREFIX, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1), List.of());
+
+        DeletionJob job = deletionJobService.submitLocationNamePrefixDeletion(LOCATION_NAME_PREFIX);
+
+        verify(repository).deleteByIdIn(List.of(subscription1.getId()));
+        verify(subscriptionListTypeRepository, never()).deleteOrphanedByUserIdIn(any());
+        verify(viewRefreshSchedulerService, times(1)).recordWrites(1);
+        assertThat(job.getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(DeletionJobState.COMPLETED);
+    }
+
+    @Test
+    void testFailedDeletionIsRecorded() {
+        saveJobs();
+        ownJobs();
+        when(repository.findBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1));
+        doThrow(new IllegalStateException("Delete failed")).when(repository).deleteByIdIn(any());
+
+        DeletionJob job = deletionJobService.submitLocationDeletion(LOCATION_ID_VALUE, ACTIONING_USER_ID);
+
+        assertThat(job.getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(DeletionJobState.FAILED);
+        assertThat(job.getReason())
+            .as("Failure reason does not match")
+            .isEqualTo("Delete failed");
+        assertThat(job.getDeletedCount())
+            .as(DELETED_COUNT_MESSAGE)
+            .isZero();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testRejectedJobIsRecordedAsFailed() {
+        saveJobs();
+        ownJobs();
+        TaskExecutor rejectingExecutor = mock(TaskExecutor.class);
+        doThrow(new TaskRejectedException("Executor is full")).when(rejectingExecutor).execute(any());
+        deletionJobService = createService(rejectingExecutor);
+
+        assertThrows(TaskRejectedException.class, () ->
+            deletionJobService.submitUserDeletion(USER_ID, ACTIONING_USER_ID),
+                     "Rejected job should be returned to the caller");
+
+        verify(deletionJobRepository).save(any());
+        verify(deletionJobRepository).completeJob(eq(savedJob.getId()), eq(savedJob.getOwner()),
+                                                  eq(DeletionJobState.FAILED.name()), eq("Executor is full"),
+                                                  any(LocalDateTime.class));
+        verify(repository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void testStaleJobIsResumed() {
+        saveJobs();
+        ownJobs();
+        LocalDateTime startedDate = LocalDateTime.now().minusHours(1);
+        savedJob = new DeletionJob(DeletionJobType.LOCATION_NAME_PREFIX, LOCATION_NAME_PREFIX, null);
+        savedJob.setId(UUID.randomUUID());
+        savedJob.setState(DeletionJobState.IN_PROGRESS);
+        savedJob.setStartedDate(startedDate);
+        savedJob.setDeletedCount(2);
+        claimSavedJob();
+        when(repository.countByLocationNameStartingWithIgnoreCase(LOCATION_NAME_PREFIX)).thenReturn(1L);
+        when(repository.findByLocationNameStartingWithIgnoreCase(LOCATION_NAME_PREFIX, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1), List.of());
+
+        deletionJobService.resumeStaleJobs();
+
+        verify(repository).deleteByIdIn(List.of(subscription1.getId()));
+        assertThat(savedJob)
+            .as("Resumed job does not match")
+            .satisfies(job -> {
+                assertThat(job.getState()).isEqualTo(DeletionJobState.COMPLETED);
+                assertThat(job.getStartedDate()).isEqualTo(startedDate);
+                assertThat(job.getTotalCount()).isEqualTo(3);
+                assertThat(job.getDeletedCount()).isEqualTo(3);
+            });
+    }
+
+    @Test
+    void testResumedLocationJobNotifiesSubscribersOfEarlierRun() {
+        saveJobs();
+        ownJobs();
+        savedJob = new DeletionJob(DeletionJobType.LOCATION, LOCATION_ID_VALUE, ACTIONING_USER_ID);
+        savedJob.setId(UUID.randomUUID());
+        savedJob.setState(DeletionJobState.IN_PROGRESS);
+        savedJob.setDeletedCount(1);
+        savedJob.getSubscriberUserIds().add(OTHER_USER_ID);
+        claimSavedJob();
+        when(repository.countBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE)).thenReturn(1L);
+        when(repository.findBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1), List.of());
+        when(subscriptionListTypeRepository.deleteOrphanedByUserIdIn(any())).thenReturn(List.of());
+
+        deletionJobService.resumeStaleJobs();
+
+        verify(eventPublisher).publishEvent(new LocationSubscriptionsDeletedEvent(
+            LOCATION_ID_VALUE, ACTIONING_USER_ID, List.of(OTHER_USER_ID, USER_ID)));
+    }
+
+    @Test
+    void testJobClaimedByAnotherRunStops() {
+        saveJobs();
+        when(deletionJobRepository.startJob(any(), any(), anyInt(), any())).thenReturn(1);
+        when(deletionJobRepository.addDeletedCount(any(), any(), anyInt(), any(), any())).thenReturn(0);
+        when(repository.findBySearchTypeAndSearchValue(LOCATION_ID, LOCATION_ID_VALUE, Limit.of(CHUNK_SIZE)))
+            .thenReturn(List.of(subscription1));
+        when(subscriptionListTypeRepository.deleteOrphanedByUserIdIn(any())).thenReturn(List.of());
+
+        DeletionJob job = deletionJobService.submitLocationDeletion(LOCATION_ID_VALUE, ACTIONING_USER_ID);
+
+        verify(repository, times(1)).deleteByIdIn(any());
+        verify(deletionJobRepository, never()).completeJob(any(), any(), any(), any(), any());
+        verify(viewRefreshSchedulerService, never()).recordWrites(anyInt());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(job.getDeletedCount())
+            .as(DELETED_COUNT_MESSAGE)
+            .isZero();
+    }
+
+    @Test
+    void testRejectedStaleJobIsLeftToBeRetried() {
+        TaskExecutor rejectingExecutor = mock(TaskExecutor.class);
+        doThrow(new TaskRejectedException("Executor is full")).when(rejectingExecutor).execute(any());
+        deletionJobService = createService(rejectingExecutor);
+        when(deletionJobRepository.claimStaleJobs(any(), any(), any())).thenReturn(List.of(UUID.randomUUID()));
+
+        deletionJobService.resumeStaleJobs();
+
+        verify(deletionJobRepository, never()).startJob(any(), any(), anyInt(), any());
+        verify(repository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void testFindJob() {
+        DeletionJob job = new DeletionJob(DeletionJobType.USER, USER_ID, ACTIONING_USER_ID);
+        job.setId(UUID.randomUUID());
+        when(deletionJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        assertThat(deletionJobService.findJob(job.getId()))
+            .as("Job does not match")
+            .isEqualTo(job);
+    }
+
+    @Test
+    void testFindJobNotFound() {
+        UUID jobId = UUID.randomUUID();
+        when(deletionJobRepository.findById(jobId)).thenReturn(Optional.empty());
+
+        assertThrows(DeletionJobNotFoundException.class, () -> deletionJobService.findJob(jobId),
+                     "DeletionJobNotFoundException should be thrown when the job does not exist");
+    }
+}
@@ -0,0 +1,229 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ListTypeIndexEntry;
+import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionIndexEntry;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionListTypeRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscription;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionIndexServiceTest {
+    private static final String LOCATION_ID = "1";
+    private static final String OTHER_LOCATION_ID = "2";
+    private static final String USER_ID = "123";
+    private static final String OTHER_USER_ID = "456";
+    private static final String CASE_NUMBER = "CASE123";
+    private static final String CASE_URN = "URN123";
+    private static final String LIST_TYPE = "CIVIL_DAILY_CAUSE_LIST";
+    private static final String OTHER_LIST_TYPE = "FAMILY_DAILY_CAUSE_LIST";
+    private static final String ENGLISH = "ENGLISH";
+    private static final String WELSH = "WELSH";
+
+    private static final String SUBSCRIPTION_MATCH_MESSAGE = "Subscriptions returned from the index do not match";
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private SubscriptionListTypeRepository subscriptionListTypeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SubscriptionIndexService subscriptionIndexService;
+
+    private Subscription locationSubscription;
+    private Subscription otherLocationSubscription;
+    private Subscription caseNumberSubscription;
+    private Subscription caseUrnSubscription;
+    private Subscription listTypeSubscription;
+
+    @BeforeEach
+    void setup() {
+        subscriptionIndexService = new SubscriptionIndexService(subscriptionRepository,
+                                                                subscriptionListTypeRepository, transactionManager,
+                                                                true);
+
+        locationSubscription = createSubscription(USER_ID, SearchType.LOCATION_ID, LOCATION_ID);
+        otherLocationSubscription = createSubscription(OTHER_USER_ID, SearchType.LOCATION_ID, LOCATION_ID);
+        caseNumberSubscription = createSubscription(USER_ID, SearchType.CASE_ID, CASE_NUMBER);
+        caseUrnSubscription = createSubscription(OTHER_USER_ID, SearchType.CASE_URN, CASE_URN);
+        listTypeSubscription = createSubscription(USER_ID, SearchType.LIST_TYPE, LIST_TYPE);
+    }
+
+    private Subscription createSubscription(String userId, SearchType searchType, String searchValue) {
+        Subscription subscription = createMockSubscription(userId, searchValue, Channel.EMAIL, LocalDateTime.now());
+        subscription.setSearchType(searchType);
+        return subscription;
+    }
+
+    private SubscriptionRecipient[] recipients(Subscription... subscriptions) {
+        return Arrays.stream(subscriptions).map(SubscriptionRecipient::of).toArray(SubscriptionRecipient[]::new);
+    }
+
+    private void buildIndex(List<Subscription> subscriptions, List<SubscriptionListType> listTypes) {
+        when(subscriptionRepository.findAllIndexEntries())
+            .thenReturn(subscriptions.stream().map(SubscriptionIndexEntry::of).toList());
+        when(subscriptionListTypeRepository.findAllIndexEntries())
+            .thenReturn(listTypes.stream().map(ListTypeIndexEntry::of).toList());
+        subscriptionIndexService.rebuildIndex();
+    }
+
+    @Test
+    void testIndexNotReadyBeforeBuild() {
+        assertThat(subscriptionIndexService.isReady())
+            .as("Index should not be ready before it has been built")
+            .isFalse();
+    }
+
+    @Test
+    void testIndexNotBuiltWhenDisabled() {
+        SubscriptionIndexService disabledIndex = new SubscriptionIndexService(subscriptionRepository,
+                                                                              subscriptionListTypeRepository,
+                                                                              transactionManager, false);
+        disabledIndex.rebuildIndex();
+
+        assertThat(disabledIndex.isReady())
+            .as("Index should not be built when disabled")
+            .isFalse();
+        verify(subscriptionRepository, never()).findAllIndexEntries();
+    }
+
+    @Test
+    void testWriteDuringRebuildIsKept() {
+        buildIndex(List.of(), List.of());
+        when(subscriptionRepository.findAllIndexEntries()).thenAnswer(invocation -> {
+            subscriptionIndexService.subscriptionSaved(caseNumberSubscription);
+            return List.of();
+        });
+
+        subscriptionIndexService.rebuildIndex();
+
+        assertThat(subscriptionIndexService.findSubscriptionsBySearchValue(SearchType.CASE_ID, CASE_NUMBER))
+            .as("Subscription saved while the index was loading should be kept")
+            .containsExactly(recipients(caseNumberSubscription));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testFindSubscriptionsForArtefact() {
+        buildIndex(
+            List.of(locationSubscription, caseNumberSubscription, caseUrnSubscription, listTypeSubscription),
+            List.of(new SubscriptionListType(USER_ID, List.of(LIST_TYPE), List.of(ENGLISH)))
+        );
+
+        assertThat(subscriptionIndexService.isReady())
+            .as("Index should be ready once built")
+            .isTrue();
+
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(CASE_NUMBER), Set.of(CASE_URN)))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .containsExactlyInAnyOrder(recipients(locationSubscription, caseNumberSubscription,
+                                                  caseUrnSubscription, listTypeSubscription));
+    }
+
+    @Test
+    void testFindLocationSubscriptionsFilteredByListTypeAndLanguage() {
+        buildIndex(
+            List.of(locationSubscription, otherLocationSubscription),
+            List.of(new SubscriptionListType(USER_ID, List.of(), List.of(ENGLISH, WELSH)),
+                    new SubscriptionListType(OTHER_USER_ID, List.of(OTHER_LIST_TYPE), List.of(ENGLISH)))
+        );
+
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(), Set.of()))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .containsExactly(recipients(locationSubscription));
+
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, OTHER_LIST_TYPE, ENGLISH, Set.of(), Set.of()))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .containsExactlyInAnyOrder(recipients(locationSubscription, otherLocationSubscription));
+
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            OTHER_LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(), Set.of()))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void testLocationSubscriptionWithoutListTypeNotReturned() {
+        buildIndex(List.of(locationSubscription), List.of());
+
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(), Set.of()))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void testSubscriptionSavedAndDeleted() {
+        buildIndex(List.of(), List.of());
+
+        subscriptionIndexService.subscriptionSaved(caseNumberSubscription);
+        assertThat(subscriptionIndexService.findSubscriptionsBySearchValue(SearchType.CASE_ID, CASE_NUMBER))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .containsExactly(recipients(caseNumberSubscription));
+
+        subscriptionIndexService.subscriptionsDeleted(List.of(caseNumberSubscription.getId()));
+        assertThat(subscriptionIndexService.findSubscriptionsBySearchValue(SearchType.CASE_ID, CASE_NUMBER))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .isEmpty();
+    }
+
+    @Test
+    void testUserSubscriptionsDeleted() {
+        buildIndex(
+            List.of(locationSubscription, caseNumberSubscription, caseUrnSubscription),
+            List.of(new SubscriptionListType(USER_ID, List.of(), List.of(ENGLISH)))
+        );
+
+        subscriptionIndexService.userSubscriptionsDeleted(USER_ID);
+
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(CASE_NUMBER), Set.of(CASE_URN)))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .containsExactly(recipients(caseUrnSubscription));
+    }
+
+    @Test
+    void testListTypeSavedAndDeleted() {
+        buildIndex(List.of(locationSubscription), List.of());
+
+        subscriptionIndexService.listTypeSaved(new SubscriptionListType(USER_ID, List.of(), List.of(ENGLISH)));
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(), Set.of()))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .containsExactly(recipients(locationSubscription));
+
+        subscriptionIndexService.listTypeDeleted(USER_ID);
+        assertThat(subscriptionIndexService.findSubscriptionsForArtefact(
+            LOCATION_ID, LIST_TYPE, ENGLISH, Set.of(), Set.of()))
+            .as(SUBSCRIPTION_MATCH_MESSAGE)
+            .isEmpty();
+    }
+}
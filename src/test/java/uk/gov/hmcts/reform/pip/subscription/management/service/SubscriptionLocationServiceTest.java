@@ -1,6 +1,5 @@
 package uk.gov.hmcts.reform.pip.subscription.management.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import nl.altindag.log.LogCaptor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,9 +8,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
-import uk.gov.hmcts.reform.pip.model.account.PiUser;
 import uk.gov.hmcts.reform.pip.subscription.management.errorhandling.exceptions.SubscriptionNotFoundException;
+import uk.gov.hmcts.reform.pip.subscription.management.models.LocationSubscriptionsDeletedEvent;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionListType;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionListTypeRepository;
@@ -33,9 +33,6 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static uk.gov.hmcts.reform.pip.model.account.Roles.SYSTEM_ADMIN;
-import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.PI_AAD;
-import static uk.gov.hmcts.reform.pip.model.account.UserProvenances.SSO;
 import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscriptionList;
 import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscriptionListType;
 
@@ -43,9 +40,7 @@ import static uk.gov.hmcts.reform.pip.subscription.management.helpers.Subscripti
 @ExtendWith({MockitoExtension.class})
 class SubscriptionLocationServiceTest {
 
-    private static final String COURT_NAME = "test court name";
     private static final LocalDateTime DATE_ADDED = LocalDateTime.now();
-    private static final String EMAIL_ADDRESS = "test@test.com";
     private static final String LOCATION_ID = "1";
     private static final String USER_ID = "Ralph21";
     private static final String LOCATION_NAME_PREFIX = "TEST_PIP_1234_";
@@ -55,23 +50,22 @@ class SubscriptionLocationServiceTest {
     private List<UUID> mockSubscriptionIds;
     private List<SubscriptionListType> mockSubscriptionListType;
 
-    private PiUser piUser;
     private String userId;
 
     @Mock
-    DataManagementService dataManagementService;
+    ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private AccountManagementService accountManagementService;
+    SubscriptionRepository subscriptionRepository;
 
     @Mock
-    private PublicationServicesService publicationService;
+    SubscriptionListTypeRepository subscriptionListTypeRepository;
 
     @Mock
-    SubscriptionRepository subscriptionRepository;
+    SubscriptionIndexService subscriptionIndexService;
 
     @Mock
-    SubscriptionListTypeRepository subscriptionListTypeRepository;
+    ViewRefreshSchedulerService viewRefreshSchedulerService;
 
     @InjectMocks
     SubscriptionLocationService subscriptionLocationService;
@@ -85,34 +79,16 @@ class SubscriptionLocationServiceTest {
         mockSubscriptionListType = createMockSubscriptionListType(USER_ID);
 
         userId = UUID.randomUUID().toString();
-        piUser = new PiUser();
-        piUser.setEmail(EMAIL_ADDRESS);
-        piUser.setUserId(userId);
     }
 
     @Test
-    void testDeleteSubscriptionByLocation() throws JsonProcessingException {
+    void testDeleteSubscriptionByLocation() {
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionLocationService.class)) {
-            PiUser sysAdminUser1 = new PiUser();
-            sysAdminUser1.setEmail(EMAIL_ADDRESS);
-            sysAdminUser1.setUserProvenance(PI_AAD);
-            PiUser sysAdminUser2 = new PiUser();
-            sysAdminUser2.setEmail(EMAIL_ADDRESS);
-            sysAdminUser2.setUserProvenance(SSO);
-
             when(subscriptionRepository.findSubscriptionsByLocationId(LOCATION_ID))
                 .thenReturn(mockSubscriptionList);
-            when(subscriptionListTypeRepository.findByUserId(any()))
-                .thenReturn(Optional.of(mockSubscriptionListType.get(0)));
-            when(dataManagementService.getCourtName(LOCATION_ID))
-                .thenReturn(COURT_NAME);
-            when(accountManagementService.getUserByUserId(userId))
-                .thenReturn(Optional.of(piUser));
-            when(accountManagementService.getAllAccounts(PI_AAD.toString(), SYSTEM_ADMIN.toString()))
-                .thenReturn(List.of(sysAdminUser1));
-            when(accountManagementService.getAllAccounts(SSO.toString(), SYSTEM_ADMIN.toString()))
-                .thenReturn(List.of(sysAdminUser2));
+            when(subscriptionListTypeRepository.deleteOrphanedByUserIdIn(any()))
+                .thenReturn(List.of(USER_ID));
 
             doNothing().when(subscriptionRepository).deleteByIdIn(mockSubscriptionIds);
 
@@ -135,6 +111,23 @@ class SubscriptionLocationServiceTest {
         }
     }
 
+    @Test
+    void testDeleteSubscriptionByLocationDeletesOrphanedListTypesOnce() {
+        when(subscriptionRepository.findSubscriptionsByLocationId(LOCATION_ID))
+            .thenReturn(mockSubscriptionList);
+        when(subscriptionListTypeRepository.deleteOrphanedByUserIdIn(any()))
+            .thenReturn(List.of(USER_ID));
+
+        subscriptionLocationService.deleteSubscriptionByLocation(LOCATION_ID, userId);
+
+        String[] expectedUsers = mockSubscriptionList.stream()
+            .map(Subscription::getUserId).distinct().toArray(String[]::new);
+        verify(subscriptionListTypeRepository, times(1)).deleteOrphanedByUserIdIn(expectedUsers);
+        verify(subscriptionListTypeRepository, never()).findByUserId(any());
+        verify(subscriptionRepository, never()).findLocationSubscriptionsByUserId(any());
+        verify(subscriptionIndexService, times(1)).listTypeDeleted(USER_ID);
+    }
+
     @Test
     void testDeleteSubscriptionByLocationWhenNoSubscriptionFound() {
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionLocationService.class)) {
@@ -155,31 +148,16 @@ class SubscriptionLocationServiceTest {
     }
 
     @Test
-    void testDeleteSubscriptionByLocationWhenSystemAdminEmpty() throws JsonProcessingException {
-        try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionLocationService.class)) {
-            when(subscriptionRepository.findSubscriptionsByLocationId(LOCATION_ID))
-                .thenReturn(mockSubscriptionList);
-            when(dataManagementService.getCourtName(LOCATION_ID))
-                .thenReturn(COURT_NAME);
-            doNothing().when(publicationService).sendLocationDeletionSubscriptionEmail(any(), any());
-            when(accountManagementService.getUserByUserId(userId))
-                .thenReturn(Optional.empty());
-
-            doNothing().when(subscriptionRepository).deleteByIdIn(mockSubscriptionIds);
-
+    void testDeleteSubscriptionByLocationPublishesDeletedEvent() {
+        when(subscriptionRepository.findSubscriptionsByLocationId(LOCATION_ID))
+            .thenReturn(mockSubscriptionList);
 
-            Assertions.assertEquals(
-                subscriptionLocationService.deleteSubscriptionByLocation(LOCATION_ID, userId),
-                "Total 8 subscriptions deleted for location id 1",
-                "The subscription for given location is not deleted"
-            );
+        subscriptionLocationService.deleteSubscriptionByLocation(LOCATION_ID, userId);
 
-            assertTrue(
-                logCaptor.getErrorLogs().get(0).contains("User " + userId
-                                                             + " not found in the system when notifying system admins"),
-                "Expected log message not found"
-            );
-        }
+        List<String> expectedUsers = mockSubscriptionList.stream()
+            .map(Subscription::getUserId).toList();
+        verify(eventPublisher, times(1))
+            .publishEvent(new LocationSubscriptionsDeletedEvent(LOCATION_ID, userId, expectedUsers));
     }
 
     @Test
@@ -203,6 +181,7 @@ class SubscriptionLocationServiceTest {
             .isEqualTo("2 subscription(s) deleted for location name starting with " + LOCATION_NAME_PREFIX);
 
         verify(subscriptionRepository).deleteByIdIn(List.of(id1, id2));
+        verify(subscriptionIndexService).subscriptionsDeleted(List.of(id1, id2));
     }
 
     @Test
@@ -228,6 +207,7 @@ class SubscriptionLocationServiceTest {
 
         verify(subscriptionListTypeRepository, times(1))
             .delete(mockSubscriptionListType.get(0));
+        verify(subscriptionIndexService).listTypeDeleted(USER_ID);
     }
 
     @Test
@@ -1,5 +1,7 @@
 package uk.gov.hmcts.reform.pip.subscription.management.service;
 
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nl.altindag.log.LogCaptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,37 +9,51 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import reactor.core.publisher.Mono;
 import uk.gov.hmcts.reform.pip.model.publication.Artefact;
 import uk.gov.hmcts.reform.pip.model.publication.Language;
 import uk.gov.hmcts.reform.pip.model.publication.ListType;
 import uk.gov.hmcts.reform.pip.model.publication.Sensitivity;
 import uk.gov.hmcts.reform.pip.model.subscription.Channel;
 import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
-import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscription;
-import uk.gov.hmcts.reform.pip.model.subscription.ThirdPartySubscriptionArtefact;
 import uk.gov.hmcts.reform.pip.subscription.management.models.Subscription;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionsSummary;
 import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionsSummaryDetails;
+import uk.gov.hmcts.reform.pip.subscription.management.models.response.ArtefactRecipientsExplanation;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscription;
@@ -60,11 +76,11 @@ class SubscriptionNotificationServiceTest {
     private static final UUID TEST_UUID = UUID.randomUUID();
     private static final String TEST_USER_EMAIL = "a@b.com";
     private static final String TEST = "test";
-    private static final String CASE_ID_SEARCH = SearchType.CASE_ID.name();
-    private static final String LIST_TYPE_SEARCH = SearchType.LIST_TYPE.name();
     private static final String MAGISTRATES_PUBLIC_LIST = ListType.MAGISTRATES_PUBLIC_LIST.name();
     private static final String CIVIL_DAILY_LIST = ListType.CIVIL_DAILY_CAUSE_LIST.name();
+    private static final String SJP_PRESS_LIST = ListType.SJP_PRESS_LIST.name();
     private static final String LIST_LANGUAGE = "ENGLISH";
+    private static final long EMAIL_STAGE_DELAY_MS = 200;
 
     private Subscription mockSubscription;
     private final SubscriptionsSummary mockSubscriptionsSummary = new SubscriptionsSummary();
@@ -76,7 +92,7 @@ class SubscriptionNotificationServiceTest {
     private final Subscription restrictedSubscription = new Subscription();
     private final List<Object> cases = new ArrayList<>();
     private final Map<String, List<Object>> searchTerms = new ConcurrentHashMap<>();
-    private final Map<String, List<Subscription>> returnedMappedEmails = new ConcurrentHashMap<>();
+    private final Map<String, List<SubscriptionRecipient>> returnedMappedEmails = new ConcurrentHashMap<>();
 
     @Mock
     SubscriptionRepository subscriptionRepository;
@@ -88,7 +104,27 @@ class SubscriptionNotificationServiceTest {
     AccountManagementService accountManagementService;
 
     @Mock
-    PublicationServicesService publicationServicesService;
+    NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    SubscriptionIndexService subscriptionIndexService;
+
+    @Mock
+    CaseSubscriptionFilterService caseSubscriptionFilterService;
+
+    @Mock
+    ArtefactRecipientRequestService artefactRecipientRequestService;
+
+    @Mock
+    SubscriptionRecipientStreamService subscriptionRecipientStreamService;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    NotificationMetricsService notificationMetricsService = new NotificationMetricsService(meterRegistry);
+
+    @Spy
+    SyncTaskExecutor fanOutExecutor = new SyncTaskExecutor();
 
     @InjectMocks
     SubscriptionNotificationService subscriptionNotificationService;
@@ -128,19 +164,23 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummary.setEmail(TEST_USER_EMAIL);
         mockSubscription.setChannel(Channel.EMAIL);
 
+        when(caseSubscriptionFilterService.filterPossiblySubscribed(any(), any()))
+            .thenAnswer(invocation -> List.copyOf(invocation.<Collection<String>>getArgument(1)));
+
     }
 
     @Test
     void testCollectSubscribersCourtSubscriptionNotClassified() throws IOException {
         returnedSubscription.setChannel(Channel.EMAIL);
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(returnedSubscription));
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(returnedSubscription));
-        when(subscriptionChannelService.buildEmailSubscriptions(any())).thenReturn(returnedMappedEmails);
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(any(), any());
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(returnedSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(returnedSubscription));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails));
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(any(), any(), any());
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
         } catch (Exception ex) {
@@ -151,15 +191,16 @@ class SubscriptionNotificationServiceTest {
     @Test
     void testCollectSubscribersCourtSubscriptionWithListTypeNotClassified() throws IOException {
         returnedSubscription.setChannel(Channel.EMAIL);
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(returnedSubscription));
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(returnedSubscription));
-
-        when(subscriptionChannelService.buildEmailSubscriptions(any())).thenReturn(returnedMappedEmails);
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(any(), any());
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(returnedSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(returnedSubscription));
+
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails));
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(any(), any(), any());
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
         } catch (Exception ex) {
@@ -175,20 +216,20 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummaryDetails.addToCaseUrn(CASE_URN_KEY);
         mockSubscriptionsSummary.setSubscriptions(mockSubscriptionsSummaryDetails);
 
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(mockSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(mockSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(mockSubscription)))
-            .thenReturn(returnedMappedEmails);
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(publicArtefactMatches.getArtefactId(),
-                                                                               returnedMappedEmails);
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(eq(publicArtefactMatches), any(),
+                                                                               eq(returnedMappedEmails));
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
 
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
@@ -208,20 +249,20 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummaryDetails.addToCaseUrn(CASE_URN_KEY);
         mockSubscriptionsSummary.setSubscriptions(mockSubscriptionsSummaryDetails);
 
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(mockSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(mockSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(mockSubscription)))
-            .thenReturn(returnedMappedEmails);
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(publicArtefactMatches.getArtefactId(),
-                                                                               returnedMappedEmails);
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(eq(publicArtefactMatches), any(),
+                                                                               eq(returnedMappedEmails));
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
 
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
@@ -241,20 +282,20 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummaryDetails.addToCaseNumber(CASE_NUMBER_KEY);
         mockSubscriptionsSummary.setSubscriptions(mockSubscriptionsSummaryDetails);
 
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(mockSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(mockSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(mockSubscription)))
-            .thenReturn(returnedMappedEmails);
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(publicArtefactMatches.getArtefactId(),
-                                                                               returnedMappedEmails);
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(eq(publicArtefactMatches), any(),
+                                                                               eq(returnedMappedEmails));
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
 
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
@@ -269,20 +310,20 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummaryDetails.addToCaseNumber(CASE_ID);
         mockSubscriptionsSummary.setSubscriptions(mockSubscriptionsSummaryDetails);
 
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(mockSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(mockSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(mockSubscription)))
-            .thenReturn(returnedMappedEmails);
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(publicArtefactMatches.getArtefactId(),
-                                                                               returnedMappedEmails);
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(eq(publicArtefactMatches), any(),
+                                                                               eq(returnedMappedEmails));
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
 
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
@@ -297,20 +338,20 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummaryDetails.addToLocationId(COURT_MATCH);
         mockSubscriptionsSummary.setSubscriptions(mockSubscriptionsSummaryDetails);
 
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(mockSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(mockSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(mockSubscription)))
-            .thenReturn(returnedMappedEmails);
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(publicArtefactMatches.getArtefactId(),
-                                                                               returnedMappedEmails);
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(eq(publicArtefactMatches), any(),
+                                                                               eq(returnedMappedEmails));
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
 
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
@@ -321,16 +362,17 @@ class SubscriptionNotificationServiceTest {
     void testCollectListTypeSubscription() throws IOException {
         mockSubscription.setSearchType(SearchType.LIST_TYPE);
         mockSubscription.setSearchValue(MAGISTRATES_PUBLIC_LIST);
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(mockSubscription));
-        when(subscriptionRepository.findSubscriptionsBySearchValue(LIST_TYPE_SEARCH, MAGISTRATES_PUBLIC_LIST))
-            .thenReturn(List.of(mockSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(mockSubscription)))
-            .thenReturn(returnedMappedEmails);
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(any(), any());
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(any(), any(), any());
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG),
                        LOG_MESSAGE_MATCH);
         } catch (Exception ex) {
@@ -341,20 +383,20 @@ class SubscriptionNotificationServiceTest {
     @Test
     void testCollectApiSubscribers() throws IOException {
         mockSubscription.setChannel(Channel.API_COURTEL);
-        Map<String, List<Subscription>> returnedMap = new ConcurrentHashMap<>();
-        returnedMap.put(TEST, List.of(mockSubscription));
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(mockSubscription));
-        when(subscriptionChannelService.buildApiSubscriptions(List.of(mockSubscription))).thenReturn(returnedMap);
-        doNothing().when(publicationServicesService).sendThirdPartyList(any(ThirdPartySubscription.class));
+        Map<String, List<SubscriptionRecipient>> returnedMap = new ConcurrentHashMap<>();
+        returnedMap.put(TEST, recipients(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(mockSubscription));
+        when(subscriptionChannelService.buildApiSubscriptions(recipients(mockSubscription))).thenReturn(returnedMap);
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
             assertTrue(logCaptor.getErrorLogs().isEmpty(), LOG_MESSAGE_MATCH);
         } catch (Exception ex) {
             throw new IOException(ex.getMessage());
         }
+        verify(notificationOutboxService).queueThirdPartyList(eq(TEST), eq(publicArtefactMatches), any());
     }
 
     @Test
@@ -371,21 +413,20 @@ class SubscriptionNotificationServiceTest {
         mockSubscriptionsSummaryDetails.addToCaseNumber(CASE_ID);
         mockSubscriptionsSummary.setSubscriptions(mockSubscriptionsSummaryDetails);
 
-        when(subscriptionRepository.findSubscriptionsBySearchValue(CASE_ID_SEARCH, CASE_MATCH))
-            .thenReturn(List.of(returnedSubscription, restrictedSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(SJP_PRESS_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(returnedSubscription, restrictedSubscription));
 
-        when(accountManagementService.isUserAuthorised(
-            ACCEPTED_USER_ID, ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED)).thenReturn(true);
-        when(accountManagementService.isUserAuthorised(
-            FORBIDDEN_USER_ID, ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED))
-            .thenReturn(false);
+        when(accountManagementService.findAuthorisedUserIds(
+            List.of(ACCEPTED_USER_ID, FORBIDDEN_USER_ID), ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED))
+            .thenReturn(Mono.just(Set.of(ACCEPTED_USER_ID)));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(returnedSubscription));
-        when(subscriptionChannelService.buildEmailSubscriptions(List.of(returnedSubscription)))
-            .thenReturn(returnedMappedEmails);
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(returnedSubscription));
+        when(subscriptionChannelService.buildEmailSubscriptions(recipients(returnedSubscription)))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectSubscribers(classifiedArtefactMatches);
+            subscriptionNotificationService.collectSubscribers(classifiedArtefactMatches).block();
             assertTrue(logCaptor.getInfoLogs().get(0).contains(SUBSCRIBER_NOTIFICATION_LOG), LOG_MESSAGE_MATCH);
             assertTrue(logCaptor.getErrorLogs().isEmpty(), LOG_MESSAGE_MATCH);
         }
@@ -394,49 +435,349 @@ class SubscriptionNotificationServiceTest {
     @Test
     void testNoValidSubscriptionsDoesNotCallPostSubscriptionSummaries() {
         returnedSubscription.setChannel(Channel.EMAIL);
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(returnedSubscription));
-        when(subscriptionChannelService.buildEmailSubscriptions(any())).thenReturn(new ConcurrentHashMap<>());
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(returnedSubscription));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(new ConcurrentHashMap<>()));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+        verify(notificationOutboxService, never()).queueSubscriptionSummaries(any(), any(), any());
+    }
+
+    @Test
+    void testCollectSubscribersRecordsStageMetrics() {
+        returnedSubscription.setChannel(Channel.EMAIL);
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(returnedSubscription));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        for (String stage : List.of("subscriptions", "emails", "queue")) {
+            assertEquals(1, meterRegistry.get("subscription.notification.stage")
+                             .tag("stage", stage)
+                             .tag("list.type", MAGISTRATES_PUBLIC_LIST)
+                             .tag("outcome", "success")
+                             .timer().count(), "Stage " + stage + " should be timed");
+        }
+        assertEquals(1, meterRegistry.get("subscription.notification.stage.items")
+                         .tag("stage", "subscriptions").counter().count(),
+                     "Subscriptions found should be counted");
+    }
+
+    @Test
+    void testCollectSubscribersInBatchesQueuesEachBatch() {
+        when(subscriptionRecipientStreamService.isEnabled()).thenReturn(true);
+        streamInBatches(List.of(createSubscriptionForUser(ACCEPTED_USER_ID, SearchType.LOCATION_ID)),
+                        List.of(createSubscriptionForUser(FORBIDDEN_USER_ID, SearchType.LOCATION_ID)));
+        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(createSubscriptionForUser(ACCEPTED_USER_ID,
+                                                                                    SearchType.LOCATION_ID)));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        verify(subscriptionChannelService, times(2)).buildEmailSubscriptions(any());
+        verify(notificationOutboxService, times(2)).queueSubscriptionSummaries(eq(publicArtefactMatches), any(),
+                                                                               eq(returnedMappedEmails));
+        verify(subscriptionRepository, never()).findSubscriptionRecipientsForArtefact(any(), any(), any(), any(),
+                                                                                      any());
+        assertEquals(2, meterRegistry.get("subscription.notification.stage.items")
+                         .tag("stage", "subscriptions").counter().count(),
+                     "Streamed subscriptions should be counted");
+    }
+
+    @Test
+    void testCollectSubscribersInBatchesTimesStagesSeparately() {
+        when(subscriptionRecipientStreamService.isEnabled()).thenReturn(true);
+        streamInBatches(List.of(createSubscriptionForUser(ACCEPTED_USER_ID, SearchType.LOCATION_ID)),
+                        List.of(createSubscriptionForUser(FORBIDDEN_USER_ID, SearchType.LOCATION_ID)));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails).delayElement(Duration.ofMillis(EMAIL_STAGE_DELAY_MS)));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        Timer subscriptionsTimer = meterRegistry.get("subscription.notification.stage")
+            .tag("stage", "subscriptions").tag("outcome", "success").timer();
+        assertEquals(1, subscriptionsTimer.count(), "Subscriptions stage should be timed once");
+        assertTrue(subscriptionsTimer.totalTime(TimeUnit.MILLISECONDS) < EMAIL_STAGE_DELAY_MS,
+                   "Subscriptions stage should not include the time spent handling each batch");
+        for (String stage : List.of("emails", "queue")) {
+            assertEquals(2, meterRegistry.get("subscription.notification.stage")
+                             .tag("stage", stage)
+                             .tag("outcome", "success")
+                             .timer().count(), "Stage " + stage + " should be timed for each batch");
+        }
+    }
+
+    @Test
+    void testCollectSubscribersInBatchesNotifiesThirdPartyOnce() {
+        SubscriptionRecipient apiSubscription = new SubscriptionRecipient(USER_ID, SearchType.LIST_TYPE,
+                                                                          MAGISTRATES_PUBLIC_LIST,
+                                                                          Channel.API_COURTEL);
+        when(subscriptionRecipientStreamService.isEnabled()).thenReturn(true);
+        streamInBatches(List.of(apiSubscription), List.of(apiSubscription));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(new ConcurrentHashMap<>()));
+        when(subscriptionChannelService.buildApiSubscriptions(List.of(apiSubscription)))
+            .thenReturn(Map.of(TEST, List.of(apiSubscription)));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        verify(notificationOutboxService, times(1)).queueThirdPartyList(eq(TEST), eq(publicArtefactMatches), any());
+        verify(notificationOutboxService, never()).queueSubscriptionSummaries(any(), any(), any());
+    }
+
+    @Test
+    void testCollectSubscribersInBatchesRestrictsClassified() {
+        SubscriptionRecipient acceptedSubscription = createSubscriptionForUser(ACCEPTED_USER_ID, SearchType.CASE_ID);
+        SubscriptionRecipient forbiddenSubscription = createSubscriptionForUser(FORBIDDEN_USER_ID,
+                                                                                SearchType.CASE_ID);
+        when(subscriptionRecipientStreamService.isEnabled()).thenReturn(true);
+        when(subscriptionRecipientStreamService.streamRecipientsForArtefact(
+            eq(COURT_MATCH), eq(SJP_PRESS_LIST), eq(LIST_LANGUAGE), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                invocation.<Consumer<List<SubscriptionRecipient>>>getArgument(5)
+                    .accept(List.of(acceptedSubscription, forbiddenSubscription));
+                return 2;
+            });
+        when(accountManagementService.findAuthorisedUserIds(
+            List.of(ACCEPTED_USER_ID, FORBIDDEN_USER_ID), ListType.SJP_PRESS_LIST, Sensitivity.CLASSIFIED))
+            .thenReturn(Mono.just(Set.of(ACCEPTED_USER_ID)));
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails));
+
+        subscriptionNotificationService.collectSubscribers(classifiedArtefactMatches).block();
+
+        verify(subscriptionChannelService).buildEmailSubscriptions(List.of(acceptedSubscription));
+    }
+
+    @Test
+    void testFailedCollectSubscribersInBatchesReleasesRequest() {
+        when(subscriptionRecipientStreamService.isEnabled()).thenReturn(true);
+        when(subscriptionRecipientStreamService.streamRecipientsForArtefact(any(), any(), any(), any(), any(), any()))
+            .thenThrow(new IllegalStateException("Cursor closed"));
+
+        try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+            assertTrue(logCaptor.getErrorLogs().get(0).contains("Cursor closed"), LOG_MESSAGE_MATCH);
+        }
+        verify(artefactRecipientRequestService).release(publicArtefactMatches);
+    }
 
-        subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
-        verify(publicationServicesService, never()).postSubscriptionSummaries(any(), any());
+    @Test
+    void testRejectedCollectSubscribersReleasesRequestAndThrows() {
+        doThrow(new TaskRejectedException("Fan-out executor is full")).when(fanOutExecutor)
+            .execute(any(Runnable.class));
+
+        assertThrows(TaskRejectedException.class, () ->
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches),
+                     "Rejection should be returned to the caller");
+        verify(artefactRecipientRequestService).release(publicArtefactMatches);
+        verify(subscriptionRepository, never()).findSubscriptionRecipientsForArtefact(any(), any(), any(), any(),
+                                                                                      any());
+    }
+
+    @Test
+    void testRejectedCollectThirdPartyForDeletionThrows() {
+        doThrow(new TaskRejectedException("Fan-out executor is full")).when(fanOutExecutor)
+            .execute(any(Runnable.class));
+
+        assertThrows(TaskRejectedException.class, () ->
+            subscriptionNotificationService.collectThirdPartyForDeletion(publicArtefactMatches),
+                     "Rejection should be returned to the caller");
+        verify(subscriptionRepository, never()).findSubscriptionRecipientsBySearchValue(any(), any());
+    }
+
+    @Test
+    void testExplainRecipientsCountsEachStage() {
+        SubscriptionRecipient locationSubscription = createSubscriptionForUser(ACCEPTED_USER_ID,
+                                                                               SearchType.LOCATION_ID);
+        SubscriptionRecipient caseSubscription = createSubscriptionForUser(ACCEPTED_USER_ID, SearchType.CASE_ID);
+        SubscriptionRecipient urnSubscription = createSubscriptionForUser(FORBIDDEN_USER_ID, SearchType.CASE_URN);
+        SubscriptionRecipient listTypeSubscription = createSubscriptionForUser(FORBIDDEN_USER_ID,
+                                                                               SearchType.LIST_TYPE);
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(SJP_PRESS_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(List.of(locationSubscription, caseSubscription, urnSubscription, listTypeSubscription));
+        when(accountManagementService.findAuthorisedUserIds(any(), eq(ListType.SJP_PRESS_LIST),
+                                                            eq(Sensitivity.CLASSIFIED)))
+            .thenReturn(Mono.just(Set.of(ACCEPTED_USER_ID)));
+
+        ArtefactRecipientsExplanation explanation = subscriptionNotificationService
+            .explainRecipients(classifiedArtefactMatches);
+
+        assertEquals(1, explanation.getLocationMatches(), "Location matches should be counted");
+        assertEquals(1, explanation.getListTypeMatches(), "List type matches should be counted");
+        assertEquals(2, explanation.getCaseMatches(), "Case matches should be counted");
+        assertEquals(2, explanation.getUsersAfterDedup(), "Users should be deduplicated");
+        assertEquals(1, explanation.getClassifiedUsersDropped(), "Unauthorised users should be dropped");
+        assertEquals(1, explanation.getRecipients(), "Recipients should be counted");
+        assertEquals(List.of("subscriptions", "authorisation"),
+                     List.copyOf(explanation.getStageDurationsMs().keySet()), "Stages should be timed");
+
+        verify(notificationOutboxService, never()).queueSubscriptionSummaries(any(), any(), any());
+        verify(notificationOutboxService, never()).queueThirdPartyList(any(), any(), any());
+        verify(subscriptionChannelService, never()).buildEmailSubscriptions(any());
+        assertTrue(meterRegistry.find("subscription.notification.stage").timers().isEmpty(),
+                   "Explaining should not record pipeline metrics");
+    }
+
+    @Test
+    void testExplainRecipientsSkipsAuthorisationForPublicArtefact() {
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(List.of(createSubscriptionForUser(ACCEPTED_USER_ID, SearchType.LOCATION_ID)));
+
+        ArtefactRecipientsExplanation explanation = subscriptionNotificationService
+            .explainRecipients(publicArtefactMatches);
+
+        assertEquals(1, explanation.getRecipients(), "Recipients should be counted");
+        assertEquals(0, explanation.getClassifiedUsersDropped(), "No users should be dropped");
+        assertEquals(Set.of("subscriptions"), explanation.getStageDurationsMs().keySet(),
+                     "Authorisation should not be timed");
+        verify(accountManagementService, never()).findAuthorisedUserIds(any(), any(), any());
+    }
+
+    private SubscriptionRecipient createSubscriptionForUser(String userId, SearchType searchType) {
+        return new SubscriptionRecipient(userId, searchType, SEARCH_VALUE, EMAIL);
+    }
+
+    @SafeVarargs
+    private void streamInBatches(List<SubscriptionRecipient>... batches) {
+        when(subscriptionRecipientStreamService.streamRecipientsForArtefact(
+            eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST), eq(LIST_LANGUAGE), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                Consumer<List<SubscriptionRecipient>> batchConsumer = invocation.getArgument(5);
+                Arrays.stream(batches).forEach(batchConsumer);
+                return Arrays.stream(batches).mapToInt(List::size).sum();
+            });
+    }
+
+    private List<SubscriptionRecipient> recipients(Subscription... subscriptions) {
+        return Arrays.stream(subscriptions).map(SubscriptionRecipient::of).toList();
+    }
+
+    @Test
+    void testFailedCollectSubscribersReleasesRequest() {
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenThrow(new IllegalStateException("Database unavailable"));
+
+        try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
+            subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+            assertTrue(logCaptor.getErrorLogs().get(0).contains("Failed to collect subscribers for artefact"),
+                       LOG_MESSAGE_MATCH);
+        }
+        verify(artefactRecipientRequestService).release(publicArtefactMatches);
     }
 
     @Test
     void testMultipleSubscriptionsIsPassedToPostSubscriptionSummaries() {
         returnedSubscription.setChannel(Channel.EMAIL);
-        when(subscriptionRepository.findSubscriptionsByLocationSearchValue(COURT_MATCH,
-                                                                           MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE))
-            .thenReturn(List.of(returnedSubscription, returnedSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsForArtefact(eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST),
+                                                                 eq(LIST_LANGUAGE), any(), any()))
+            .thenReturn(recipients(returnedSubscription, returnedSubscription));
 
-        returnedMappedEmails.put(TEST_USER_EMAIL, List.of(returnedSubscription));
-        returnedMappedEmails.put("SecondUserEmail", List.of(returnedSubscription));
+        returnedMappedEmails.put(TEST_USER_EMAIL, recipients(returnedSubscription));
+        returnedMappedEmails.put("SecondUserEmail", recipients(returnedSubscription));
 
-        when(subscriptionChannelService.buildEmailSubscriptions(any())).thenReturn(returnedMappedEmails);
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(returnedMappedEmails));
 
         @SuppressWarnings("unchecked")
-        ArgumentCaptor<Map<String, List<Subscription>>> argument = ArgumentCaptor.forClass(Map.class);
-        doNothing().when(publicationServicesService).postSubscriptionSummaries(
-            eq(publicArtefactMatches.getArtefactId()), argument.capture());
+        ArgumentCaptor<Map<String, List<SubscriptionRecipient>>> argument = ArgumentCaptor.forClass(Map.class);
+        doNothing().when(notificationOutboxService).queueSubscriptionSummaries(
+            eq(publicArtefactMatches), any(), argument.capture());
 
-        subscriptionNotificationService.collectSubscribers(publicArtefactMatches);
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
 
-        Map<String, List<Subscription>> capturedMap = argument.getValue();
+        Map<String, List<SubscriptionRecipient>> capturedMap = argument.getValue();
         assertEquals(2, capturedMap.size(), "The size of the captured map is incorrect");
     }
 
+    @Test
+    void testCollectSubscribersResolvesAllCasesInSingleQuery() {
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(new ConcurrentHashMap<>()));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        ArgumentCaptor<String[]> caseNumbers = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> caseUrns = ArgumentCaptor.forClass(String[].class);
+        verify(subscriptionRepository, times(1)).findSubscriptionRecipientsForArtefact(
+            eq(COURT_MATCH), eq(MAGISTRATES_PUBLIC_LIST), eq(LIST_LANGUAGE), caseNumbers.capture(), caseUrns.capture()
+        );
+        verify(subscriptionRepository, never()).findSubscriptionRecipientsBySearchValue(any(), any());
+
+        assertArrayEquals(new String[]{CASE_MATCH, TEST}, caseNumbers.getValue(),
+                          "Case numbers passed to the query do not match");
+        assertArrayEquals(new String[]{TEST, CASE_MATCH}, caseUrns.getValue(),
+                          "Case URNs passed to the query do not match");
+    }
+
+    @Test
+    void testCollectSubscribersSkipsCasesWithoutSubscribers() {
+        when(caseSubscriptionFilterService.filterPossiblySubscribed(SearchType.CASE_ID, Set.of(CASE_MATCH, TEST)))
+            .thenReturn(List.of(CASE_MATCH));
+        when(caseSubscriptionFilterService.filterPossiblySubscribed(SearchType.CASE_URN, Set.of(TEST, CASE_MATCH)))
+            .thenReturn(List.of());
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(new ConcurrentHashMap<>()));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        verify(subscriptionRepository).findSubscriptionRecipientsForArtefact(
+            COURT_MATCH, MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE, new String[]{CASE_MATCH}, new String[0]
+        );
+    }
+
+    @Test
+    void testCollectSubscribersUsesIndexWhenReady() {
+        when(subscriptionIndexService.isReady()).thenReturn(true);
+        when(subscriptionChannelService.buildEmailSubscriptions(any()))
+            .thenReturn(Mono.just(new ConcurrentHashMap<>()));
+
+        subscriptionNotificationService.collectSubscribers(publicArtefactMatches).block();
+
+        verify(subscriptionIndexService).findSubscriptionsForArtefact(
+            COURT_MATCH, MAGISTRATES_PUBLIC_LIST, LIST_LANGUAGE, Set.of(CASE_MATCH, TEST), Set.of(TEST, CASE_MATCH)
+        );
+        verify(subscriptionRepository, never())
+            .findSubscriptionRecipientsForArtefact(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCollectThirdPartyForDeletionUsesIndexWhenReady() {
+        mockSubscription.setChannel(Channel.API_COURTEL);
+        when(subscriptionIndexService.isReady()).thenReturn(true);
+        when(subscriptionIndexService.findSubscriptionsBySearchValue(SearchType.LIST_TYPE, MAGISTRATES_PUBLIC_LIST))
+            .thenReturn(recipients(mockSubscription));
+        when(subscriptionChannelService.buildApiSubscriptions(recipients(mockSubscription)))
+            .thenReturn(Collections.singletonMap(TEST, recipients(mockSubscription)));
+
+        subscriptionNotificationService.collectThirdPartyForDeletion(publicArtefactMatches).block();
+
+        verify(notificationOutboxService).queueThirdPartyDeletion(eq(TEST), eq(publicArtefactMatches), any());
+        verify(subscriptionRepository, never()).findSubscriptionRecipientsBySearchValue(any(), any());
+    }
+
     @Test
     void testCollectThirdPartyForDeletion() {
         mockSubscription.setChannel(Channel.API_COURTEL);
-        Map<String, List<Subscription>> returnedMap = Collections.singletonMap(TEST, List.of(mockSubscription));
-        when(subscriptionRepository.findSubscriptionsBySearchValue(LIST_TYPE_SEARCH,
-                                                                   publicArtefactMatches.getListType().name()))
-            .thenReturn(List.of(mockSubscription));
-        when(subscriptionChannelService.buildApiSubscriptions(List.of(mockSubscription))).thenReturn(returnedMap);
-        doNothing().when(publicationServicesService).sendEmptyArtefact(any(ThirdPartySubscriptionArtefact.class));
+        Map<String, List<SubscriptionRecipient>> returnedMap = Collections.singletonMap(
+            TEST, recipients(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsBySearchValue(
+            SearchType.LIST_TYPE, publicArtefactMatches.getListType().name()))
+            .thenReturn(recipients(mockSubscription));
+        when(subscriptionChannelService.buildApiSubscriptions(recipients(mockSubscription))).thenReturn(returnedMap);
+        doNothing().when(notificationOutboxService)
+            .queueThirdPartyDeletion(eq(TEST), eq(publicArtefactMatches), any());
         try (LogCaptor logCaptor = LogCaptor.forClass(SubscriptionNotificationService.class)) {
-            subscriptionNotificationService.collectThirdPartyForDeletion(publicArtefactMatches);
+            subscriptionNotificationService.collectThirdPartyForDeletion(publicArtefactMatches).block();
             assertTrue(logCaptor.getErrorLogs().isEmpty(), LOG_MESSAGE_MATCH);
         }
     }
@@ -444,18 +785,17 @@ class SubscriptionNotificationServiceTest {
     @Test
     void testCollectThirdPartyForDeletionClassifiedExcluded() {
         mockSubscription.setChannel(Channel.API_COURTEL);
-        Map<String, List<Subscription>> returnedMap = new ConcurrentHashMap<>();
-        returnedMap.put(TEST, List.of(mockSubscription));
-        when(subscriptionRepository.findSubscriptionsBySearchValue(LIST_TYPE_SEARCH,
-                                                                   classifiedArtefactMatches.getListType().name()))
-            .thenReturn(List.of(mockSubscription));
-        when(accountManagementService.isUserAuthorised(mockSubscription.getUserId(),
-                                                       classifiedArtefactMatches.getListType(),
-                                                       classifiedArtefactMatches.getSensitivity()))
-            .thenReturn(false);
-        subscriptionNotificationService.collectThirdPartyForDeletion(classifiedArtefactMatches);
-        ThirdPartySubscriptionArtefact subscriptionArtefact = new ThirdPartySubscriptionArtefact(
-            TEST, classifiedArtefactMatches);
-        verify(publicationServicesService, never()).sendEmptyArtefact(subscriptionArtefact);
+        Map<String, List<SubscriptionRecipient>> returnedMap = new ConcurrentHashMap<>();
+        returnedMap.put(TEST, recipients(mockSubscription));
+        when(subscriptionRepository.findSubscriptionRecipientsBySearchValue(
+            SearchType.LIST_TYPE, classifiedArtefactMatches.getListType().name()))
+            .thenReturn(recipients(mockSubscription));
+        when(accountManagementService.findAuthorisedUserIds(List.of(mockSubscription.getUserId()),
+                                                           classifiedArtefactMatches.getListType(),
+                                                           classifiedArtefactMatches.getSensitivity()))
+            .thenReturn(Mono.just(Set.of()));
+        subscriptionNotificationService.collectThirdPartyForDeletion(classifiedArtefactMatches).block();
+        verify(notificationOutboxService, never())
+            .queueThirdPartyDeletion(eq(TEST), eq(classifiedArtefactMatches), any());
     }
 }
@@ -0,0 +1,106 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.model.subscription.Channel;
+import uk.gov.hmcts.reform.pip.model.subscription.SearchType;
+import uk.gov.hmcts.reform.pip.subscription.management.models.SubscriptionRecipient;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionRecipientStreamServiceTest {
+    private static final String LOCATION_ID = "1";
+    private static final String LIST_TYPE = "CIVIL_DAILY_CAUSE_LIST";
+    private static final String LIST_LANGUAGE = "ENGLISH";
+    private static final String[] NO_CASES = new String[0];
+    private static final String FIRST_PAGE = "";
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private SubscriptionRepository repository;
+
+    private SubscriptionRecipientStreamService streamService;
+
+    private final List<List<SubscriptionRecipient>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        streamService = new SubscriptionRecipientStreamService(repository, true, BATCH_SIZE);
+    }
+
+    private SubscriptionRecipient recipient(String userId) {
+        return new SubscriptionRecipient(userId, SearchType.LOCATION_ID, LOCATION_ID, Channel.EMAIL);
+    }
+
+    private void page(SubscriptionRecipient after, SubscriptionRecipient... recipients) {
+        when(repository.findSubscriptionRecipientsForArtefactPage(
+            LOCATION_ID, LIST_TYPE, LIST_LANGUAGE, NO_CASES, NO_CASES,
+            after == null ? FIRST_PAGE : after.userId(),
+            after == null ? FIRST_PAGE : after.searchType().name(),
+            after == null ? FIRST_PAGE : after.searchValue(), BATCH_SIZE))
+            .thenReturn(List.of(recipients));
+    }
+
+    private int streamRecipients() {
+        return streamService.streamRecipientsForArtefact(LOCATION_ID, LIST_TYPE, LIST_LANGUAGE, NO_CASES, NO_CASES,
+                                                         batches::add);
+    }
+
+    @Test
+    void testRecipientsAreHandedOnInBatches() {
+        page(null, recipient("1"), recipient("2"));
+        page(recipient("2"), recipient("3"), recipient("4"));
+        page(recipient("4"), recipient("5"));
+
+        assertEquals(5, streamRecipients(), "All recipients should be counted");
+        assertEquals(List.of(List.of(recipient("1"), recipient("2")),
+                             List.of(recipient("3"), recipient("4")),
+                             List.of(recipient("5"))), batches, "Recipients should be split into batches");
+    }
+
+    @Test
+    void testBatchIsNotSplitWithinUser() {
+        SubscriptionRecipient caseSubscription = new SubscriptionRecipient("2", SearchType.CASE_ID, "123",
+                                                                           Channel.EMAIL);
+        page(null, recipient("1"), caseSubscription);
+        page(caseSubscription, recipient("2"), recipient("3"));
+        page(recipient("3"));
+
+        streamRecipients();
+
+        assertEquals(List.of(List.of(recipient("1"), caseSubscription, recipient("2")),
+                             List.of(recipient("3"))), batches,
+                     "All subscriptions of a user should be in the same batch");
+    }
+
+    @Test
+    void testNoBatchesWhenNoRecipients() {
+        page(null);
+
+        assertEquals(0, streamRecipients(), "No recipients should be counted");
+        assertTrue(batches.isEmpty(), "No batches should be handed on");
+    }
+
+    @Test
+    void testNextPageIsNotReadAfterPartialPage() {
+        page(null, recipient("1"));
+
+        streamRecipients();
+
+        verify(repository, never()).findSubscriptionRecipientsForArtefactPage(
+            LOCATION_ID, LIST_TYPE, LIST_LANGUAGE, NO_CASES, NO_CASES, "1", SearchType.LOCATION_ID.name(),
+            LOCATION_ID, BATCH_SIZE);
+    }
+}
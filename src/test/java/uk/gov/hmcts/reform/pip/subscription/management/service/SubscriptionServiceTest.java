@@ -29,7 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.pip.model.publication.ListType.CIVIL_DAILY_CAUSE_LIST;
@@ -68,6 +68,15 @@ class SubscriptionServiceTest {
     @Mock
     SubscriptionListTypeRepository subscriptionListTypeRepository;
 
+    @Mock
+    SubscriptionIndexService subscriptionIndexService;
+
+    @Mock
+    CaseSubscriptionFilterService caseSubscriptionFilterService;
+
+    @Mock
+    ViewRefreshSchedulerService viewRefreshSchedulerService;
+
     @InjectMocks
     SubscriptionService subscriptionService;
 
@@ -91,10 +100,12 @@ class SubscriptionServiceTest {
     @Test
     void testCreateSubscription() {
         mockSubscription.setSearchType(SearchType.CASE_ID);
-        when(subscriptionRepository.save(mockSubscription)).thenReturn(mockSubscription);
+        when(subscriptionRepository.upsertSubscription(mockSubscription)).thenReturn(mockSubscription);
         assertEquals(subscriptionService.createSubscription(mockSubscription, ACTIONING_USER_ID), mockSubscription,
                      SUBSCRIPTION_CREATED_ERROR
         );
+        verify(subscriptionIndexService).subscriptionSaved(mockSubscription);
+        verify(caseSubscriptionFilterService).subscriptionSaved(mockSubscription);
     }
 
     @Test
@@ -102,7 +113,7 @@ class SubscriptionServiceTest {
         ArgumentCaptor<Subscription> argumentCaptor = ArgumentCaptor.forClass(Subscription.class);
 
         mockSubscription.setSearchType(SearchType.CASE_ID);
-        when(subscriptionRepository.save(argumentCaptor.capture())).thenReturn(mockSubscription);
+        when(subscriptionRepository.upsertSubscription(argumentCaptor.capture())).thenReturn(mockSubscription);
 
         subscriptionService.createSubscription(mockSubscription, ACTIONING_USER_ID);
 
@@ -117,7 +128,7 @@ class SubscriptionServiceTest {
     void testCreateSubscriptionWithCourtName() {
         mockSubscription.setSearchType(SearchType.LOCATION_ID);
         when(dataManagementService.getCourtName(SEARCH_VALUE)).thenReturn(COURT_NAME);
-        when(subscriptionRepository.save(mockSubscription)).thenReturn(mockSubscription);
+        when(subscriptionRepository.upsertSubscription(mockSubscription)).thenReturn(mockSubscription);
         assertEquals(subscriptionService.createSubscription(mockSubscription, ACTIONING_USER_ID), mockSubscription,
                      SUBSCRIPTION_CREATED_ERROR
         );
@@ -127,7 +138,7 @@ class SubscriptionServiceTest {
     void testCreateSubscriptionWithCourtNameWithoutListType() {
         mockSubscription.setSearchType(SearchType.LOCATION_ID);
         when(dataManagementService.getCourtName(SEARCH_VALUE)).thenReturn(COURT_NAME);
-        when(subscriptionRepository.save(mockSubscription)).thenReturn(mockSubscription);
+        when(subscriptionRepository.upsertSubscription(mockSubscription)).thenReturn(mockSubscription);
         assertEquals(subscriptionService.createSubscription(mockSubscription, ACTIONING_USER_ID), mockSubscription,
                      SUBSCRIPTION_CREATED_ERROR
         );
@@ -137,7 +148,7 @@ class SubscriptionServiceTest {
     void testCreateSubscriptionWithCourtNameWithMultipleListType() {
         mockSubscription.setSearchType(SearchType.LOCATION_ID);
         when(dataManagementService.getCourtName(SEARCH_VALUE)).thenReturn(COURT_NAME);
-        when(subscriptionRepository.save(mockSubscription)).thenReturn(mockSubscription);
+        when(subscriptionRepository.upsertSubscription(mockSubscription)).thenReturn(mockSubscription);
         assertEquals(subscriptionService.createSubscription(mockSubscription, ACTIONING_USER_ID), mockSubscription,
                      SUBSCRIPTION_CREATED_ERROR
         );
@@ -145,18 +156,20 @@ class SubscriptionServiceTest {
 
     @Test
     void testCreateDuplicateSubscription() {
+        Subscription existingSubscription = createMockSubscription(USER_ID, SEARCH_VALUE, EMAIL, DATE_ADDED);
         mockSubscription.setSearchType(SearchType.LOCATION_ID);
         mockSubscription.setSearchValue(SEARCH_VALUE);
         when(dataManagementService.getCourtName(SEARCH_VALUE)).thenReturn(COURT_NAME);
-        when(subscriptionRepository.save(mockSubscription)).thenReturn(mockSubscription);
-        when(subscriptionRepository.findByUserId(USER_ID)).thenReturn(List.of(mockSubscription));
+        when(subscriptionRepository.upsertSubscription(mockSubscription)).thenReturn(existingSubscription);
 
         Subscription returnedSubscription =
             subscriptionService.createSubscription(mockSubscription, ACTIONING_USER_ID);
 
-        verify(subscriptionRepository, times(1)).delete(mockSubscription);
-        assertEquals(returnedSubscription, mockSubscription,
-                     "The Returned subscription does match the expected subscription"
+        verify(subscriptionRepository, never()).findByUserId(USER_ID);
+        verify(subscriptionRepository, never()).delete(any());
+        verify(subscriptionIndexService).subscriptionSaved(existingSubscription);
+        assertEquals(existingSubscription, returnedSubscription,
+                     "The existing subscription should be returned once it has been replaced"
         );
     }
 
@@ -199,6 +212,8 @@ class SubscriptionServiceTest {
         doNothing().when(subscriptionLocationService).deleteSubscriptionListTypeByUser(any());
         subscriptionService.deleteById(testUuid, ACTIONING_USER_ID);
         assertEquals(testUuid, captor.getValue(), "The service layer tried to delete the wrong subscription");
+        verify(subscriptionIndexService).subscriptionsDeleted(List.of(testUuid));
+        verify(viewRefreshSchedulerService).recordWrites(1);
     }
 
     @Test
@@ -26,7 +26,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscription;
 import static uk.gov.hmcts.reform.pip.subscription.management.helpers.SubscriptionUtils.createMockSubscriptionList;
@@ -59,6 +59,15 @@ class UserSubscriptionServiceTest {
     @Mock
     SubscriptionListTypeRepository subscriptionListTypeRepository;
 
+    @Mock
+    SubscriptionIndexService subscriptionIndexService;
+
+    @Mock
+    ViewRefreshSchedulerService viewRefreshSchedulerService;
+
+    @Mock
+    AccountManagementService accountManagementService;
+
     @InjectMocks
     UserSubscriptionService userSubscriptionService;
 
@@ -223,9 +232,12 @@ class UserSubscriptionServiceTest {
     void testDeleteAllByUserId() {
         String testString = "testId";
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        doNothing().when(subscriptionRepository).deleteAllByUserId(captor.capture());
+        when(subscriptionRepository.deleteAllByUserId(captor.capture())).thenReturn(3);
         userSubscriptionService.deleteAllByUserId(testString);
         assertEquals(testString, captor.getValue(),
                      "The service layer failed to delete the correct user id subscriptions");
+        verify(subscriptionIndexService).userSubscriptionsDeleted(testString);
+        verify(viewRefreshSchedulerService).recordWrites(3);
+        verify(accountManagementService).evictUserAuthorisation(testString);
     }
 }
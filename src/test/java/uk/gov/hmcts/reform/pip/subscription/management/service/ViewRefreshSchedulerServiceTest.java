@@ -0,0 +1,121 @@
+package uk.gov.hmcts.reform.pip.subscription.management.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshStatus;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ViewRefreshSchedulerServiceTest {
+    private static final long WRITE_THRESHOLD = 5;
+    private static final long LONG_MAX_AGE = 3_600_000;
+
+    @Mock
+    private ViewService viewService;
+
+    private ViewRefreshStatus statusOf(ViewRefreshState state) {
+        return new ViewRefreshStatus(state, LocalDateTime.now(), null, null);
+    }
+
+    @Test
+    void testNoRefreshWithoutWrites() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, 0);
+        scheduler.refreshIfRequired();
+
+        verify(viewService, never()).refreshView();
+    }
+
+    @Test
+    void testNoRefreshBelowThresholds() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, LONG_MAX_AGE);
+        scheduler.recordWrites(1);
+        scheduler.refreshIfRequired();
+
+        verify(viewService, never()).refreshView();
+    }
+
+    @Test
+    void testRefreshWhenWriteThresholdReached() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, LONG_MAX_AGE);
+        scheduler.recordWrites(3);
+        scheduler.recordWrites(2);
+        scheduler.refreshIfRequired();
+
+        verify(viewService, times(1)).refreshView();
+    }
+
+    @Test
+    void testRefreshWhenMaxAgeReached() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, 0);
+        scheduler.recordWrites(1);
+        scheduler.refreshIfRequired();
+
+        verify(viewService, times(1)).refreshView();
+    }
+
+    @Test
+    void testWritesDuringRefreshWaitForRefreshToFinish() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, 0);
+        scheduler.recordWrites(1);
+        scheduler.refreshIfRequired();
+
+        when(viewService.getRefreshStatus()).thenReturn(statusOf(ViewRefreshState.IN_PROGRESS));
+        scheduler.recordWrites(1);
+        scheduler.refreshIfRequired();
+        verify(viewService, times(1)).refreshView();
+
+        when(viewService.getRefreshStatus()).thenReturn(statusOf(ViewRefreshState.COMPLETED));
+        scheduler.refreshIfRequired();
+        verify(viewService, times(2)).refreshView();
+    }
+
+    @Test
+    void testWritesRetriedWhenRefreshSkipped() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, LONG_MAX_AGE);
+        scheduler.recordWrites((int) WRITE_THRESHOLD);
+        scheduler.refreshIfRequired();
+
+        when(viewService.getRefreshStatus()).thenReturn(statusOf(ViewRefreshState.SKIPPED));
+        scheduler.refreshIfRequired();
+
+        verify(viewService, times(2)).refreshView();
+    }
+
+    @Test
+    void testWritesNotRetriedWhenRefreshCompleted() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, true,
+                                                                                WRITE_THRESHOLD, LONG_MAX_AGE);
+        scheduler.recordWrites((int) WRITE_THRESHOLD);
+        scheduler.refreshIfRequired();
+
+        when(viewService.getRefreshStatus()).thenReturn(statusOf(ViewRefreshState.COMPLETED));
+        scheduler.refreshIfRequired();
+
+        verify(viewService, times(1)).refreshView();
+    }
+
+    @Test
+    void testNoRefreshWhenDisabled() {
+        ViewRefreshSchedulerService scheduler = new ViewRefreshSchedulerService(viewService, false,
+                                                                                WRITE_THRESHOLD, 0);
+        scheduler.recordWrites((int) WRITE_THRESHOLD);
+        scheduler.refreshIfRequired();
+
+        verify(viewService, never()).refreshView();
+    }
+}
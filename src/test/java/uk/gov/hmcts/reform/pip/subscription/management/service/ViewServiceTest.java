@@ -1,28 +1,179 @@
 package uk.gov.hmcts.reform.pip.subscription.management.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefresh;
+import uk.gov.hmcts.reform.pip.subscription.management.models.ViewRefreshState;
 import uk.gov.hmcts.reform.pip.subscription.management.repository.SubscriptionRepository;
+import uk.gov.hmcts.reform.pip.subscription.management.repository.ViewRefreshRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ViewServiceTest {
 
+    private static final String STATE_MESSAGE = "Refresh state does not match";
+
+    private static final long TIMEOUT_MS = 3_600_000;
+
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
-    @InjectMocks
+    @Mock
+    private ViewRefreshRepository viewRefreshRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Runnable> submittedTasks = new ArrayList<>();
+
     private ViewService viewService;
 
+    @BeforeEach
+    void setup() {
+        lenient().when(subscriptionRepository.tryAdvisoryTransactionLock(anyLong())).thenReturn(true);
+        viewService = createViewService(new SyncTaskExecutor());
+    }
+
+    private ViewService createViewService(TaskExecutor taskExecutor) {
+        return new ViewService(subscriptionRepository, viewRefreshRepository, transactionManager, taskExecutor,
+                               TIMEOUT_MS);
+    }
+
+    private void startsRefresh() {
+        when(viewRefreshRepository.startOrQueueRefresh(anyString(), any(), any())).thenReturn(false);
+    }
+
     @Test
     void refreshViewTest() {
+        startsRefresh();
+        when(viewRefreshRepository.completeRefresh(anyString(), any()))
+            .thenReturn(ViewRefreshState.COMPLETED.name());
+
+        viewService.refreshView();
+
+        verify(subscriptionRepository, times(1)).refreshSubscriptionView();
+        verify(viewRefreshRepository).completeRefresh(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void refreshStatusNotStartedTest() {
+        when(viewRefreshRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        assertThat(viewService.getRefreshStatus().getState())
+            .as(STATE_MESSAGE)
+            .isEqualTo(ViewRefreshState.NOT_STARTED);
+    }
+
+    @Test
+    void refreshStatusReadFromDatabaseTest() {
+        ViewRefresh viewRefresh = new ViewRefresh();
+        viewRefresh.setState(ViewRefreshState.FAILED);
+        viewRefresh.setReason("Refresh failed");
+        when(viewRefreshRepository.findById(anyString())).thenReturn(Optional.of(viewRefresh));
+
+        assertThat(viewService.getRefreshStatus())
+            .as("Refresh status does not match")
+            .satisfies(status -> {
+                assertThat(status.getState()).isEqualTo(ViewRefreshState.FAILED);
+                assertThat(status.getReason()).isEqualTo("Refresh failed");
+            });
+    }
+
+    @Test
+    void refreshViewFailureTest() {
+        startsRefresh();
+        doThrow(new IllegalStateException("Refresh failed")).when(subscriptionRepository).refreshSubscriptionView();
+
+        viewService.refreshView();
+
+        verify(viewRefreshRepository).recordRefreshOutcome(anyString(), eq(ViewRefreshState.FAILED),
+                                                           eq("Refresh failed"), any(LocalDateTime.class));
+        verify(viewRefreshRepository, never()).completeRefresh(anyString(), any());
+    }
+
+    @Test
+    void refreshViewSkippedWhenLockHeldTest() {
+        startsRefresh();
+        when(subscriptionRepository.tryAdvisoryTransactionLock(anyLong())).thenReturn(false);
+
         viewService.refreshView();
+
+        verify(subscriptionRepository, never()).refreshSubscriptionView();
+        verify(viewRefreshRepository).recordRefreshOutcome(anyString(), eq(ViewRefreshState.SKIPPED), anyString(),
+                                                           any(LocalDateTime.class));
+    }
+
+    @Test
+    void refreshViewRunsInBackgroundTest() {
+        startsRefresh();
+        when(viewRefreshRepository.completeRefresh(anyString(), any()))
+            .thenReturn(ViewRefreshState.COMPLETED.name());
+        viewService = createViewService(submittedTasks::add);
+
+        viewService.refreshView();
+        verify(subscriptionRepository, never()).refreshSubscriptionView();
+
+        submittedTasks.get(0).run();
+
         verify(subscriptionRepository, times(1)).refreshSubscriptionView();
     }
 
+    @Test
+    void refreshViewQueuedWhileInProgressTest() {
+        when(viewRefreshRepository.startOrQueueRefresh(anyString(), any(), any())).thenReturn(false, true, true);
+        when(viewRefreshRepository.completeRefresh(anyString(), any()))
+            .thenReturn(ViewRefreshState.IN_PROGRESS.name(), ViewRefreshState.COMPLETED.name());
+        viewService = createViewService(submittedTasks::add);
+
+        viewService.refreshView();
+        viewService.refreshView();
+        viewService.refreshView();
+
+        assertThat(submittedTasks)
+            .as("Only one background refresh should be submitted")
+            .hasSize(1);
+
+        submittedTasks.get(0).run();
+
+        verify(subscriptionRepository, times(2)).refreshSubscriptionView();
+    }
+
+    @Test
+    void refreshViewRejectedTest() {
+        startsRefresh();
+        TaskExecutor rejectingExecutor = task -> {
+            throw new TaskRejectedException("Executor is full");
+        };
+        viewService = createViewService(rejectingExecutor);
+
+        assertThrows(TaskRejectedException.class, () -> viewService.refreshView(),
+                     "Rejected refresh should be thrown");
+        verify(viewRefreshRepository).recordRefreshOutcome(anyString(), eq(ViewRefreshState.FAILED),
+                                                           eq("Executor is full"), any(LocalDateTime.class));
+    }
+
 }